@@ -0,0 +1,94 @@
+// File: benchmarks/src/main/java/inventory/bench/BatchPricingBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountCalculator;
+import inventory.DiscountStrategy;
+import inventory.Product;
+import inventory.ProductType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices a what-if simulation of many (product, quantity, discount) rows,
+ * one row at a time with finalPriceCents and all at once with
+ * finalPricesCents. Scores are rows priced per second.
+ *
+ * Discounts are mixed at random, so the one-at-a-time version can't
+ * predict which strategy (or which branch inside it) comes next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchPricingBenchmark {
+
+    private static final int ROWS = 1 << 16;
+
+    @Param({"mixed", "Student"})
+    public String discounts;
+
+    private long[] prices;
+    private int[] quantities;
+    private byte[] types;
+    private byte[] codes;
+    private long[] results;
+
+    // The same rows as objects, for the one-at-a-time version
+    private Product[] products;
+    private DiscountStrategy[] strategies;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] names = {"None", "Student", "Bulk", "Best"};
+        prices = new long[ROWS];
+        quantities = new int[ROWS];
+        types = new byte[ROWS];
+        codes = new byte[ROWS];
+        results = new long[ROWS];
+        products = new Product[ROWS];
+        strategies = new DiscountStrategy[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            prices[i] = 500 + random.nextInt(100_000);
+            quantities[i] = 1 + random.nextInt(8);
+            types[i] = (byte) random.nextInt(ProductType.values().length);
+            String discount = discounts.equals("mixed") ? names[random.nextInt(names.length)] : discounts;
+            codes[i] = DiscountCalculator.batchCode(discount);
+
+            products[i] = new Product("Row " + i, ProductType.fromCode(types[i]), 0.0, 100);
+            products[i].setPriceCents(prices[i]);
+            strategies[i] = DiscountCalculator.resolve(discount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long[] oneAtATime() {
+        for (int i = 0; i < ROWS; i++) {
+            results[i] = DiscountCalculator.finalPriceCents(products[i], quantities[i], strategies[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long[] batch() {
+        DiscountCalculator.finalPricesCents(prices, quantities, types, codes, results, ROWS);
+        return results;
+    }
+}
@@ -0,0 +1,74 @@
+// File: benchmarks/src/main/java/inventory/bench/BatchSaleBenchmark.java
+package inventory.bench;
+
+import inventory.ConsoleEventSink;
+import inventory.DiscountCalculator;
+import inventory.InventoryManager;
+import inventory.OrderLine;
+import inventory.SaleResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares selling an order with one sellProducts call against
+ * selling the same lines one sellProduct call at a time.
+ * The inventory uses a ConsoleEventSink writing to a null stream, so the
+ * individual calls pay for formatting their receipts but not for the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchSaleBenchmark {
+
+    @Param({"10", "50"})
+    public int linesPerOrder;
+
+    private InventoryManager inventory;
+    private List<OrderLine> order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(10_000);
+        inventory.setEventSink(new ConsoleEventSink(BenchmarkSupport.nullStream()));
+
+        String[] discounts = DiscountCalculator.getAvailableDiscountTypes();
+        order = new ArrayList<>();
+        for (int i = 0; i < linesPerOrder; i++) {
+            order.add(new OrderLine(BenchmarkSupport.productName(i * 31), 1 + (i % 6),
+                    discounts[i % discounts.length]));
+        }
+    }
+
+    @Benchmark
+    public List<SaleResult> batch() {
+        return inventory.sellProducts(order);
+    }
+
+    @Benchmark
+    public int individual() {
+        int sold = 0;
+        for (OrderLine line : order) {
+            if (inventory.sellProduct(line.getProductName(), line.getQuantity(), line.getDiscountType())) {
+                sold++;
+            }
+        }
+        return sold;
+    }
+}
@@ -0,0 +1,73 @@
+// File: benchmarks/src/main/java/inventory/bench/BenchmarkSupport.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.NoOpEventSink;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Helpers shared by the benchmarks.
+ *
+ * Benchmarks build their catalogs with a NoOpEventSink, so setup doesn't
+ * print a line per product.
+ */
+final class BenchmarkSupport {
+
+    // Starting stock for every product - big enough that sales never run out
+    static final int STOCK = 1_000_000_000;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Build an inventory with the given number of products.
+     * Even numbered products are books, odd numbered ones are electronics.
+     *
+     * @param size How many products to add
+     * @return The filled inventory
+     */
+    static InventoryManager buildInventory(int size) {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        for (int i = 0; i < size; i++) {
+            String type = (i % 2 == 0) ? "Book" : "Electronics";
+            inventory.addProduct(type, productName(i), 10.0 + (i % 100), STOCK);
+        }
+        return inventory;
+    }
+
+    /**
+     * Get a print stream that throws away everything written to it.
+     *
+     * @return A null print stream
+     */
+    static PrintStream nullStream() {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Get 1024 product names spread evenly over a catalog, in upper case so
+     * the case-insensitive lookup path is measured.
+     *
+     * @param catalogSize How many products the catalog holds
+     * @return The names to look up
+     */
+    static String[] lookupNames(int catalogSize) {
+        String[] names = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = productName((int) ((i * 7919L) % catalogSize)).toUpperCase();
+        }
+        return names;
+    }
+
+    /**
+     * Get the name used for product number i.
+     *
+     * @param i The product number
+     * @return The product name
+     */
+    static String productName(int i) {
+        return "Product " + i;
+    }
+}
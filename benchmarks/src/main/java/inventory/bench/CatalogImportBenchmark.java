@@ -0,0 +1,84 @@
+// File: benchmarks/src/main/java/inventory/bench/CatalogImportBenchmark.java
+package inventory.bench;
+
+import inventory.CatalogImporter;
+import inventory.ImportReport;
+import inventory.InventoryManager;
+import inventory.NoOpEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares importing a supplier catalog file with CatalogImporter against
+ * reading it line by line and calling addProduct for every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class CatalogImportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private Path catalog;
+
+    @Setup
+    public void setUp() throws IOException {
+        catalog = Files.createTempFile("catalog", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(catalog, StandardCharsets.UTF_8)) {
+            out.write("type,name,price,quantity\n");
+            for (int i = 0; i < catalogSize; i++) {
+                String type = (i % 2 == 0) ? "Book" : "Electronics";
+                out.write(type + "," + BenchmarkSupport.productName(i) + "," + (10 + i % 100)
+                        + "," + BenchmarkSupport.STOCK + "\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(catalog);
+    }
+
+    @Benchmark
+    public ImportReport catalogImporter() throws IOException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        return new CatalogImporter().importCatalog(catalog, inventory);
+    }
+
+    @Benchmark
+    public InventoryManager addProductPerRow() throws IOException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (BufferedReader in = Files.newBufferedReader(catalog, StandardCharsets.UTF_8)) {
+            in.readLine(); // Header
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split(",");
+                inventory.addProduct(fields[0], fields[1], Double.parseDouble(fields[2]),
+                        Integer.parseInt(fields[3]));
+            }
+        }
+        return inventory;
+    }
+}
@@ -0,0 +1,66 @@
+// File: benchmarks/src/main/java/inventory/bench/CommandReplayBenchmark.java
+package inventory.bench;
+
+import inventory.CommandRunner;
+import inventory.InventoryManager;
+import inventory.NoOpEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a fixed CommandWorkload file (10,000 products, 200,000 commands)
+ * through CommandRunner, the same path Main's batch mode takes. Each run
+ * starts from an empty inventory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CommandReplayBenchmark {
+
+    private Path workload;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        workload = Files.createTempFile("workload", ".txt");
+        CommandWorkload.write(workload, 10_000, 200_000, 42);
+
+        // "stats" commands print the statistics - keep them out of the results
+        originalOut = System.out;
+        System.setOut(BenchmarkSupport.nullStream());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(workload);
+    }
+
+    @Benchmark
+    public CommandRunner.Summary replay() throws IOException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (Reader input = Files.newBufferedReader(workload, StandardCharsets.UTF_8)) {
+            return new CommandRunner(inventory, BenchmarkSupport.nullStream()).run(input);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+// File: benchmarks/src/main/java/inventory/bench/CommandWorkload.java
+package inventory.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a repeatable command file for Main's batch mode: a catalog of
+ * "add" commands followed by a mix of sales (85%), restocks (15%) and an
+ * occasional "stats". The same seed always gives the same file, so it can
+ * be replayed against different builds to compare them.
+ *
+ * Run with:
+ * java -cp target/benchmarks.jar inventory.bench.CommandWorkload file [products] [commands] [seed]
+ * java -jar ../target/simple-inventory-1.0.0.jar --batch file
+ */
+public class CommandWorkload {
+
+    private static final String[] DISCOUNTS = {"None", "Student", "Bulk", "Best"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: CommandWorkload file [products] [commands] [seed]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int products = (args.length > 1) ? Integer.parseInt(args[1]) : 10_000;
+        int commands = (args.length > 2) ? Integer.parseInt(args[2]) : 1_000_000;
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 42;
+        write(file, products, commands, seed);
+        System.out.println("Wrote " + (products + commands) + " commands to " + file);
+    }
+
+    /**
+     * Write a workload file.
+     *
+     * @param file     Where to write it
+     * @param products How many products to add first
+     * @param commands How many commands to run after that
+     * @param seed     Random seed - the same seed gives the same file
+     */
+    static void write(Path file, int products, int commands, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# products=" + products + " commands=" + commands + " seed=" + seed + "\n");
+            for (int i = 0; i < products; i++) {
+                String type = (i % 2 == 0) ? "Book" : "Electronics";
+                out.write("add," + type + "," + BenchmarkSupport.productName(i) + ","
+                        + (10 + i % 100) + ".99," + (1000 + random.nextInt(1000)) + "\n");
+            }
+            for (int i = 0; i < commands; i++) {
+                String name = BenchmarkSupport.productName(random.nextInt(products));
+                int roll = random.nextInt(1000);
+                if (roll == 0) {
+                    out.write("stats\n");
+                } else if (roll < 850) {
+                    out.write("sell," + name + "," + (1 + random.nextInt(5)) + ","
+                            + DISCOUNTS[random.nextInt(DISCOUNTS.length)] + "\n");
+                } else {
+                    out.write("restock," + name + "," + (1 + random.nextInt(20)) + "\n");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+// File: benchmarks/src/main/java/inventory/bench/DiscountCalculatorBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountCalculator;
+import inventory.DiscountQuote;
+import inventory.DiscountStrategy;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DiscountCalculator for each discount type.
+ * Alternates between a book and an electronics item and between small and
+ * bulk quantities, so every branch of each strategy is exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountCalculatorBenchmark {
+
+    @Param({"Student", "Bulk", "None", "Best"})
+    public String discountType;
+
+    private Product[] products;
+    private DiscountStrategy strategy;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        strategy = DiscountCalculator.resolve(discountType);
+        products = new Product[]{
+                new Product("Bench Book", "Book", 29.99, 100),
+                new Product("Bench Laptop", "Electronics", 599.99, 100)
+        };
+    }
+
+    @Benchmark
+    public double calculateDiscount() {
+        next++;
+        return DiscountCalculator.calculateDiscount(products[next & 1], 1 + (next & 7), discountType);
+    }
+
+    @Benchmark
+    public double calculateFinalPrice() {
+        next++;
+        return DiscountCalculator.calculateFinalPrice(products[next & 1], 1 + (next & 7), discountType);
+    }
+
+    @Benchmark
+    public DiscountQuote quoteResolvedStrategy() {
+        next++;
+        return strategy.quote(products[next & 1], 1 + (next & 7));
+    }
+}
@@ -0,0 +1,70 @@
+// File: benchmarks/src/main/java/inventory/bench/DiscountRuleBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountRule;
+import inventory.DiscountRuleEngine;
+import inventory.DiscountStrategy;
+import inventory.Product;
+import inventory.ProductType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one discount lookup through a rules-file promotion, with a few
+ * rules and with many. The time per sale should stay about the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountRuleBenchmark {
+
+    @Param({"10", "1000"})
+    public int ruleCount;
+
+    private DiscountStrategy promotion;
+    private Product[] products;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<DiscountRule> rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            ProductType type = random.nextBoolean() ? null : ProductType.values()[random.nextInt(2)];
+            long min = random.nextInt(50_000);
+            rules.add(new DiscountRule("BenchPromo", type, random.nextInt(10), min,
+                    min + 1 + random.nextInt(50_000), 1 + random.nextInt(40)));
+        }
+        DiscountRuleEngine engine = new DiscountRuleEngine(null);
+        engine.setRules(rules);
+        promotion = engine.getPromotion("BenchPromo");
+
+        products = new Product[64];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product("Bench " + i, ProductType.values()[i & 1], 1 + random.nextInt(1000), 100);
+        }
+    }
+
+    @Benchmark
+    public long calculateDiscountCents() {
+        next++;
+        return promotion.calculateDiscountCents(products[next & 63], 1 + (next & 15));
+    }
+}
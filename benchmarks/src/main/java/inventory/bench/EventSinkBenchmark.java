@@ -0,0 +1,73 @@
+// File: benchmarks/src/main/java/inventory/bench/EventSinkBenchmark.java
+package inventory.bench;
+
+import inventory.AsyncEventSink;
+import inventory.ConsoleEventSink;
+import inventory.InventoryEventSink;
+import inventory.InventoryManager;
+import inventory.NoOpEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sellProduct latency with each kind of event sink.
+ * Console and async sinks write to a null stream, so this shows the cost of
+ * formatting on the sale path rather than the speed of a terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSinkBenchmark {
+
+    @Param({"noop", "console", "async"})
+    public String sink;
+
+    private InventoryManager inventory;
+    private InventoryEventSink events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(1_000);
+        switch (sink) {
+            case "console":
+                events = new ConsoleEventSink(BenchmarkSupport.nullStream());
+                break;
+            case "async":
+                events = new AsyncEventSink(BenchmarkSupport.nullStream(), 65_536);
+                break;
+            default:
+                events = NoOpEventSink.INSTANCE;
+        }
+        inventory.setEventSink(events);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (events instanceof AsyncEventSink) {
+            ((AsyncEventSink) events).close();
+        }
+    }
+
+    @Benchmark
+    public boolean sellProduct() {
+        next = (next + 1) % 1_000;
+        return inventory.sellProduct(BenchmarkSupport.productName(next), 1, "Student");
+    }
+}
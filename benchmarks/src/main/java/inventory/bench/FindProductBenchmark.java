@@ -0,0 +1,51 @@
+// File: benchmarks/src/main/java/inventory/bench/FindProductBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures InventoryManager.findProduct as the catalog grows.
+ * With the name index the time per lookup should stay flat from
+ * 10 products all the way to a million.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindProductBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private InventoryManager inventory;
+    private String[] lookupNames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(catalogSize);
+        lookupNames = BenchmarkSupport.lookupNames(catalogSize);
+    }
+
+    @Benchmark
+    public Product findProduct() {
+        next = (next + 1) & (lookupNames.length - 1);
+        return inventory.findProduct(lookupNames[next]);
+    }
+}
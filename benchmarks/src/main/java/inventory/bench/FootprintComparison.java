@@ -0,0 +1,53 @@
+// File: benchmarks/src/main/java/inventory/bench/FootprintComparison.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.NoOpEventSink;
+
+/**
+ * Measures the heap used by a catalog held in InventoryManager (one Product
+ * object per item), with type names given as constants and as read from a file.
+ *
+ * Run with:
+ * java -Xmx4g -cp target/benchmarks.jar inventory.bench.FootprintComparison [products]
+ */
+public class FootprintComparison {
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("Catalog size: " + size);
+
+        long before = usedHeap();
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        for (int i = 0; i < size; i++) {
+            inventory.addProduct(type(i), BenchmarkSupport.productName(i), 10.0 + (i % 100), i % 20);
+        }
+        report("InventoryManager", usedHeap() - before, size);
+        inventory = null;
+
+        // Type names read from a file are a new String on every row
+        before = usedHeap();
+        inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        for (int i = 0; i < size; i++) {
+            inventory.addProduct(new String(type(i)), BenchmarkSupport.productName(i), 10.0 + (i % 100), i % 20);
+        }
+        report("InventoryManager (types as read)", usedHeap() - before, size);
+    }
+
+    private static String type(int i) {
+        return (i % 2 == 0) ? "Book" : "Electronics";
+    }
+
+    private static void report(String label, long bytes, int size) {
+        System.out.printf("%-32s %8.1f MB  %6.1f bytes/product%n",
+                label, bytes / 1024.0 / 1024.0, (double) bytes / size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
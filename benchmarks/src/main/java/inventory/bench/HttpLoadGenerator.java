@@ -0,0 +1,204 @@
+// File: benchmarks/src/main/java/inventory/bench/HttpLoadGenerator.java
+package inventory.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A small load generator for Main's HTTP service.
+ *
+ * Each simulated client keeps one request in flight on its own keep-alive
+ * connection and sends the next as soon as the answer arrives: 70% product
+ * lookups, 20% sales and 10% restocks, spread over every product the server
+ * has. At the end it prints requests per second and latency percentiles.
+ *
+ * Clients run on virtual threads when Java has them, otherwise on one
+ * platform thread each.
+ *
+ * Run the server, then the generator:
+ * java -jar target/simple-inventory-1.0.0.jar --serve 8080
+ * java -cp benchmarks/target/benchmarks.jar inventory.bench.HttpLoadGenerator [url] [clients] [seconds]
+ */
+public class HttpLoadGenerator {
+
+    private static final Pattern NAME = Pattern.compile("\"name\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    public static void main(String[] args) throws Exception {
+        String base = (args.length > 0) ? args[0] : "http://localhost:8080";
+        int clients = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+        // Keep one connection per client alive between requests
+        System.setProperty("http.maxConnections", String.valueOf(clients));
+
+        String[] paths = productPaths(base);
+        if (paths.length == 0) {
+            System.out.println("The server has no products to load test");
+            return;
+        }
+        System.out.println("Load testing " + base + " with " + clients + " clients for " + seconds
+                + " s over " + paths.length + " products");
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = newExecutor();
+        List<Future<Client>> running = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(base, paths, deadline);
+            running.add(executor.submit(client::run));
+        }
+        List<Client> finished = new ArrayList<>(clients);
+        for (Future<Client> client : running) {
+            finished.add(client.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        report(finished, elapsed);
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Get the URL path of every product, from the by-type endpoint.
+     */
+    private static String[] productPaths(String base) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (String type : new String[]{"Book", "Electronics"}) {
+            HttpURLConnection connection =
+                    (HttpURLConnection) new URL(base + "/types/" + type + "/products").openConnection();
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Matcher matcher = NAME.matcher(body);
+            while (matcher.find()) {
+                String name = matcher.group(1).replace("\\\"", "\"").replace("\\\\", "\\");
+                paths.add("/products/" + URLEncoder.encode(name, StandardCharsets.UTF_8).replace("+", "%20"));
+            }
+        }
+        return paths.toArray(new String[0]);
+    }
+
+    private static void report(List<Client> clients, long elapsedNanos) {
+        int total = 0;
+        long errors = 0;
+        for (Client client : clients) {
+            total += client.count;
+            errors += client.errors;
+        }
+        long[] latencies = new long[total];
+        int next = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, next, client.count);
+            next += client.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("Requests: %d (%d errors)%n", total, errors);
+        System.out.printf("Throughput: %.0f requests/s%n", total * 1e9 / elapsedNanos);
+        if (total > 0) {
+            System.out.printf("Latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n",
+                    percentile(latencies, 50) / 1e6, percentile(latencies, 90) / 1e6,
+                    percentile(latencies, 99) / 1e6, latencies[total - 1] / 1e6);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    /**
+     * One simulated client, sending requests one after another until the deadline.
+     */
+    private static final class Client {
+        private final String base;
+        private final String[] paths;
+        private final long deadline;
+        private final byte[] buffer = new byte[8192];
+
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        Client(String base, String[] paths, long deadline) {
+            this.base = base;
+            this.paths = paths;
+            this.deadline = deadline;
+        }
+
+        Client run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                String path = paths[random.nextInt(paths.length)];
+                int roll = random.nextInt(10);
+                String method = "GET";
+                if (roll >= 9) {
+                    method = "POST";
+                    path += "/restock?quantity=1";
+                } else if (roll >= 7) {
+                    method = "POST";
+                    path += "/sell?quantity=1";
+                }
+
+                long begin = System.nanoTime();
+                boolean ok = send(method, path);
+                record(System.nanoTime() - begin);
+                if (!ok) {
+                    errors++;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Send one request and read the whole answer, so the connection can be reused.
+         */
+        private boolean send(String method, String path) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(base + path).openConnection();
+                connection.setRequestMethod(method);
+                int status = connection.getResponseCode();
+                InputStream in = (status < 400) ? connection.getInputStream() : connection.getErrorStream();
+                if (in != null) {
+                    try (in) {
+                        while (in.read(buffer) > 0) {
+                            // Discard the body
+                        }
+                    }
+                }
+                // 409 just means a product sold out - the server answered fine
+                return status == 200 || status == 409;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// File: benchmarks/src/main/java/inventory/bench/InventoryManagerBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded benchmarks of the InventoryManager operations we run in
+ * production, over catalogs from a thousand to a million products.
+ *
+ * Point operations (find, sell, restock) cycle through a fixed set of names
+ * spread over the catalog. Scans (by type, low stock, total value) touch
+ * every product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryManagerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private InventoryManager inventory;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(catalogSize);
+        names = BenchmarkSupport.lookupNames(catalogSize);
+    }
+
+    private String nextName() {
+        next = (next + 1) & (names.length - 1);
+        return names[next];
+    }
+
+    @Benchmark
+    public Product findProduct() {
+        return inventory.findProduct(nextName());
+    }
+
+    @Benchmark
+    public boolean sellProduct() {
+        return inventory.sellProduct(nextName(), 1, "Bulk");
+    }
+
+    @Benchmark
+    public boolean addStock() {
+        return inventory.addStock(nextName(), 1);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Product> getProductsByType() {
+        return inventory.getProductsByType("Book");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Product> getLowStockProducts() {
+        return inventory.getLowStockProducts();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double getTotalInventoryValue() {
+        return inventory.getTotalInventoryValue();
+    }
+}
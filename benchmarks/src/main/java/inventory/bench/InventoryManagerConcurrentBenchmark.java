@@ -0,0 +1,87 @@
+// File: benchmarks/src/main/java/inventory/bench/InventoryManagerConcurrentBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmarks of the InventoryManager point operations.
+ * All threads share one inventory; each thread walks its own sequence of
+ * names. The hotSku variant has every thread selling the same product to
+ * measure contention on a single quantity.
+ *
+ * Run with -t to change the thread count (defaults to 4).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class InventoryManagerConcurrentBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private InventoryManager inventory;
+    private String[] names;
+
+    /**
+     * Each benchmark thread keeps its own position in the name list.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup
+        public void setUp() {
+            next = (int) (Thread.currentThread().getId() * 97);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(catalogSize);
+        names = BenchmarkSupport.lookupNames(catalogSize);
+    }
+
+    private String nextName(Cursor cursor) {
+        cursor.next = (cursor.next + 1) & (names.length - 1);
+        return names[cursor.next];
+    }
+
+    @Benchmark
+    public Product findProduct(Cursor cursor) {
+        return inventory.findProduct(nextName(cursor));
+    }
+
+    @Benchmark
+    public boolean sellProduct(Cursor cursor) {
+        return inventory.sellProduct(nextName(cursor), 1, "Bulk");
+    }
+
+    @Benchmark
+    public boolean addStock(Cursor cursor) {
+        return inventory.addStock(nextName(cursor), 1);
+    }
+
+    @Benchmark
+    public boolean sellProductHotSku() {
+        return inventory.sellProduct(names[0], 1, "None");
+    }
+}
@@ -0,0 +1,92 @@
+// File: benchmarks/src/main/java/inventory/bench/JournalBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryJournal;
+import inventory.InventoryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of journaling sales. Eight threads sell from a shared inventory
+ * with no journal ("off"), an ASYNC journal, or a SYNC journal where each
+ * sale waits for its record to reach the disk. With group commit, SYNC
+ * throughput should grow with the thread count rather than being capped
+ * at one fsync per sale.
+ *
+ * The journal lives in a temporary file that is deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class JournalBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"off", "async", "sync"})
+    public String mode;
+
+    private InventoryManager inventory;
+    private String[] names;
+    private Path file;
+    private InventoryJournal journal;
+
+    /**
+     * Each benchmark thread keeps its own position in the name list.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup
+        public void setUp() {
+            next = (int) (Thread.currentThread().getId() * 97);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        inventory = BenchmarkSupport.buildInventory(CATALOG_SIZE);
+        names = BenchmarkSupport.lookupNames(CATALOG_SIZE);
+        if (!"off".equals(mode)) {
+            file = Files.createTempFile("inventory-journal", ".log");
+            InventoryJournal.Mode journalMode = "sync".equals(mode)
+                    ? InventoryJournal.Mode.SYNC : InventoryJournal.Mode.ASYNC;
+            journal = new InventoryJournal(file, journalMode);
+            inventory.setJournal(journal);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public boolean sellProduct(Cursor cursor) {
+        cursor.next = (cursor.next + 1) & (names.length - 1);
+        return inventory.sellProduct(names[cursor.next], 1, "None");
+    }
+}
@@ -0,0 +1,82 @@
+// File: benchmarks/src/main/java/inventory/bench/MetricsOverheadBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountCalculator;
+import inventory.DiscountStrategy;
+import inventory.InventoryManager;
+import inventory.NoOpEventSink;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the built-in metrics cost: the same finds, sales and restocks with
+ * metrics on and off. The difference is the price of reading the clock
+ * twice and bumping a histogram bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private InventoryManager inventory;
+    private String[] names;
+    private DiscountStrategy discount;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(CATALOG_SIZE);
+        inventory.setEventSink(NoOpEventSink.INSTANCE);
+        inventory.getMetrics().setEnabled(metrics);
+        names = BenchmarkSupport.lookupNames(CATALOG_SIZE);
+        discount = DiscountCalculator.resolve(DiscountCalculator.BULK_DISCOUNT);
+    }
+
+    private String nextName() {
+        next = (next + 1) & (names.length - 1);
+        return names[next];
+    }
+
+    @Benchmark
+    public Product findProduct() {
+        return inventory.findProduct(nextName());
+    }
+
+    @Benchmark
+    public boolean sellProduct() {
+        return inventory.sellProduct(nextName(), 1, discount);
+    }
+
+    @Benchmark
+    public boolean addStock() {
+        return inventory.addStock(nextName(), 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean sellProductConcurrent() {
+        // Shared counter races are fine here - any name will do
+        return inventory.sellProduct(nextName(), 1, discount);
+    }
+}
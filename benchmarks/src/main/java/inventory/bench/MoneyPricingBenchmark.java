@@ -0,0 +1,88 @@
+// File: benchmarks/src/main/java/inventory/bench/MoneyPricingBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountCalculator;
+import inventory.DiscountStrategy;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices a batch of sales with the old double arithmetic and with whole
+ * cents, to check the exact version is no slower.
+ *
+ * doublePrices repeats what DiscountCalculator used to do: price times
+ * quantity, minus 10% or 15% of that, all in doubles. centsPrices uses
+ * DiscountCalculator.finalPriceCents. Neither allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyPricingBenchmark {
+
+    private static final int SALES = 1024;
+
+    private Product[] products;
+    private int[] quantities;
+    private DiscountStrategy student;
+    private DiscountStrategy bulk;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        products = new Product[SALES];
+        quantities = new int[SALES];
+        for (int i = 0; i < SALES; i++) {
+            boolean book = random.nextBoolean();
+            double price = (book ? 10 : 50) + random.nextInt(50_000) / 100.0;
+            products[i] = new Product("Item " + i, book ? "Book" : "Electronics", price, 100);
+            quantities[i] = 1 + random.nextInt(8);
+        }
+        student = DiscountCalculator.resolve(DiscountCalculator.STUDENT_DISCOUNT);
+        bulk = DiscountCalculator.resolve(DiscountCalculator.BULK_DISCOUNT);
+    }
+
+    @Benchmark
+    public double doublePrices() {
+        double total = 0.0;
+        for (int i = 0; i < SALES; i++) {
+            Product product = products[i];
+            int quantity = quantities[i];
+            double original = product.getPrice() * quantity;
+            double discount = 0.0;
+            if ((i & 1) == 0) {
+                if ("Book".equals(product.getType())) {
+                    discount = original * 0.10;
+                }
+            } else if (quantity >= 5) {
+                discount = original * 0.15;
+            }
+            total += original - discount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long centsPrices() {
+        long total = 0;
+        for (int i = 0; i < SALES; i++) {
+            DiscountStrategy strategy = ((i & 1) == 0) ? student : bulk;
+            total += DiscountCalculator.finalPriceCents(products[i], quantities[i], strategy);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,98 @@
+// File: benchmarks/src/main/java/inventory/bench/NameSearchBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix and typo searches on a million-product catalog, returning the
+ * top 10 candidates.
+ *
+ * Typo queries are real product names with one or two random edits
+ * (a letter changed, dropped, added or swapped with its neighbour).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class NameSearchBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+    private static final int TOP = 10;
+
+    @Param({"1", "2"})
+    public int maxEdits;
+
+    private InventoryManager inventory;
+    private String[] prefixes;
+    private String[] typos;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(CATALOG_SIZE);
+        Random random = new Random(42);
+        prefixes = new String[1024];
+        typos = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = BenchmarkSupport.productName(random.nextInt(CATALOG_SIZE));
+            prefixes[i] = name.substring(0, 8 + random.nextInt(name.length() - 7));
+            typos[i] = misspell(name, maxEdits, random);
+        }
+    }
+
+    private static String misspell(String name, int edits, Random random) {
+        StringBuilder text = new StringBuilder(name);
+        for (int e = 0; e < edits; e++) {
+            int at = random.nextInt(text.length() - 1);
+            switch (random.nextInt(4)) {
+                case 0:
+                    text.setCharAt(at, (char) ('a' + random.nextInt(26)));
+                    break;
+                case 1:
+                    text.deleteCharAt(at);
+                    break;
+                case 2:
+                    text.insert(at, (char) ('0' + random.nextInt(10)));
+                    break;
+                default:
+                    char c = text.charAt(at);
+                    text.setCharAt(at, text.charAt(at + 1));
+                    text.setCharAt(at + 1, c);
+            }
+        }
+        return text.toString();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (prefixes.length - 1);
+        return next;
+    }
+
+    @Benchmark
+    public List<Product> prefixSearch() {
+        return inventory.searchByPrefix(prefixes[nextIndex()], TOP);
+    }
+
+    @Benchmark
+    public List<Product> typoSearch() {
+        return inventory.searchSimilar(typos[nextIndex()], maxEdits, TOP);
+    }
+}
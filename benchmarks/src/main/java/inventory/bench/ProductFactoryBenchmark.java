@@ -0,0 +1,45 @@
+// File: benchmarks/src/main/java/inventory/bench/ProductFactoryBenchmark.java
+package inventory.bench;
+
+import inventory.Product;
+import inventory.ProductFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ProductFactory.createProduct for each product type,
+ * single-threaded and with four threads creating products at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductFactoryBenchmark {
+
+    @Param({"Book", "Electronics"})
+    public String type;
+
+    @Benchmark
+    public Product createProduct() {
+        return ProductFactory.createProduct(type, "Bench Product", 24.99, 10);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Product createProductConcurrent() {
+        return ProductFactory.createProduct(type, "Bench Product", 24.99, 10);
+    }
+}
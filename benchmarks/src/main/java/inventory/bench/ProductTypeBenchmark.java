@@ -0,0 +1,86 @@
+// File: benchmarks/src/main/java/inventory/bench/ProductTypeBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountCalculator;
+import inventory.DiscountStrategy;
+import inventory.InventoryManager;
+import inventory.Product;
+import inventory.ProductType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-dependent paths over a million-product catalog: the student discount
+ * (which checks each product's type), looking up a type's products and value
+ * by name, and creating products from type names read from a file.
+ *
+ * See FootprintComparison for the memory side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductTypeBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+
+    private InventoryManager inventory;
+    private List<Product> products;
+    private DiscountStrategy student;
+    private String[] typesAsRead;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(CATALOG_SIZE);
+        products = inventory.getProductsByType(ProductType.BOOK);
+        student = DiscountCalculator.resolve(DiscountCalculator.STUDENT_DISCOUNT);
+        typesAsRead = new String[1024];
+        for (int i = 0; i < typesAsRead.length; i++) {
+            typesAsRead[i] = new String((i % 2 == 0) ? "Book" : "Electronics");
+        }
+    }
+
+    @Benchmark
+    public long studentDiscountOverCatalog() {
+        long total = 0;
+        for (int type = 0; type < 2; type++) {
+            for (Product product : inventory.getProductsByType(ProductType.fromCode(type))) {
+                total += student.calculateDiscountCents(product, 1);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double typeStatistics() {
+        // What the statistics screen asks for, by type name
+        return inventory.getProductCountByType(new String("Book"))
+                + inventory.getInventoryValueByType(new String("Electronics"))
+                + products.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int resolveTypeNames() {
+        int books = 0;
+        for (String type : typesAsRead) {
+            if (ProductType.of(type) == ProductType.BOOK) {
+                books++;
+            }
+        }
+        return books;
+    }
+}
@@ -0,0 +1,71 @@
+// File: benchmarks/src/main/java/inventory/bench/ReservationBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reserving and finishing a hold while many other reservations are
+ * outstanding. With the timing wheel it shouldn't matter whether there are
+ * none or a million waiting to expire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ReservationBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final long ONE_HOUR = 60 * 60 * 1000;
+
+    // Short enough that benchmark holds are dropped from the wheel during the run
+    private static final long HOLD_MILLIS = 2000;
+
+    @Param({"0", "1000000"})
+    public int outstanding;
+
+    private InventoryManager inventory;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.buildInventory(CATALOG_SIZE);
+        names = BenchmarkSupport.lookupNames(CATALOG_SIZE);
+        for (int i = 0; i < outstanding; i++) {
+            inventory.reserve(BenchmarkSupport.productName(i % CATALOG_SIZE), 1, ONE_HOUR);
+        }
+    }
+
+    private String nextName() {
+        next = (next + 1) & (names.length - 1);
+        return names[next];
+    }
+
+    @Benchmark
+    public boolean reserveAndCommit() {
+        Reservation reservation = inventory.reserve(nextName(), 1, HOLD_MILLIS);
+        return inventory.commitReservation(reservation);
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        Reservation reservation = inventory.reserve(nextName(), 1, HOLD_MILLIS);
+        return inventory.releaseReservation(reservation);
+    }
+}
@@ -0,0 +1,111 @@
+// File: benchmarks/src/main/java/inventory/bench/ShardedInventoryBenchmark.java
+package inventory.bench;
+
+import inventory.DiscountCalculator;
+import inventory.DiscountStrategy;
+import inventory.NoOpEventSink;
+import inventory.Product;
+import inventory.ProductType;
+import inventory.ShardedInventoryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A million-product inventory split over 1 to 16 shards.
+ *
+ * The aggregate benchmarks gather every low stock product, or every book,
+ * from all shards on a ForkJoinPool with one worker per core. The point
+ * benchmarks sell from 1 and from 4 threads at once.
+ *
+ * To see scaling from 1 to N cores, run on a machine with N cores and
+ * compare shards=1 with shards=N, for example:
+ * java -jar target/benchmarks.jar ShardedInventoryBenchmark -p shards=1,8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ShardedInventoryBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+
+    @Param({"1", "4", "16"})
+    public int shards;
+
+    private ForkJoinPool pool;
+    private ShardedInventoryManager inventory;
+    private DiscountStrategy discount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        inventory = new ShardedInventoryManager(NoOpEventSink.INSTANCE, shards, pool);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            String type = (i % 2 == 0) ? "Book" : "Electronics";
+            // One product in twenty is low in stock and stays that way
+            int quantity = (i % 20 == 0) ? 1 : BenchmarkSupport.STOCK;
+            inventory.addProduct(type, BenchmarkSupport.productName(i), 10.0 + (i % 100), quantity);
+        }
+        discount = DiscountCalculator.resolve(DiscountCalculator.NO_DISCOUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private String randomName() {
+        // Skip the low stock products so sales always succeed
+        int i = ThreadLocalRandom.current().nextInt(CATALOG_SIZE) | 1;
+        return BenchmarkSupport.productName(i);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Product> lowStockProducts() {
+        return inventory.getLowStockProducts();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Product> productsByType() {
+        return inventory.getProductsByType(ProductType.BOOK);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long totalValue() {
+        return inventory.getTotalInventoryValueCents();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean sellOneThread() {
+        return inventory.sellProduct(randomName(), 1, discount);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean sellFourThreads() {
+        return inventory.sellProduct(randomName(), 1, discount);
+    }
+}
@@ -0,0 +1,62 @@
+// File: benchmarks/src/main/java/inventory/bench/SnapshotStartupBenchmark.java
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.InventorySnapshot;
+import inventory.NoOpEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how long it takes to get a catalog serving again: loading it
+ * from a snapshot versus adding every product through ProductFactory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SnapshotStartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private Path snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        snapshot = Files.createTempFile("inventory", ".snapshot");
+        InventorySnapshot.save(BenchmarkSupport.buildInventory(catalogSize), snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public InventoryManager loadSnapshot() throws IOException {
+        return InventorySnapshot.load(snapshot, NoOpEventSink.INSTANCE);
+    }
+
+    @Benchmark
+    public InventoryManager addThroughFactory() {
+        return BenchmarkSupport.buildInventory(catalogSize);
+    }
+}
@@ -0,0 +1,262 @@
+// File: src/main/java/inventory/AsyncEventSink.java
+package inventory;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An event sink that prints on a background thread.
+ *
+ * Calling threads only copy the event into a slot of a fixed-size ring
+ * buffer, which takes a few nanoseconds and never blocks. A single writer
+ * thread takes events out of the ring, formats them (same text as
+ * ConsoleEventSink) and writes them in batches, so a sale never waits for
+ * String.format or the console.
+ *
+ * If events arrive faster than they can be printed and the ring fills up,
+ * new events are dropped rather than slowing down sales. getDroppedCount()
+ * says how many were lost.
+ *
+ * Call close() when finished, so everything still in the ring is printed.
+ */
+public class AsyncEventSink implements InventoryEventSink, AutoCloseable {
+
+    // Kinds of events stored in the ring
+    private static final int PRODUCT_ADDED = 1;
+    private static final int PRODUCT_ADD_FAILED = 2;
+    private static final int SALE_COMPLETED = 3;
+    private static final int SALE_FAILED = 4;
+    private static final int STOCK_ADDED = 5;
+    private static final int STOCK_ADD_FAILED = 6;
+
+    // How long the writer sleeps when there's nothing to print
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    /**
+     * One slot of the ring. Slots are reused, so recording an event
+     * doesn't create any new objects.
+     *
+     * The sequence number says who may use the slot next: a producer when it
+     * equals the position being claimed, the writer when it is one more.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        int kind;
+        Object subject;  // Product or SaleResult
+        String name;
+        int quantity;
+        int stock;
+    }
+
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();  // Next position producers will claim
+    private volatile long head;                        // Next position the writer will read
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final PrintStream out;
+    private final int maxBatch;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Create an asynchronous sink that prints to System.out.
+     */
+    public AsyncEventSink() {
+        this(System.out, 8192);
+    }
+
+    /**
+     * Create an asynchronous sink.
+     *
+     * @param out      Where to print
+     * @param capacity How many events the ring can hold (rounded up to a power of two)
+     */
+    public AsyncEventSink(PrintStream out, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+            ring[i].sequence = i;
+        }
+        this.mask = size - 1;
+        this.maxBatch = Math.min(size, 256);
+        this.out = out;
+
+        writer = new Thread(this::writeLoop, "inventory-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        publish(PRODUCT_ADDED, product, null, 0, 0);
+    }
+
+    @Override
+    public void productAddFailed(String name, String reason) {
+        publish(PRODUCT_ADD_FAILED, reason, name, 0, 0);
+    }
+
+    @Override
+    public void saleCompleted(SaleResult result) {
+        publish(SALE_COMPLETED, result, null, 0, 0);
+    }
+
+    @Override
+    public void saleFailed(SaleResult result) {
+        publish(SALE_FAILED, result, null, 0, 0);
+    }
+
+    @Override
+    public void stockAdded(String productName, int quantity, int newStock) {
+        publish(STOCK_ADDED, null, productName, quantity, newStock);
+    }
+
+    @Override
+    public void stockAddFailed(String productName, int quantity) {
+        publish(STOCK_ADD_FAILED, null, productName, quantity, 0);
+    }
+
+    /**
+     * Get how many events were dropped because the ring was full.
+     *
+     * @return The number of dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Wait until every event recorded so far has been printed.
+     */
+    public void flush() {
+        long target = tail.get();
+        while (head < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            Thread.yield();
+        }
+        out.flush();
+    }
+
+    /**
+     * Print whatever is left in the ring and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    /**
+     * Claim a slot, fill it in and hand it to the writer.
+     */
+    private void publish(int kind, Object subject, String name, int quantity, int stock) {
+        while (true) {
+            long position = tail.get();
+            Slot slot = ring[(int) position & mask];
+            long difference = slot.sequence - position;
+
+            if (difference < 0) {
+                // The writer hasn't freed this slot yet - the ring is full
+                dropped.incrementAndGet();
+                return;
+            }
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                slot.kind = kind;
+                slot.subject = subject;
+                slot.name = name;
+                slot.quantity = quantity;
+                slot.stock = stock;
+                slot.sequence = position + 1; // Ready for the writer
+                return;
+            }
+            // Another producer claimed this position first - try the next one
+        }
+    }
+
+    /**
+     * Body of the writer thread: take events out in batches and print them.
+     */
+    private void writeLoop() {
+        StringBuilder text = new StringBuilder(4096);
+        while (true) {
+            int count = drain(text);
+            if (count > 0) {
+                out.print(text);
+                text.setLength(0);
+            } else if (!running) {
+                // Stopped, and nothing left that was published before stopping
+                if (head == tail.get()) {
+                    out.flush();
+                    return;
+                }
+                Thread.onSpinWait(); // A producer is still filling in its slot
+            } else {
+                out.flush();
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Format up to one batch of ready events.
+     *
+     * @return How many events were formatted
+     */
+    private int drain(StringBuilder text) {
+        int count = 0;
+        long position = head;
+        while (count < maxBatch) {
+            Slot slot = ring[(int) position & mask];
+            if (slot.sequence != position + 1) {
+                break; // Not published yet
+            }
+            format(text, slot);
+
+            // Clear references so printed events can be garbage collected
+            slot.subject = null;
+            slot.name = null;
+            slot.sequence = position + ring.length; // Free for the next lap
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    private static void format(StringBuilder text, Slot slot) {
+        switch (slot.kind) {
+            case PRODUCT_ADDED:
+                ConsoleEventSink.formatProductAdded(text, (Product) slot.subject);
+                break;
+            case PRODUCT_ADD_FAILED:
+                ConsoleEventSink.formatProductAddFailed(text, slot.name, (String) slot.subject);
+                break;
+            case SALE_COMPLETED:
+                ConsoleEventSink.formatSaleCompleted(text, (SaleResult) slot.subject);
+                break;
+            case SALE_FAILED:
+                ConsoleEventSink.formatSaleFailed(text, (SaleResult) slot.subject);
+                break;
+            case STOCK_ADDED:
+                ConsoleEventSink.formatStockAdded(text, slot.name, slot.quantity, slot.stock);
+                break;
+            case STOCK_ADD_FAILED:
+                ConsoleEventSink.formatStockAddFailed(text, slot.name, slot.quantity);
+                break;
+            default:
+                break;
+        }
+    }
+}
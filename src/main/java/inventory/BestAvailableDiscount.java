@@ -0,0 +1,68 @@
+// File: src/main/java/inventory/BestAvailableDiscount.java
+package inventory;
+
+import java.util.Collection;
+
+/**
+ * Best available discount: tries every registered discount and keeps the
+ * one that gives the lowest price.
+ *
+ * The quote names the winning strategy, so receipts say which discount
+ * was actually applied.
+ */
+public class BestAvailableDiscount implements DiscountStrategy {
+
+    // Strategies to choose from (the registry, as seen by DiscountCalculator)
+    private final Collection<DiscountStrategy> candidates;
+
+    /**
+     * Create a best-discount strategy.
+     *
+     * @param candidates The strategies to choose from - may include this one, which is skipped
+     */
+    public BestAvailableDiscount(Collection<DiscountStrategy> candidates) {
+        this.candidates = candidates;
+    }
+
+    @Override
+    public String getName() {
+        return DiscountCalculator.BEST_DISCOUNT;
+    }
+
+    @Override
+    public double calculateDiscount(Product product, int quantity) {
+        return quote(product, quantity).getAmount();
+    }
+
+    @Override
+    public long calculateDiscountCents(Product product, int quantity) {
+        return quote(product, quantity).getAmountCents();
+    }
+
+    @Override
+    public DiscountQuote quote(Product product, int quantity) {
+        DiscountStrategy best = DiscountCalculator.NONE;
+        long bestAmount = 0;
+
+        // The biggest discount gives the cheapest price
+        for (DiscountStrategy candidate : candidates) {
+            if (candidate == this || candidate instanceof BestAvailableDiscount) {
+                continue;
+            }
+            long amount = candidate.calculateDiscountCents(product, quantity);
+            if (amount > bestAmount) {
+                best = candidate;
+                bestAmount = amount;
+            }
+        }
+        return DiscountQuote.ofCents(best, bestAmount);
+    }
+
+    @Override
+    public String describe(double discount) {
+        if (discount > 0) {
+            return "Best discount: $" + Money.format(Money.toCents(discount));
+        }
+        return "No discount applied";
+    }
+}
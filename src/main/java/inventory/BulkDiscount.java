@@ -0,0 +1,39 @@
+// File: src/main/java/inventory/BulkDiscount.java
+package inventory;
+
+/**
+ * Bulk discount: 15% off when buying 5 or more of any item.
+ */
+public class BulkDiscount implements DiscountStrategy {
+
+    // Smallest quantity that gets the bulk discount
+    public static final int MINIMUM_QUANTITY = 5;
+
+    @Override
+    public String getName() {
+        return DiscountCalculator.BULK_DISCOUNT;
+    }
+
+    @Override
+    public double calculateDiscount(Product product, int quantity) {
+        return Money.toDollars(calculateDiscountCents(product, quantity));
+    }
+
+    @Override
+    public long calculateDiscountCents(Product product, int quantity) {
+        // No bulk discount for less than 5 items
+        if (quantity < MINIMUM_QUANTITY) {
+            return 0;
+        }
+        long totalPrice = Money.times(product.getPriceCents(), quantity);
+        return Money.percentOf(totalPrice, 15); // 15% discount
+    }
+
+    @Override
+    public String describe(double discount) {
+        if (discount > 0) {
+            return "Bulk discount (15% off 5+ items): $" + Money.format(Money.toCents(discount));
+        }
+        return "No discount applied";
+    }
+}
@@ -0,0 +1,398 @@
+// File: src/main/java/inventory/CatalogImporter.java
+package inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * CatalogImporter loads a supplier catalog file into an inventory.
+ *
+ * The file has one product per line, as comma separated values:
+ *
+ *   type,name,price,quantity
+ *   Book,Java Programming,29.99,10
+ *   Electronics,"Cable, USB-C",12.50,200
+ *
+ * The header line is optional. Fields may be wrapped in double quotes when
+ * they contain commas, with "" standing for a quote inside the field.
+ *
+ * Calling addProduct once per row would print a line for every product and
+ * take the inventory lock millions of times. Instead the importer:
+ * - splits the file into chunks that end on line boundaries
+ * - maps each chunk into memory and parses the chunks in parallel
+ * - creates every product through ProductFactory, so the same type check
+ *   and minimum prices apply as when adding products by hand
+ * - adds the products chunk by chunk, in file order, in batches of a few
+ *   thousand and without any events
+ *
+ * Only a few chunks are parsed at a time (about one per core), and each is
+ * dropped once its products are in the inventory, so a big catalog is never
+ * held in memory twice. The inventory lock is taken once per batch, so other
+ * threads aren't shut out for the whole import.
+ *
+ * Rows that can't be imported are skipped and listed in the ImportReport
+ * with their line number and the reason.
+ */
+public class CatalogImporter {
+
+    // Default chunk size - big enough to keep each task busy, small enough
+    // to spread a large file over all cores
+    public static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+
+    // How many products are added under one hold of the inventory lock
+    private static final int BATCH_SIZE = 4096;
+
+    // How many rejections are kept with their reasons
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final int chunkBytes;
+
+    /**
+     * Create an importer with the default chunk size.
+     */
+    public CatalogImporter() {
+        this(DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Create an importer that splits files into chunks of about the given size.
+     *
+     * @param chunkBytes Roughly how many bytes each parallel task parses
+     */
+    public CatalogImporter(int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Import every valid row of a catalog file into an inventory.
+     *
+     * @param file      The catalog file (UTF-8)
+     * @param inventory The inventory to add the products to
+     * @return A report of what was imported and what was rejected
+     * @throws IOException if the file can't be read
+     */
+    public ImportReport importCatalog(Path file, InventoryManager inventory) throws IOException {
+        long start = System.nanoTime();
+
+        List<ImportReport.Rejection> rejections = new ArrayList<>();
+        long rowsRead = 0;
+        long imported = 0;
+        long rejected = 0;
+        long firstLine = 1;
+        int parallelChunks = Runtime.getRuntime().availableProcessors();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            int chunkCount = bounds.length - 1;
+            for (int first = 0; first < chunkCount; first += parallelChunks) {
+                // Parse the next few chunks side by side...
+                List<Chunk> chunks;
+                try {
+                    chunks = IntStream.range(first, Math.min(first + parallelChunks, chunkCount))
+                            .parallel()
+                            .mapToObj(i -> parse(channel, bounds[i], bounds[i + 1], i == 0))
+                            .collect(Collectors.toList());
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+
+                // ...then add them in order, so the first row with a name wins
+                for (Chunk chunk : chunks) {
+                    imported += addChunk(chunk, inventory);
+                    chunk.rejections.sort(Comparator.comparingLong(ImportReport.Rejection::getLine));
+                    for (ImportReport.Rejection rejection : chunk.rejections) {
+                        if (rejections.size() == MAX_REPORTED_REJECTIONS) {
+                            break;
+                        }
+                        // Turn chunk line numbers into file line numbers
+                        rejections.add(new ImportReport.Rejection(firstLine + rejection.getLine(),
+                                rejection.getReason()));
+                    }
+                    rowsRead += chunk.rows;
+                    rejected += chunk.rejected;
+                    firstLine += chunk.lines;
+                }
+            }
+        }
+
+        return new ImportReport(rowsRead, imported, rejected, System.nanoTime() - start, rejections);
+    }
+
+    /**
+     * Add a chunk's products to the inventory a batch at a time. Names that
+     * are already taken are rejected in the chunk.
+     *
+     * @return The number of products added
+     */
+    private static long addChunk(Chunk chunk, InventoryManager inventory) {
+        long added = 0;
+        for (int from = 0; from < chunk.products.size(); from += BATCH_SIZE) {
+            List<Product> batch = chunk.products.subList(from, Math.min(from + BATCH_SIZE, chunk.products.size()));
+            List<Integer> skipped = inventory.addImportedProducts(batch);
+            for (int position : skipped) {
+                chunk.reject(chunk.productLines[from + position],
+                        "Product already exists: " + batch.get(position).getName());
+            }
+            added += batch.size() - skipped.size();
+        }
+        return added;
+    }
+
+    /**
+     * Work out where each chunk starts. Every chunk except the last ends
+     * just after a newline, so no row is split between two chunks.
+     *
+     * @return Chunk start positions, followed by the file size
+     */
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[16];
+        int count = 0;
+        long position = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        while (position < size) {
+            if (count == bounds.length - 1) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count++] = position;
+
+            // Jump ahead one chunk, then carry on to the end of that line
+            long end = Math.min(position + chunkBytes, size);
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                int newline = indexOfNewline(probe, read);
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            position = end;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static int indexOfNewline(ByteBuffer buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse one chunk of the file into products and rejections.
+     * Line numbers in the result count from 0 at the start of the chunk.
+     */
+    private static Chunk parse(FileChannel channel, long from, long to, boolean firstChunk) {
+        CharBuffer text;
+        try {
+            text = StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Chunk chunk = new Chunk();
+        List<String> fields = new ArrayList<>(4);
+        boolean lookForHeader = firstChunk;
+        int lineStart = 0;
+        int length = text.length();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && text.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+
+            CharSequence line = text.subSequence(lineStart, contentEnd);
+            if (!isBlank(line)) {
+                boolean wellFormed = splitFields(line, fields);
+                if (lookForHeader && wellFormed && fields.get(0).equalsIgnoreCase("type")) {
+                    // Header row - not a product
+                } else {
+                    chunk.rows++;
+                    String problem = wellFormed ? null : "Unclosed quote";
+                    Product product = null;
+                    if (problem == null) {
+                        try {
+                            product = toProduct(fields);
+                        } catch (IllegalArgumentException e) {
+                            problem = e.getMessage();
+                        }
+                    }
+                    if (product != null) {
+                        chunk.addProduct(product);
+                    } else {
+                        chunk.reject(problem);
+                    }
+                }
+                lookForHeader = false;
+            }
+
+            chunk.lines++;
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Check one row and create its product with ProductFactory.
+     *
+     * @throws IllegalArgumentException explaining what is wrong with the row
+     */
+    private static Product toProduct(List<String> fields) {
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("Expected 4 fields (type,name,price,quantity) but found "
+                    + fields.size());
+        }
+        // Resolved once here, so the product doesn't keep this row's copy of the type name
+        ProductType type = ProductType.require(fields.get(0));
+        String name = fields.get(1);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Product name is empty");
+        }
+
+        // Read straight into cents, so the price never goes through a double
+        long priceCents;
+        try {
+            priceCents = Money.parseCents(fields.get(2));
+        } catch (NumberFormatException | ArithmeticException e) {
+            priceCents = -1;
+        }
+        if (priceCents < 0) {
+            throw new IllegalArgumentException("Invalid price: " + fields.get(2));
+        }
+
+        int quantity;
+        try {
+            quantity = Integer.parseInt(fields.get(3));
+        } catch (NumberFormatException e) {
+            quantity = -1;
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Invalid quantity: " + fields.get(3));
+        }
+
+        // The factory applies the minimum prices for books and electronics
+        return ProductFactory.createProductCents(type, name, priceCents, quantity);
+    }
+
+    /**
+     * Split a line into trimmed fields, honouring double quotes.
+     * CommandRunner uses the same rules for its command lines.
+     *
+     * @return false if a quoted field is never closed
+     */
+    static boolean splitFields(CharSequence line, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            // Skip spaces before the field
+            while (i < length && line.charAt(i) == ' ') {
+                i++;
+            }
+            field.setLength(0);
+            if (i < length && line.charAt(i) == '"') {
+                i++;
+                boolean closed = false;
+                while (i < length) {
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < length && line.charAt(i) == '"') {
+                        field.append('"'); // "" is a quote inside the field
+                        i++;
+                    } else {
+                        closed = true;
+                        break;
+                    }
+                }
+                if (!closed) {
+                    return false;
+                }
+                // Ignore anything between the closing quote and the next comma
+                while (i < length && line.charAt(i) != ',') {
+                    i++;
+                }
+                fields.add(field.toString());
+            } else {
+                int start = i;
+                while (i < length && line.charAt(i) != ',') {
+                    i++;
+                }
+                fields.add(line.subSequence(start, i).toString().trim());
+            }
+
+            if (i >= length) {
+                return true;
+            }
+            i++; // Skip the comma
+        }
+    }
+
+    private static boolean isBlank(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * What one chunk of the file turned into.
+     */
+    private static final class Chunk {
+        final List<Product> products = new ArrayList<>();
+        int[] productLines = new int[64];
+        final List<ImportReport.Rejection> rejections = new ArrayList<>();
+        long rejected;
+        long rows;
+        int lines;
+
+        void addProduct(Product product) {
+            if (products.size() == productLines.length) {
+                productLines = Arrays.copyOf(productLines, productLines.length * 2);
+            }
+            productLines[products.size()] = lines;
+            products.add(product);
+        }
+
+        void reject(String reason) {
+            reject(lines, reason);
+        }
+
+        void reject(int line, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new ImportReport.Rejection(line, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+// File: src/main/java/inventory/CommandRunner.java
+package inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CommandRunner executes a stream of inventory commands without any prompts.
+ *
+ * It is used by Main's batch mode to replay a day's transactions or to run
+ * a load test. Each line holds one command, with comma separated fields
+ * (quoted like CatalogImporter rows when a name contains a comma):
+ *
+ *   add,Book,Java Programming,29.99,10
+ *   sell,Java Programming,2,Student
+ *   restock,Laptop,5
+ *   stats
+ *
+ * The discount type on sell is optional and defaults to "None". Blank lines
+ * and lines starting with # are ignored.
+ *
+ * Every command is timed. When the stream ends, the Summary reports how
+ * many commands ran, how many failed, the overall throughput and latency
+ * percentiles for each kind of command. Because a command file always does
+ * the same thing, it can be kept as a repeatable workload for comparing
+ * the performance of different versions.
+ */
+public class CommandRunner {
+
+    /**
+     * The kinds of command a stream can contain.
+     */
+    public enum Command {
+        ADD, SELL, RESTOCK, STATS
+    }
+
+    // How many malformed lines are reported individually
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final InventoryManager inventory;
+    private final PrintStream errors;
+
+    /**
+     * Create a runner for an inventory.
+     *
+     * @param inventory The inventory to run commands against
+     * @param errors    Where to report lines that can't be understood
+     */
+    public CommandRunner(InventoryManager inventory, PrintStream errors) {
+        this.inventory = inventory;
+        this.errors = errors;
+    }
+
+    /**
+     * Run every command in a stream, then return the summary.
+     *
+     * @param input The commands, one per line
+     * @return What ran, and how fast
+     * @throws IOException if the stream can't be read
+     */
+    public Summary run(Reader input) throws IOException {
+        BufferedReader reader = (input instanceof BufferedReader)
+                ? (BufferedReader) input : new BufferedReader(input, 64 * 1024);
+        Summary summary = new Summary();
+        List<String> fields = new ArrayList<>(5);
+        long lineNumber = 0;
+        long start = System.nanoTime();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            String problem;
+            if (!CatalogImporter.splitFields(trimmed, fields)) {
+                problem = "Unclosed quote";
+            } else {
+                problem = execute(fields, summary);
+            }
+            if (problem != null) {
+                summary.malformed++;
+                if (summary.malformed <= MAX_REPORTED_ERRORS) {
+                    errors.println("Line " + lineNumber + ": " + problem);
+                }
+            }
+        }
+
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    /**
+     * Run one command and record its latency.
+     *
+     * @return null if the command was understood, otherwise what is wrong with it
+     */
+    private String execute(List<String> fields, Summary summary) {
+        String name = fields.get(0).toLowerCase();
+        try {
+            long begin;
+            boolean ok;
+            Command command;
+            switch (name) {
+                case "add":
+                    expectFields(fields, 5, "add,type,name,price,quantity");
+                    long priceCents = parseCents(fields.get(3));
+                    int quantity = Integer.parseInt(fields.get(4));
+                    command = Command.ADD;
+                    begin = System.nanoTime();
+                    ok = inventory.addProductCents(fields.get(1), fields.get(2), priceCents, quantity);
+                    break;
+                case "sell":
+                    if (fields.size() != 3) {
+                        expectFields(fields, 4, "sell,name,quantity[,discount]");
+                    }
+                    int sold = Integer.parseInt(fields.get(2));
+                    String discount = (fields.size() == 4) ? fields.get(3) : DiscountCalculator.NO_DISCOUNT;
+                    command = Command.SELL;
+                    begin = System.nanoTime();
+                    ok = inventory.sellProduct(fields.get(1), sold, discount);
+                    break;
+                case "restock":
+                    expectFields(fields, 3, "restock,name,quantity");
+                    int added = Integer.parseInt(fields.get(2));
+                    command = Command.RESTOCK;
+                    begin = System.nanoTime();
+                    ok = inventory.addStock(fields.get(1), added);
+                    break;
+                case "stats":
+                    expectFields(fields, 1, "stats");
+                    command = Command.STATS;
+                    begin = System.nanoTime();
+                    inventory.showStatistics();
+                    ok = true;
+                    break;
+                default:
+                    return "Unknown command: " + fields.get(0);
+            }
+            summary.record(command, System.nanoTime() - begin, ok);
+            return null;
+        } catch (NumberFormatException e) {
+            return "Not a number: " + e.getMessage();
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static void expectFields(List<String> fields, int count, String usage) {
+        if (fields.size() != count) {
+            throw new IllegalArgumentException("Expected " + usage);
+        }
+    }
+
+    /**
+     * Read a price straight into cents, without going through a double.
+     */
+    private static long parseCents(String text) {
+        try {
+            return Money.parseCents(text);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid price: " + text);
+        }
+    }
+
+    /**
+     * Counts and latencies of a command run.
+     */
+    public static class Summary {
+
+        // One histogram per kind of command, so a long run doesn't keep every time
+        private final LatencyHistogram[] latencies = new LatencyHistogram[Command.values().length];
+        private final long[] counts = new long[Command.values().length];
+        private long failed;
+        private long malformed;
+        private long elapsedNanos;
+
+        Summary() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        void record(Command command, long nanos, boolean ok) {
+            int i = command.ordinal();
+            latencies[i].record(nanos);
+            counts[i]++;
+            if (!ok) {
+                failed++;
+            }
+        }
+
+        /**
+         * Get how many commands ran (not counting malformed lines)
+         * @return The number of commands
+         */
+        public long getCommands() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Get how many commands of one kind ran
+         * @param command The kind of command
+         * @return The number of commands of that kind
+         */
+        public long getCount(Command command) {
+            return counts[command.ordinal()];
+        }
+
+        /**
+         * Get how many commands ran but didn't succeed, such as a sale
+         * with too little stock
+         * @return The number of failed commands
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Get how many lines couldn't be understood
+         * @return The number of malformed lines
+         */
+        public long getMalformed() {
+            return malformed;
+        }
+
+        /**
+         * Get how long the whole run took, including reading the input
+         * @return The time taken in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Get the overall speed
+         * @return Commands per second
+         */
+        public double getThroughput() {
+            return (elapsedNanos == 0) ? 0.0 : getCommands() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Get a latency percentile for one kind of command. Read from a
+         * LatencyHistogram, so it is within about 6% of the exact time.
+         *
+         * @param command    The kind of command
+         * @param percentile Between 0 and 100, for example 99 for the 99th percentile
+         * @return The latency in nanoseconds, or 0 if no such command ran
+         */
+        public long getLatency(Command command, double percentile) {
+            return latencies[command.ordinal()].getPercentile(percentile);
+        }
+
+        /**
+         * Print the summary as a small table.
+         *
+         * @param out Where to print it
+         */
+        public void print(PrintStream out) {
+            out.println("\n=== BATCH SUMMARY ===");
+            out.printf("Commands: %d (%d failed, %d malformed lines)%n", getCommands(), failed, malformed);
+            out.printf("Elapsed: %.3f s%n", elapsedNanos / 1e9);
+            out.printf("Throughput: %.0f commands/s%n", getThroughput());
+            out.println("Latency (microseconds):");
+            out.printf("  %-8s %10s %10s %10s %10s %10s%n", "command", "count", "p50", "p90", "p99", "max");
+            for (Command command : Command.values()) {
+                if (getCount(command) == 0) {
+                    continue;
+                }
+                out.printf("  %-8s %10d %10.1f %10.1f %10.1f %10.1f%n",
+                        command.name().toLowerCase(), getCount(command),
+                        getLatency(command, 50) / 1e3, getLatency(command, 90) / 1e3,
+                        getLatency(command, 99) / 1e3, getLatency(command, 100) / 1e3);
+            }
+            out.println("=====================");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+// File: src/main/java/inventory/ConsoleEventSink.java
+package inventory;
+
+import java.io.PrintStream;
+
+/**
+ * An event sink that prints each event as soon as it happens.
+ * The text is exactly what InventoryManager has always printed.
+ *
+ * The format methods are shared with AsyncEventSink, so both sinks
+ * produce the same output.
+ */
+public class ConsoleEventSink implements InventoryEventSink {
+
+    private static final String NEW_LINE = System.lineSeparator();
+
+    // Where to print, or null to use whatever System.out is at the time
+    private final PrintStream out;
+
+    /**
+     * Create a sink that prints to System.out.
+     */
+    public ConsoleEventSink() {
+        this(null);
+    }
+
+    /**
+     * Create a sink that prints to the given stream.
+     *
+     * @param out Where to print
+     */
+    public ConsoleEventSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        print(formatProductAdded(new StringBuilder(), product));
+    }
+
+    @Override
+    public void productAddFailed(String name, String reason) {
+        print(formatProductAddFailed(new StringBuilder(), name, reason));
+    }
+
+    @Override
+    public void saleCompleted(SaleResult result) {
+        print(formatSaleCompleted(new StringBuilder(), result));
+    }
+
+    @Override
+    public void saleFailed(SaleResult result) {
+        print(formatSaleFailed(new StringBuilder(), result));
+    }
+
+    @Override
+    public void stockAdded(String productName, int quantity, int newStock) {
+        print(formatStockAdded(new StringBuilder(), productName, quantity, newStock));
+    }
+
+    @Override
+    public void stockAddFailed(String productName, int quantity) {
+        print(formatStockAddFailed(new StringBuilder(), productName, quantity));
+    }
+
+    private void print(StringBuilder text) {
+        PrintStream target = (out != null) ? out : System.out;
+        target.print(text);
+    }
+
+    // Format methods - each one appends the lines for one event
+
+    static StringBuilder formatProductAdded(StringBuilder text, Product product) {
+        return line(text, "Added product: " + product.getName());
+    }
+
+    static StringBuilder formatProductAddFailed(StringBuilder text, String name, String reason) {
+        return line(text, "Error adding product: " + reason);
+    }
+
+    static StringBuilder formatSaleCompleted(StringBuilder text, SaleResult result) {
+        line(text, NEW_LINE + "=== SALE COMPLETE ===");
+        line(text, "Product: " + result.getProductName());
+        line(text, "Quantity: " + result.getQuantity());
+        line(text, "Unit Price: $" + Money.format(result.getUnitPriceCents()));
+        line(text, "Original Total: $" + Money.format(result.getOriginalTotalCents()));
+        line(text, result.getDiscountDescription());
+        line(text, "Final Price: $" + Money.format(result.getFinalPriceCents()));
+        line(text, "Remaining Stock: " + result.getRemainingStock());
+        return line(text, "====================" + NEW_LINE);
+    }
+
+    static StringBuilder formatSaleFailed(StringBuilder text, SaleResult result) {
+        if (result.getStatus() == SaleResult.Status.NOT_FOUND) {
+            return line(text, "Product not found: " + result.getProductName());
+        }
+        return line(text, "Not enough stock. Available: " + result.getRemainingStock());
+    }
+
+    static StringBuilder formatStockAdded(StringBuilder text, String productName, int quantity, int newStock) {
+        return line(text, "Added " + quantity + " items to " + productName + ". New stock: " + newStock);
+    }
+
+    static StringBuilder formatStockAddFailed(StringBuilder text, String productName, int quantity) {
+        return line(text, "Product not found: " + productName);
+    }
+
+    private static StringBuilder line(StringBuilder text, String line) {
+        return text.append(line).append(NEW_LINE);
+    }
+}
@@ -1,6 +1,14 @@
 // File: src/main/java/inventory/DiscountCalculator.java
 package inventory;
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * DiscountCalculator class - demonstrates the Strategy Pattern.
  *
@@ -12,6 +20,24 @@ package inventory;
  * 1. Student discount (10% off books)
  * 2. Bulk discount (15% off when buying 5 or more items)
  * 3. No discount
+ * 4. Best available (whichever of the above gives the lowest price)
+ *
+ * More discounts can be defined in a rules file (see DiscountRuleEngine).
+ *
+ * Each way is a DiscountStrategy object kept in a registry by name.
+ * Looking a name up once with resolve() and reusing the strategy saves
+ * matching the name on every sale.
+ *
+ * All the money here is counted in whole cents (see Money), so prices and
+ * discounts are exact. The methods returning doubles are kept for older
+ * callers and just convert the cents.
+ *
+ * For pricing very many sales at once (what-if simulations, big carts)
+ * finalPricesCents works on plain arrays of prices, quantities, type codes
+ * and discount codes. While only the built-in discounts are registered it
+ * applies their rules with arithmetic instead of if statements and
+ * strategy calls, so the loop has no branches to mispredict. The results
+ * are exactly what finalPriceCents gives for each row.
  */
 public class DiscountCalculator {
 
@@ -19,6 +45,67 @@ public class DiscountCalculator {
     public static final String STUDENT_DISCOUNT = "Student";
     public static final String BULK_DISCOUNT = "Bulk";
     public static final String NO_DISCOUNT = "None";
+    public static final String BEST_DISCOUNT = "Best";
+
+    // Discount codes for batch pricing (see batchCode)
+    public static final byte BATCH_NONE = 0;
+    public static final byte BATCH_STUDENT = 1;
+    public static final byte BATCH_BULK = 2;
+    public static final byte BATCH_BEST = 3;
+
+    // Discount percentage each batch code gives on books, and on 5 or more items
+    private static final int[] STUDENT_PERCENT = {0, 10, 0, 10};
+    private static final int[] BULK_PERCENT = {0, 0, 15, 15};
+
+    // Largest unit price the batch loop takes as is: price * quantity * 15 + 50
+    // still fits in a long. Dearer rows are priced one by one, with overflow checks.
+    private static final long MAX_BATCH_PRICE_CENTS = (Long.MAX_VALUE - 50) / 15 / Integer.MAX_VALUE;
+
+    // Registered strategies by name, in the order they were registered. A
+    // read-only copy, replaced on each registration, so lookups never lock.
+    private static volatile Map<String, DiscountStrategy> strategies = Collections.emptyMap();
+
+    // Read-only snapshot of the registered strategies, replaced on each registration
+    private static volatile Collection<DiscountStrategy> registered = Collections.emptyList();
+
+    // Held while registering, so two registrations can't lose each other's strategy
+    private static final Object REGISTER_LOCK = new Object();
+
+    // Shared strategy for "no discount" - also used for unknown discount types
+    static final DiscountStrategy NONE = new NoDiscount();
+
+    static {
+        register(new StudentDiscount());
+        register(new BulkDiscount());
+        register(NONE);
+        register(new BestAvailableDiscount(new StrategiesView()));
+    }
+
+    /**
+     * Add a discount strategy to the registry, or replace the one with the same name.
+     *
+     * @param strategy The strategy to register
+     */
+    public static void register(DiscountStrategy strategy) {
+        synchronized (REGISTER_LOCK) {
+            Map<String, DiscountStrategy> updated = new LinkedHashMap<>(strategies);
+            updated.put(strategy.getName(), strategy);
+            strategies = Collections.unmodifiableMap(updated);
+            registered = Collections.unmodifiableList(new ArrayList<>(updated.values()));
+        }
+    }
+
+    /**
+     * Look up the strategy for a discount type.
+     * Do this once and keep the result when pricing many sales.
+     *
+     * @param discountType The discount type name
+     * @return The registered strategy, or the no-discount strategy if the name is unknown
+     */
+    public static DiscountStrategy resolve(String discountType) {
+        DiscountStrategy strategy = (discountType == null) ? null : strategies.get(discountType);
+        return (strategy != null) ? strategy : NONE;
+    }
 
     /**
      * Calculate discount based on the discount type.
@@ -30,57 +117,30 @@ public class DiscountCalculator {
      * @return The discount amount (money to subtract from total)
      */
     public static double calculateDiscount(Product product, int quantity, String discountType) {
-        // Choose which discount method to use based on the type
-        switch (discountType) {
-            case STUDENT_DISCOUNT:
-                return calculateStudentDiscount(product, quantity);
-            case BULK_DISCOUNT:
-                return calculateBulkDiscount(product, quantity);
-            case NO_DISCOUNT:
-                return 0.0; // No discount
-            default:
-                return 0.0; // Unknown discount type, so no discount
-        }
+        return resolve(discountType).calculateDiscount(product, quantity);
     }
 
     /**
-     * Calculate student discount.
-     * Students get 10% off books, but no discount on electronics.
+     * Work out the discount and its description in one go.
      *
      * @param product  The product being purchased
      * @param quantity How many items
-     * @return The discount amount
+     * @param strategy The discount strategy (from resolve)
+     * @return The discount amount with the strategy that produced it
      */
-    private static double calculateStudentDiscount(Product product, int quantity) {
-        // Check if the product is a book
-        if (product.getType().equals("Book")) {
-            // Calculate 10% discount
-            double totalPrice = product.getPrice() * quantity;
-            return totalPrice * 0.10; // 10% discount
-        } else {
-            // No discount on electronics for students
-            return 0.0;
-        }
+    public static DiscountQuote quote(Product product, int quantity, DiscountStrategy strategy) {
+        return strategy.quote(product, quantity);
     }
 
     /**
-     * Calculate bulk discount.
-     * Get 15% off when buying 5 or more of any item.
+     * Find the discount that gives the lowest price.
      *
      * @param product  The product being purchased
      * @param quantity How many items
-     * @return The discount amount
+     * @return The best discount, naming the strategy that gave it
      */
-    private static double calculateBulkDiscount(Product product, int quantity) {
-        // Check if buying 5 or more items
-        if (quantity >= 5) {
-            // Calculate 15% discount on total price
-            double totalPrice = product.getPrice() * quantity;
-            return totalPrice * 0.15; // 15% discount
-        } else {
-            // No bulk discount for less than 5 items
-            return 0.0;
-        }
+    public static DiscountQuote bestDiscount(Product product, int quantity) {
+        return resolve(BEST_DISCOUNT).quote(product, quantity);
     }
 
     /**
@@ -93,14 +153,146 @@ public class DiscountCalculator {
      * @return The final price after discount
      */
     public static double calculateFinalPrice(Product product, int quantity, String discountType) {
-        // Calculate original total price
-        double originalPrice = product.getPrice() * quantity;
+        return Money.toDollars(finalPriceCents(product, quantity, resolve(discountType)));
+    }
 
-        // Calculate discount amount
-        double discount = calculateDiscount(product, quantity, discountType);
+    /**
+     * Calculate the final price after discount, in cents.
+     * Nothing is allocated, so this is the one to use when pricing lots of sales.
+     *
+     * @param product  The product being purchased
+     * @param quantity How many items
+     * @param strategy The discount strategy (from resolve)
+     * @return The final price in cents
+     */
+    public static long finalPriceCents(Product product, int quantity, DiscountStrategy strategy) {
+        // Calculate original total price
+        long originalPrice = Money.times(product.getPriceCents(), quantity);
 
         // Return final price (original price minus discount)
-        return originalPrice - discount;
+        return originalPrice - strategy.calculateDiscountCents(product, quantity);
+    }
+
+    /**
+     * Get the batch pricing code for a discount type.
+     *
+     * @param discountType The discount type name
+     * @return One of the BATCH_ codes; BATCH_NONE for unknown names, like resolve
+     * @throws IllegalArgumentException if the name belongs to a discount registered
+     *         by the application, which batch pricing doesn't know
+     */
+    public static byte batchCode(String discountType) {
+        if (STUDENT_DISCOUNT.equals(discountType)) {
+            return BATCH_STUDENT;
+        } else if (BULK_DISCOUNT.equals(discountType)) {
+            return BATCH_BULK;
+        } else if (BEST_DISCOUNT.equals(discountType)) {
+            return BATCH_BEST;
+        } else if (NO_DISCOUNT.equals(discountType) || !isValidDiscountType(discountType)) {
+            return BATCH_NONE;
+        }
+        throw new IllegalArgumentException("Discount can't be priced in a batch: " + discountType);
+    }
+
+    /**
+     * Price many sales at once, in cents. Row i sells quantities[i] items
+     * costing priceCents[i] each, of type typeCodes[i] (the ProductType
+     * code), with discount discountCodes[i] (a BATCH_ code), and its final
+     * price goes in finalPriceCents[i] - exactly what finalPriceCents would
+     * give for that product, quantity and discount.
+     *
+     * Nothing is allocated. If a discount has been replaced or added in the
+     * registry, or a row has a negative or very large amount, the rows are
+     * priced one by one with the registered strategies instead.
+     *
+     * @param priceCents      Unit prices in cents
+     * @param quantities      How many items each row sells
+     * @param typeCodes       Product type codes
+     * @param discountCodes   Discount codes (BATCH_NONE, BATCH_STUDENT, BATCH_BULK or BATCH_BEST)
+     * @param finalPriceCents Where the final prices go
+     * @param count           How many rows to price, from the start of each array
+     * @throws IllegalArgumentException if a type or discount code is unknown, or an array is too short
+     * @throws ArithmeticException if a total doesn't fit in a long
+     */
+    public static void finalPricesCents(long[] priceCents, int[] quantities, byte[] typeCodes,
+                                        byte[] discountCodes, long[] finalPriceCents, int count) {
+        if (count < 0 || priceCents.length < count || quantities.length < count || typeCodes.length < count
+                || discountCodes.length < count || finalPriceCents.length < count) {
+            throw new IllegalArgumentException("Arrays are shorter than the row count " + count);
+        }
+
+        // One pass without branches: any row outside the fast loop's range sets the sign bit
+        int lastType = ProductType.count() - 1;
+        long outOfRange = 0;
+        for (int i = 0; i < count; i++) {
+            long price = priceCents[i];
+            outOfRange |= price | (MAX_BATCH_PRICE_CENTS - price) | quantities[i]
+                    | (lastType - typeCodes[i]) | typeCodes[i]
+                    | (BATCH_BEST - discountCodes[i]) | discountCodes[i];
+        }
+        if (outOfRange < 0 || !onlyBuiltInDiscounts()) {
+            priceEachRow(priceCents, quantities, typeCodes, discountCodes, finalPriceCents, count);
+            return;
+        }
+
+        int book = ProductType.BOOK.ordinal();
+        for (int i = 0; i < count; i++) {
+            long original = priceCents[i] * quantities[i];
+            int code = discountCodes[i];
+
+            // 1 for a book or 5+ items, 0 otherwise - the sign bit of a subtraction, not an if
+            int isBook = ((typeCodes[i] ^ book) - 1) >>> 31;
+            int isBulk = (BulkDiscount.MINIMUM_QUANTITY - 1 - quantities[i]) >>> 31;
+
+            // Best takes the bigger of the two percentages; the others have one of them at 0
+            int percent = Math.max(STUDENT_PERCENT[code] * isBook, BULK_PERCENT[code] * isBulk);
+            finalPriceCents[i] = original - (original * percent + 50) / 100;  // Money.percentOf rounding
+        }
+    }
+
+    /**
+     * Check whether the registry holds exactly the built-in discounts, so
+     * the batch loop's rules are the ones finalPriceCents would use.
+     */
+    private static boolean onlyBuiltInDiscounts() {
+        Collection<DiscountStrategy> strategies = registered;
+        if (strategies.size() != 4) {
+            return false;
+        }
+        for (DiscountStrategy strategy : strategies) {
+            Class<?> type = strategy.getClass();
+            if (type != StudentDiscount.class && type != BulkDiscount.class
+                    && type != NoDiscount.class && type != BestAvailableDiscount.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The slow path of finalPricesCents: price each row with the registered
+     * strategy, on a scratch product of the row's type.
+     */
+    private static void priceEachRow(long[] priceCents, int[] quantities, byte[] typeCodes,
+                                     byte[] discountCodes, long[] finalPriceCents, int count) {
+        DiscountStrategy[] strategies = {
+                resolve(NO_DISCOUNT), resolve(STUDENT_DISCOUNT), resolve(BULK_DISCOUNT), resolve(BEST_DISCOUNT)
+        };
+        Product[] scratch = new Product[ProductType.count()];
+        for (int i = 0; i < count; i++) {
+            int code = discountCodes[i];
+            if (code < 0 || code >= strategies.length) {
+                throw new IllegalArgumentException("Unknown batch discount code: " + code);
+            }
+            ProductType type = ProductType.fromCode(typeCodes[i]);
+            Product product = scratch[type.ordinal()];
+            if (product == null) {
+                product = new Product("", type, 0.0, 0);
+                scratch[type.ordinal()] = product;
+            }
+            product.setPriceCents(priceCents[i]);
+            finalPriceCents[i] = finalPriceCents(product, quantities[i], strategies[code]);
+        }
     }
 
     /**
@@ -113,20 +305,7 @@ public class DiscountCalculator {
      * @return A description of the discount
      */
     public static String getDiscountDescription(Product product, int quantity, String discountType) {
-        double discount = calculateDiscount(product, quantity, discountType);
-
-        if (discount > 0) {
-            switch (discountType) {
-                case STUDENT_DISCOUNT:
-                    return "Student discount (10% off books): $" + String.format("%.2f", discount);
-                case BULK_DISCOUNT:
-                    return "Bulk discount (15% off 5+ items): $" + String.format("%.2f", discount);
-                default:
-                    return "Discount applied: $" + String.format("%.2f", discount);
-            }
-        } else {
-            return "No discount applied";
-        }
+        return resolve(discountType).quote(product, quantity).getDescription();
     }
 
     /**
@@ -136,9 +315,7 @@ public class DiscountCalculator {
      * @return true if valid, false otherwise
      */
     public static boolean isValidDiscountType(String discountType) {
-        return discountType.equals(STUDENT_DISCOUNT) ||
-                discountType.equals(BULK_DISCOUNT) ||
-                discountType.equals(NO_DISCOUNT);
+        return strategies.containsKey(discountType);
     }
 
     /**
@@ -147,6 +324,28 @@ public class DiscountCalculator {
      * @return An array of available discount types
      */
     public static String[] getAvailableDiscountTypes() {
-        return new String[]{STUDENT_DISCOUNT, BULK_DISCOUNT, NO_DISCOUNT};
+        Collection<DiscountStrategy> strategies = registered;
+        String[] names = new String[strategies.size()];
+        int i = 0;
+        for (DiscountStrategy strategy : strategies) {
+            names[i++] = strategy.getName();
+        }
+        return names;
+    }
+
+    /**
+     * A live, read-only view of the registered strategies.
+     * Lets the best-discount strategy see strategies registered after it.
+     */
+    private static final class StrategiesView extends AbstractCollection<DiscountStrategy> {
+        @Override
+        public Iterator<DiscountStrategy> iterator() {
+            return registered.iterator();
+        }
+
+        @Override
+        public int size() {
+            return registered.size();
+        }
     }
 }
\ No newline at end of file
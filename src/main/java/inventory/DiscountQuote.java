@@ -0,0 +1,77 @@
+// File: src/main/java/inventory/DiscountQuote.java
+package inventory;
+
+/**
+ * The result of evaluating a discount: how much, and which strategy gave it.
+ *
+ * The description text is only built when someone asks for it, so pricing
+ * a sale doesn't pay for formatting a receipt line.
+ */
+public class DiscountQuote {
+
+    private final DiscountStrategy strategy;  // The strategy that produced the discount
+    private final long amountCents;           // The discount amount in cents
+
+    /**
+     * Create a quote.
+     *
+     * @param strategy The strategy that produced the discount
+     * @param amount   The discount amount in dollars (rounded half up to the cent)
+     */
+    public DiscountQuote(DiscountStrategy strategy, double amount) {
+        this(strategy, Money.toCents(amount));
+    }
+
+    private DiscountQuote(DiscountStrategy strategy, long amountCents) {
+        this.strategy = strategy;
+        this.amountCents = amountCents;
+    }
+
+    /**
+     * Create a quote for an amount in cents.
+     *
+     * @param strategy    The strategy that produced the discount
+     * @param amountCents The discount amount in cents
+     * @return The quote
+     */
+    public static DiscountQuote ofCents(DiscountStrategy strategy, long amountCents) {
+        return new DiscountQuote(strategy, amountCents);
+    }
+
+    /**
+     * Get the strategy that produced the discount
+     * @return the strategy
+     */
+    public DiscountStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Get the discount amount
+     * @return money to subtract from the total, in dollars
+     */
+    public double getAmount() {
+        return Money.toDollars(amountCents);
+    }
+
+    /**
+     * Get the discount amount in cents
+     * @return money to subtract from the total, in cents
+     */
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Get a description of the discount, like the one printed on receipts
+     * @return the description
+     */
+    public String getDescription() {
+        return strategy.describe(getAmount());
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
@@ -0,0 +1,120 @@
+// File: src/main/java/inventory/DiscountRule.java
+package inventory;
+
+/**
+ * One line of a discount rules file: a promotion gives some percent off
+ * when the product type, quantity and unit price match.
+ *
+ * Rules are read by DiscountRuleEngine and compiled into a
+ * DiscountRuleTable; they aren't checked one by one during a sale.
+ */
+public class DiscountRule {
+
+    // No upper limit on the unit price
+    public static final long NO_MAX_PRICE = Long.MAX_VALUE;
+
+    private final String promotion;       // Discount type name the rule belongs to
+    private final ProductType type;       // Product type, or null for any type
+    private final int minQuantity;        // Smallest quantity the rule applies to
+    private final long minPriceCents;     // Unit price band: from this (inclusive)...
+    private final long maxPriceCents;     // ...up to this (exclusive)
+    private final int percentOff;         // Discount percentage, like 10 for 10%
+
+    /**
+     * Create a discount rule.
+     *
+     * @param promotion     The discount type name the rule belongs to (like "Student")
+     * @param type          The product type, or null for any type
+     * @param minQuantity   The smallest quantity the rule applies to
+     * @param minPriceCents The lowest unit price the rule applies to, in cents
+     * @param maxPriceCents The unit price the rule stops applying at, in cents (or NO_MAX_PRICE)
+     * @param percentOff    The discount percentage, from 0 to 100
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public DiscountRule(String promotion, ProductType type, int minQuantity,
+                        long minPriceCents, long maxPriceCents, int percentOff) {
+        if (promotion == null || promotion.isEmpty()) {
+            throw new IllegalArgumentException("Promotion name is empty");
+        }
+        if (minQuantity < 0) {
+            throw new IllegalArgumentException("Minimum quantity cannot be negative: " + minQuantity);
+        }
+        if (minPriceCents < 0 || maxPriceCents <= minPriceCents) {
+            throw new IllegalArgumentException("Invalid price band: " + Money.format(minPriceCents)
+                    + " to " + Money.format(maxPriceCents));
+        }
+        if (percentOff < 0 || percentOff > 100) {
+            throw new IllegalArgumentException("Percent off must be 0 to 100: " + percentOff);
+        }
+        this.promotion = promotion;
+        this.type = type;
+        this.minQuantity = minQuantity;
+        this.minPriceCents = minPriceCents;
+        this.maxPriceCents = maxPriceCents;
+        this.percentOff = percentOff;
+    }
+
+    /**
+     * Get the discount type name the rule belongs to
+     * @return the promotion name
+     */
+    public String getPromotion() {
+        return promotion;
+    }
+
+    /**
+     * Get the product type the rule applies to
+     * @return the type, or null for any type
+     */
+    public ProductType getType() {
+        return type;
+    }
+
+    /**
+     * Get the smallest quantity the rule applies to
+     * @return the minimum quantity
+     */
+    public int getMinQuantity() {
+        return minQuantity;
+    }
+
+    /**
+     * Get the lowest unit price the rule applies to
+     * @return the price in cents (inclusive)
+     */
+    public long getMinPriceCents() {
+        return minPriceCents;
+    }
+
+    /**
+     * Get the unit price the rule stops applying at
+     * @return the price in cents (exclusive), or NO_MAX_PRICE
+     */
+    public long getMaxPriceCents() {
+        return maxPriceCents;
+    }
+
+    /**
+     * Get the discount percentage
+     * @return the percent off
+     */
+    public int getPercentOff() {
+        return percentOff;
+    }
+
+    /**
+     * Check whether the rule covers a product type
+     * @param productType the type to check
+     * @return true if the rule is for that type or for any type
+     */
+    boolean appliesTo(ProductType productType) {
+        return type == null || type == productType;
+    }
+
+    @Override
+    public String toString() {
+        return promotion + ": " + percentOff + "% off " + (type == null ? "anything" : type.getName())
+                + ", " + minQuantity + "+ items, $" + Money.format(minPriceCents)
+                + (maxPriceCents == NO_MAX_PRICE ? " and up" : " to $" + Money.format(maxPriceCents));
+    }
+}
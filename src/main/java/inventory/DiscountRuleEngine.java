@@ -0,0 +1,231 @@
+// File: src/main/java/inventory/DiscountRuleEngine.java
+package inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DiscountRuleEngine reads discount rules from a file, so promotions can
+ * be changed without changing code.
+ *
+ * The file has one rule per line, as comma separated values:
+ *
+ *   promotion,type,min quantity,min price,max price,percent off
+ *   Student,Book,1,0,*,10
+ *   Bulk,*,5,0,*,15
+ *   Summer,Electronics,2,100.00,500.00,20
+ *
+ * A "*" type means any type, and a "*" max price means no limit. The
+ * price band is the unit price, from the min price up to (not including)
+ * the max price. The header line is optional; empty lines and lines
+ * starting with # are skipped. When several rules of a promotion match a
+ * sale, the biggest discount wins.
+ *
+ * Every promotion named in the file becomes a discount type: a
+ * PromotionDiscount registered in DiscountCalculator under that name (a
+ * promotion called "Student" replaces the built-in student discount).
+ *
+ * The rules are compiled into a DiscountRuleTable, so a sale costs the
+ * same however many rules there are. Reloading compiles a new table on the
+ * side and then swaps it in with one write, so sales never wait for a
+ * reload and never see half of the old rules and half of the new ones. If
+ * the new file has a mistake, the old rules stay in place. A promotion
+ * removed from the file stays registered but gives no discount.
+ */
+public class DiscountRuleEngine {
+
+    private final Path file;
+    private final boolean register;
+
+    // The current rules - replaced as a whole on reload
+    private volatile DiscountRuleTable table = DiscountRuleTable.EMPTY;
+
+    // Every promotion seen so far, with its table row. Ids never change, so
+    // a PromotionDiscount keeps working across reloads. Guarded by this.
+    private final Map<String, Integer> promotionIds = new LinkedHashMap<>();
+    private final Map<String, PromotionDiscount> promotions = new LinkedHashMap<>();
+
+    // The file as last read, to notice changes
+    private FileTime loadedModified;
+    private long loadedSize = -1;
+
+    /**
+     * Create an engine for a rules file. Call reload() to read it.
+     *
+     * @param file The rules file
+     */
+    public DiscountRuleEngine(Path file) {
+        this(file, true);
+    }
+
+    /**
+     * Create an engine, optionally without registering its promotions in
+     * DiscountCalculator (for tests, which shouldn't change the registry).
+     */
+    DiscountRuleEngine(Path file, boolean register) {
+        this.file = file;
+        this.register = register;
+    }
+
+    /**
+     * Read the rules file again and start using its rules.
+     *
+     * @return The number of rules loaded
+     * @throws IOException if the file can't be read or has a mistake; the old rules stay
+     */
+    public synchronized int reload() throws IOException {
+        // Remember this version even if it's broken, so it isn't retried until it is edited
+        loadedModified = Files.getLastModifiedTime(file);
+        loadedSize = Files.size(file);
+        List<DiscountRule> rules;
+        try (Reader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            rules = parse(input);
+        }
+        setRules(rules);
+        return rules.size();
+    }
+
+    /**
+     * Reload the rules if the file has changed since it was last read.
+     * Cheap enough to call every few seconds.
+     *
+     * @return true if the rules were reloaded
+     * @throws IOException if the file can't be read or has a mistake; the old rules stay
+     */
+    public synchronized boolean reloadIfChanged() throws IOException {
+        if (Files.getLastModifiedTime(file).equals(loadedModified) && Files.size(file) == loadedSize) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * Start using a list of rules.
+     *
+     * @param rules The new rules, replacing all the current ones
+     */
+    public synchronized void setRules(List<DiscountRule> rules) {
+        List<String> added = new ArrayList<>();
+        for (DiscountRule rule : rules) {
+            if (!promotionIds.containsKey(rule.getPromotion())) {
+                promotionIds.put(rule.getPromotion(), promotionIds.size());
+                added.add(rule.getPromotion());
+            }
+        }
+
+        // Swap the whole table in at once; sales pick it up on their next lookup
+        table = DiscountRuleTable.compile(rules, promotionIds);
+
+        for (String name : added) {
+            PromotionDiscount promotion = new PromotionDiscount(name, promotionIds.get(name), this);
+            promotions.put(name, promotion);
+            if (register) {
+                DiscountCalculator.register(promotion);
+            }
+        }
+    }
+
+    /**
+     * Get the discount strategy for a promotion.
+     *
+     * @param name The promotion name
+     * @return The strategy, or null if no rules file has named the promotion
+     */
+    public synchronized PromotionDiscount getPromotion(String name) {
+        return promotions.get(name);
+    }
+
+    /**
+     * Get how many rules are in use
+     * @return The number of rules
+     */
+    public int getRuleCount() {
+        return table.getRuleCount();
+    }
+
+    /**
+     * Get the current decision table. Read once per sale.
+     */
+    DiscountRuleTable getTable() {
+        return table;
+    }
+
+    /**
+     * Read rules in the file format described above.
+     *
+     * @param input Where to read the rules from
+     * @return The rules, in the order they were read
+     * @throws IOException if reading fails or a line isn't a valid rule (the message gives the line number)
+     */
+    public static List<DiscountRule> parse(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        List<DiscountRule> rules = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (rules.isEmpty() && trimmed.regionMatches(true, 0, "promotion,", 0, 10)) {
+                continue;   // Header
+            }
+            try {
+                rules.add(parseRule(trimmed));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Turn one line into a rule.
+     *
+     * @throws IllegalArgumentException explaining what is wrong with the line
+     */
+    private static DiscountRule parseRule(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Expected 6 fields (promotion,type,min quantity,min price,"
+                    + "max price,percent off) but found " + fields.length);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+
+        ProductType type = fields[1].equals("*") ? null : ProductType.require(fields[1]);
+        int minQuantity = parseInt(fields[2], "min quantity");
+        long minPrice = fields[3].equals("*") ? 0 : parseCents(fields[3], "min price");
+        long maxPrice = fields[4].equals("*") ? DiscountRule.NO_MAX_PRICE : parseCents(fields[4], "max price");
+        int percentOff = parseInt(fields[5], "percent off");
+        return new DiscountRule(fields[0], type, minQuantity, minPrice, maxPrice, percentOff);
+    }
+
+    private static int parseInt(String text, String field) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + text);
+        }
+    }
+
+    private static long parseCents(String text, String field) {
+        try {
+            return Money.parseCents(text);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + text);
+        }
+    }
+}
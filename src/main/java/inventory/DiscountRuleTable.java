@@ -0,0 +1,190 @@
+// File: src/main/java/inventory/DiscountRuleTable.java
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A set of discount rules compiled into a decision table.
+ *
+ * Checking every rule on every sale would get slower with each rule
+ * marketing adds. Instead, the rules are worked out ahead of time for every
+ * combination of promotion, product type and quantity tier (the quantities
+ * between two rule minimums behave the same). Each of those cells holds
+ * the unit price bands it cares about, already resolved to the best
+ * percentage of all the rules that match there.
+ *
+ * A sale then looks up its cell directly, finds its tier and price band
+ * with a binary search over a handful of boundaries, and reads off the
+ * percentage. How long that takes doesn't depend on the number of rules.
+ *
+ * Tables never change after compiling; DiscountRuleEngine swaps in a new
+ * one when the rules are reloaded.
+ */
+final class DiscountRuleTable {
+
+    // A cell no rule matches
+    private static final Cell NO_DISCOUNT = new Cell(new long[0], new int[0]);
+
+    static final DiscountRuleTable EMPTY = compile(new ArrayList<>(), Map.of());
+
+    private final int promotionCount;   // Promotion ids below this have cells
+    private final int typeCount;
+    private final int[] tierStarts;     // Smallest quantity of each tier, ascending, starting at 0
+    private final Cell[] cells;         // Indexed by (promotion * types + type) * tiers + tier
+    private final int ruleCount;
+
+    private DiscountRuleTable(int promotionCount, int[] tierStarts, Cell[] cells, int ruleCount) {
+        this.promotionCount = promotionCount;
+        this.typeCount = ProductType.count();
+        this.tierStarts = tierStarts;
+        this.cells = cells;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * Compile rules into a table.
+     *
+     * @param rules        The rules
+     * @param promotionIds A number for every promotion named in the rules, from 0 up
+     * @return The compiled table
+     */
+    static DiscountRuleTable compile(List<DiscountRule> rules, Map<String, Integer> promotionIds) {
+        int promotionCount = 0;
+        for (int id : promotionIds.values()) {
+            promotionCount = Math.max(promotionCount, id + 1);
+        }
+
+        // Every distinct minimum quantity starts a tier
+        TreeSet<Integer> starts = new TreeSet<>();
+        starts.add(0);
+        for (DiscountRule rule : rules) {
+            starts.add(rule.getMinQuantity());
+        }
+        int[] tierStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+
+        // Sort the rules by promotion first, so each cell only looks at its own
+        List<List<DiscountRule>> byPromotion = new ArrayList<>(promotionCount);
+        for (int i = 0; i < promotionCount; i++) {
+            byPromotion.add(new ArrayList<>());
+        }
+        for (DiscountRule rule : rules) {
+            byPromotion.get(promotionIds.get(rule.getPromotion())).add(rule);
+        }
+
+        int typeCount = ProductType.count();
+        Cell[] cells = new Cell[promotionCount * typeCount * tierStarts.length];
+        List<DiscountRule> matching = new ArrayList<>();
+        for (int promotion = 0; promotion < promotionCount; promotion++) {
+            for (int type = 0; type < typeCount; type++) {
+                ProductType productType = ProductType.fromCode(type);
+                for (int tier = 0; tier < tierStarts.length; tier++) {
+                    matching.clear();
+                    for (DiscountRule rule : byPromotion.get(promotion)) {
+                        if (rule.appliesTo(productType) && rule.getMinQuantity() <= tierStarts[tier]) {
+                            matching.add(rule);
+                        }
+                    }
+                    cells[(promotion * typeCount + type) * tierStarts.length + tier] = Cell.of(matching);
+                }
+            }
+        }
+        return new DiscountRuleTable(promotionCount, tierStarts, cells, rules.size());
+    }
+
+    /**
+     * Look up the discount percentage for a sale.
+     *
+     * @param promotion  The promotion id
+     * @param type       The product type
+     * @param quantity   How many items
+     * @param priceCents The unit price in cents
+     * @return The percentage off, or 0 if no rule matches
+     */
+    int percentOff(int promotion, ProductType type, int quantity, long priceCents) {
+        if (promotion >= promotionCount) {
+            return 0;   // Promotion not in this version of the rules
+        }
+        int tier = floorIndex(tierStarts, Math.max(quantity, 0));
+        return cells[(promotion * typeCount + type.ordinal()) * tierStarts.length + tier].percentAt(priceCents);
+    }
+
+    /**
+     * Get how many rules the table was compiled from
+     * @return The number of rules
+     */
+    int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Find the last position whose value is at most the key, or -1 if none.
+     */
+    private static int floorIndex(int[] sorted, int key) {
+        int found = Arrays.binarySearch(sorted, key);
+        return (found >= 0) ? found : -found - 2;
+    }
+
+    /**
+     * The price bands of one (promotion, type, tier) cell: from bandStarts[i]
+     * up to the next start, the discount is percents[i]. Below the first
+     * start there is no discount.
+     */
+    private static final class Cell {
+        private final long[] bandStarts;
+        private final int[] percents;
+
+        private Cell(long[] bandStarts, int[] percents) {
+            this.bandStarts = bandStarts;
+            this.percents = percents;
+        }
+
+        /**
+         * Resolve overlapping rules into bands, keeping the biggest discount
+         * wherever several rules cover the same prices.
+         */
+        static Cell of(List<DiscountRule> rules) {
+            if (rules.isEmpty()) {
+                return NO_DISCOUNT;
+            }
+            TreeSet<Long> boundaries = new TreeSet<>();
+            for (DiscountRule rule : rules) {
+                boundaries.add(rule.getMinPriceCents());
+                boundaries.add(rule.getMaxPriceCents());
+            }
+
+            List<Long> starts = new ArrayList<>();
+            List<Integer> percents = new ArrayList<>();
+            int previous = 0;
+            for (long boundary : boundaries) {
+                int best = 0;
+                for (DiscountRule rule : rules) {
+                    if (rule.getMinPriceCents() <= boundary && boundary < rule.getMaxPriceCents()) {
+                        best = Math.max(best, rule.getPercentOff());
+                    }
+                }
+                if (best != previous) {   // Neighbouring bands with the same discount are one band
+                    starts.add(boundary);
+                    percents.add(best);
+                    previous = best;
+                }
+            }
+            return new Cell(starts.stream().mapToLong(Long::longValue).toArray(),
+                    percents.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        int percentAt(long priceCents) {
+            int band;
+            if (bandStarts.length == 1) {
+                band = (priceCents >= bandStarts[0]) ? 0 : -1;   // The usual case: one band
+            } else {
+                int found = Arrays.binarySearch(bandStarts, priceCents);
+                band = (found >= 0) ? found : -found - 2;
+            }
+            return (band >= 0) ? percents[band] : 0;
+        }
+    }
+}
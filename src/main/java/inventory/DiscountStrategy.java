@@ -0,0 +1,68 @@
+// File: src/main/java/inventory/DiscountStrategy.java
+package inventory;
+
+/**
+ * DiscountStrategy - one way of calculating a discount (the Strategy Pattern).
+ *
+ * Each kind of discount is its own class implementing this interface.
+ * DiscountCalculator keeps a registry of them by name, so a discount type
+ * like "Student" is looked up once and the strategy object can then be
+ * reused for every sale.
+ *
+ * New discounts can be added with DiscountCalculator.register.
+ *
+ * Discounts are worked out in whole cents (see Money). A strategy only has
+ * to implement calculateDiscount in dollars; the built-in ones also
+ * implement calculateDiscountCents directly, so pricing a sale doesn't
+ * touch a double at all.
+ */
+public interface DiscountStrategy {
+
+    /**
+     * Get the name this strategy is registered under (like "Student").
+     *
+     * @return The strategy name
+     */
+    String getName();
+
+    /**
+     * Calculate the discount for buying some items of a product.
+     *
+     * @param product  The product being purchased
+     * @param quantity How many items
+     * @return The discount amount (money to subtract from the total)
+     */
+    double calculateDiscount(Product product, int quantity);
+
+    /**
+     * Calculate the discount in cents. By default this rounds the dollar
+     * amount from calculateDiscount half up to the cent.
+     *
+     * @param product  The product being purchased
+     * @param quantity How many items
+     * @return The discount amount in cents
+     */
+    default long calculateDiscountCents(Product product, int quantity) {
+        return Money.toCents(calculateDiscount(product, quantity));
+    }
+
+    /**
+     * Describe a discount amount this strategy worked out, for receipts.
+     *
+     * @param discount The discount amount
+     * @return A description of the discount
+     */
+    String describe(double discount);
+
+    /**
+     * Calculate the discount and keep the strategy with it, so the
+     * description can be produced later without calculating again.
+     *
+     * @param product  The product being purchased
+     * @param quantity How many items
+     * @return The discount amount together with this strategy
+     */
+    default DiscountQuote quote(Product product, int quantity) {
+        return DiscountQuote.ofCents(this, calculateDiscountCents(product, quantity));
+    }
+}
@@ -0,0 +1,122 @@
+// File: src/main/java/inventory/ImportReport.java
+package inventory;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportReport describes how a catalog import went: how many rows were
+ * read, how many products were added, how fast it was, and why rows were
+ * rejected.
+ *
+ * Only the first few thousand rejections are kept with their reasons, so a
+ * completely broken file doesn't fill memory with error messages. The
+ * rejected count always covers every rejected row.
+ */
+public class ImportReport {
+
+    /**
+     * One row that could not be imported.
+     */
+    public static class Rejection {
+        private final long line;
+        private final String reason;
+
+        Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        /**
+         * Get the line number of the rejected row
+         * @return The line number, counting from 1
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Get why the row was rejected
+         * @return A short explanation
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + reason;
+        }
+    }
+
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedNanos;
+    private final List<Rejection> rejections;
+
+    ImportReport(long rowsRead, long imported, long rejected, long elapsedNanos,
+                 List<Rejection> rejections) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedNanos = elapsedNanos;
+        this.rejections = Collections.unmodifiableList(rejections);
+    }
+
+    /**
+     * Get how many rows were read, not counting the header or blank lines
+     * @return The number of rows
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Get how many products were added to the inventory
+     * @return The number of products imported
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Get how many rows were rejected
+     * @return The number of rejected rows
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Get how long the import took
+     * @return The time taken in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the import speed
+     * @return Rows read per second
+     */
+    public double getRowsPerSecond() {
+        return (elapsedNanos == 0) ? 0.0 : rowsRead * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Get the rejected rows and their reasons, in line order.
+     * This may hold fewer entries than getRejected() for very bad files.
+     *
+     * @return A read-only list of rejections
+     */
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d of %d rows in %.2f s (%.0f rows/s), %d rejected",
+                imported, rowsRead, elapsedNanos / 1e9, getRowsPerSecond(), rejected);
+    }
+}
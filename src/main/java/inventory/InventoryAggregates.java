@@ -0,0 +1,315 @@
+// File: src/main/java/inventory/InventoryAggregates.java
+package inventory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for an inventory: the total stock value (overall and per
+ * product type) and the set of products that are low in stock.
+ *
+ * Instead of adding everything up each time someone asks, the totals are
+ * adjusted every time a product changes. Reading the total value is O(1)
+ * and reading the low stock list only costs as much as the list itself.
+ *
+ * Updates are lock-free and safe when many threads change products at once.
+ * Each product remembers how much it has contributed to the total, and a
+ * change only moves the difference, so the totals are exact once the
+ * changes have finished.
+ *
+ * A product is low in stock at or below its own reorder threshold, or the
+ * inventory's low stock threshold if it has none. When a change moves a
+ * product across its threshold, the low stock listeners are told - once
+ * per crossing, however many threads are changing the product.
+ */
+class InventoryAggregates implements ProductObserver {
+
+    // Lets us compare-and-set the value each product has contributed
+    private static final VarHandle CONTRIBUTION;
+
+    static {
+        try {
+            CONTRIBUTION = MethodHandles.lookup()
+                    .findVarHandle(Product.class, "valueContribution", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Total stock value in cents, so adding and removing never drifts
+    private final LongAdder totalValueCents = new LongAdder();
+
+    // Stock value in cents for each product type, indexed by type code
+    private final LongAdder[] valueCentsByType = new LongAdder[ProductType.count()];
+
+    // Low stock products, kept in the order they were added to the inventory
+    private final NavigableSet<Product> lowStock =
+            new ConcurrentSkipListSet<>(Comparator.comparingInt(Product::getId));
+
+    // Products with this many items or fewer count as low stock
+    private volatile int lowStockThreshold;
+
+    // Told when a product crosses its threshold
+    private final List<LowStockListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create empty aggregates.
+     *
+     * @param lowStockThreshold Quantity at or below which a product is low in stock
+     */
+    InventoryAggregates(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+        for (int i = 0; i < valueCentsByType.length; i++) {
+            valueCentsByType[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Start tracking a product that was just added to the inventory.
+     *
+     * @param product The new product
+     */
+    void add(Product product) {
+        updateValue(product);
+        startLowStock(product);
+    }
+
+    /**
+     * Start tracking many products at once, such as a catalog loaded from a file.
+     * Adds their values up locally and updates the shared totals once.
+     * The products must not be changing while this runs.
+     *
+     * @param products The new products
+     */
+    void addAll(List<Product> products) {
+        long total = 0;
+        ProductType lastType = null;
+        long typeTotal = 0;
+        for (Product product : products) {
+            long worth = valueInCents(product);
+            CONTRIBUTION.setVolatile(product, worth);
+            total += worth;
+
+            // Products of the same type usually come together, so batch those sums too
+            if (product.getProductType() != lastType) {
+                if (lastType != null) {
+                    valueCentsByType[lastType.ordinal()].add(typeTotal);
+                }
+                lastType = product.getProductType();
+                typeTotal = 0;
+            }
+            typeTotal += worth;
+
+            startLowStock(product);
+        }
+        if (lastType != null) {
+            valueCentsByType[lastType.ordinal()].add(typeTotal);
+        }
+        totalValueCents.add(total);
+    }
+
+    @Override
+    public void stockChanged(Product product, int change, int quantity) {
+        updateValue(product);
+        updateLowStock(product);
+    }
+
+    @Override
+    public void stockReserved(Product product, int change, int quantity) {
+        updateValue(product);
+        updateLowStock(product);
+    }
+
+    @Override
+    public void reservedSold(Product product, int amount) {
+        // Held items were already out of the sellable stock - nothing to update
+    }
+
+    @Override
+    public void priceChanged(Product product, long priceCents) {
+        updateValue(product);
+    }
+
+    /**
+     * Move the total by the difference between what the product is worth now
+     * and what it was last counted as.
+     * A thread that worked out the worth just before another change can
+     * still win the compare-and-set (when the contribution happens to be
+     * back at the value it read), and put back an out of date worth. So
+     * like updateLowStock, check again after each update and go round until
+     * the contribution matches the product.
+     */
+    private void updateValue(Product product) {
+        while (true) {
+            long counted = (long) CONTRIBUTION.getVolatile(product);
+            long worth = valueInCents(product);
+            if (CONTRIBUTION.compareAndSet(product, counted, worth)) {
+                totalValueCents.add(worth - counted);
+                valueCentsByType[product.getProductType().ordinal()].add(worth - counted);
+                if (worth == valueInCents(product)) {
+                    return;
+                }
+                // The product changed while we counted it - count it again
+            }
+            // Otherwise another thread updated this product's contribution - try again
+        }
+    }
+
+    /**
+     * Put the product in or take it out of the low stock set, and tell the
+     * listeners if that moved it across its threshold.
+     * If the quantity changes while we do that, check again, so the last
+     * thread to touch the product always leaves the set right.
+     */
+    private void updateLowStock(Product product) {
+        int quantity;
+        do {
+            quantity = product.getQuantity();
+            int threshold = thresholdFor(product);
+            boolean low = quantity <= threshold;
+            if (low) {
+                lowStock.add(product);
+            } else {
+                lowStock.remove(product);
+            }
+            if (product.markBelowReorderLevel(low)) {
+                crossed(product, quantity, threshold, low);
+            }
+        } while (quantity != product.getQuantity());
+    }
+
+    /**
+     * Put a product that just joined the inventory in the low stock set if
+     * it belongs there. Joining isn't a crossing, so no listener is told.
+     */
+    private void startLowStock(Product product) {
+        boolean low = product.getQuantity() <= thresholdFor(product);
+        product.initBelowReorderLevel(low);
+        if (low) {
+            lowStock.add(product);
+        }
+    }
+
+    /**
+     * Get the threshold a product is checked against.
+     */
+    private int thresholdFor(Product product) {
+        int own = product.getReorderThreshold();
+        return (own == Product.INVENTORY_THRESHOLD) ? lowStockThreshold : own;
+    }
+
+    /**
+     * Tell every listener a product crossed its threshold.
+     */
+    private void crossed(Product product, int quantity, int threshold, boolean low) {
+        for (LowStockListener listener : listeners) {
+            try {
+                if (low) {
+                    listener.lowStock(product, quantity, threshold);
+                } else {
+                    listener.restocked(product, quantity, threshold);
+                }
+            } catch (RuntimeException e) {
+                // The stock has already changed - a failing listener mustn't stop the journal hearing about it
+            }
+        }
+    }
+
+    /**
+     * Start telling a listener when products cross their threshold.
+     *
+     * @param listener The listener to add
+     */
+    void addListener(LowStockListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stop telling a listener about products crossing their threshold.
+     *
+     * @param listener The listener to remove
+     * @return true if it was registered
+     */
+    boolean removeListener(LowStockListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Re-check a product whose own reorder threshold was just changed.
+     *
+     * @param product The product
+     */
+    void thresholdChanged(Product product) {
+        updateLowStock(product);
+    }
+
+    private static long valueInCents(Product product) {
+        return product.getPriceCents() * product.getQuantity();
+    }
+
+    /**
+     * Get the total value of all stock.
+     *
+     * @return The total value in dollars
+     */
+    double getTotalValue() {
+        return Money.toDollars(getTotalValueCents());
+    }
+
+    /**
+     * Get the total value of all stock.
+     *
+     * @return The total value in cents
+     */
+    long getTotalValueCents() {
+        return totalValueCents.sum();
+    }
+
+    /**
+     * Get the total value of all stock of one product type.
+     *
+     * @param type The product type
+     * @return The value in cents, or 0 if there are no products of that type
+     */
+    long getTotalValueCents(ProductType type) {
+        return valueCentsByType[type.ordinal()].sum();
+    }
+
+    /**
+     * Get the products that are low in stock, in the order they were added.
+     *
+     * @return A new list of low stock products
+     */
+    List<Product> getLowStockProducts() {
+        return new ArrayList<>(lowStock);
+    }
+
+    /**
+     * Get the low stock threshold.
+     *
+     * @return Quantity at or below which a product is low in stock
+     */
+    int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    /**
+     * Change the low stock threshold and re-check the given products against it.
+     *
+     * @param threshold The new threshold
+     * @param products  Every product in the inventory
+     */
+    void setLowStockThreshold(int threshold, List<Product> products) {
+        lowStockThreshold = threshold;
+        for (Product product : products) {
+            updateLowStock(product);
+        }
+    }
+}
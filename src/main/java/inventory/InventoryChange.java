@@ -0,0 +1,139 @@
+// File: src/main/java/inventory/InventoryChange.java
+package inventory;
+
+/**
+ * One change to an inventory, as sent to subscribers of the inventory's
+ * change stream (see InventoryChangePublisher).
+ *
+ * Besides what changed, each change carries the product's stock and price
+ * just after it, so a subscriber can keep its own copy up to date without
+ * looking the product up again.
+ */
+public class InventoryChange {
+
+    /**
+     * What kind of change this is.
+     */
+    public enum Kind {
+        PRODUCT_ADDED,  // A new product
+        STOCK_SOLD,     // Items left the stock (sold, or held by a reservation)
+        STOCK_ADDED,    // Items came into stock (restocked, or a reservation put back)
+        PRICE_CHANGED   // The product has a new price
+    }
+
+    private final Kind kind;
+    private final String productName;
+    private final ProductType productType;
+    private final int quantityChange;   // Items added, negative if taken away
+    private final int quantity;         // Stock after the change
+    private final long priceCents;      // Price after the change
+    private final int coalesced;        // How many changes this one stands for
+
+    InventoryChange(Kind kind, Product product, int quantityChange, int quantity, long priceCents) {
+        this(kind, product.getName(), product.getProductType(), quantityChange, quantity, priceCents, 1);
+    }
+
+    private InventoryChange(Kind kind, String productName, ProductType productType, int quantityChange,
+                            int quantity, long priceCents, int coalesced) {
+        this.kind = kind;
+        this.productName = productName;
+        this.productType = productType;
+        this.quantityChange = quantityChange;
+        this.quantity = quantity;
+        this.priceCents = priceCents;
+        this.coalesced = coalesced;
+    }
+
+    /**
+     * Combine this change with a later change to the same product: the
+     * quantity changes are added up, and the stock and price are the later
+     * ones. The kind says what the changes add up to: a new product stays a
+     * new product, otherwise stock sold or added depending on the total
+     * change. If the stock ends up where it started, the later kind is kept.
+     *
+     * @param later The later change
+     * @return One change standing for both
+     */
+    InventoryChange mergedWith(InventoryChange later) {
+        int change = quantityChange + later.quantityChange;
+        Kind merged;
+        if (kind == Kind.PRODUCT_ADDED) {
+            merged = Kind.PRODUCT_ADDED;      // Its starting stock now includes the later changes
+        } else if (change < 0) {
+            merged = Kind.STOCK_SOLD;
+        } else if (change > 0) {
+            merged = Kind.STOCK_ADDED;
+        } else {
+            merged = later.kind;
+        }
+        return new InventoryChange(merged, productName, productType, change,
+                later.quantity, later.priceCents, coalesced + later.coalesced);
+    }
+
+    /**
+     * Get what kind of change this is
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the name of the product that changed
+     * @return the product name
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * Get the type of the product that changed
+     * @return the product type
+     */
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    /**
+     * Get how many items were added (negative if taken away).
+     * For a new product this is its starting stock; for a price change, 0.
+     *
+     * @return the change in stock
+     */
+    public int getQuantityChange() {
+        return quantityChange;
+    }
+
+    /**
+     * Get the product's stock just after the change
+     * @return the stock
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the product's price just after the change
+     * @return the price in cents
+     */
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    /**
+     * Get how many changes this one stands for. It is more than 1 when a
+     * subscriber that asked for coalescing fell behind and several changes
+     * to the same product were combined.
+     *
+     * @return the number of changes combined, at least 1
+     */
+    public int getCoalescedCount() {
+        return coalesced;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + productName + " (" + quantityChange + ", stock " + quantity
+                + ", " + Money.format(priceCents) + ")";
+    }
+}
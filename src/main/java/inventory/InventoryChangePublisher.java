@@ -0,0 +1,420 @@
+// File: src/main/java/inventory/InventoryChangePublisher.java
+package inventory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Publishes every change to an inventory (new products, stock sold, stock
+ * added, new prices) to any number of subscribers, using the standard
+ * java.util.concurrent.Flow interfaces. Get it from
+ * InventoryManager.getChanges().
+ *
+ * Subscribers say how many changes they are ready for with request(n), and
+ * are only sent that many. Changes they aren't ready for wait in a buffer of
+ * their own, which never grows past the size chosen when subscribing. If the
+ * buffer is full, new changes are dropped for that subscriber and counted
+ * (see getDroppedCount). So a slow subscriber never slows down a sale and
+ * never uses more memory than its buffer.
+ *
+ * A subscriber that only cares about the latest state of each product can
+ * ask for coalescing: while a change waits in its buffer, later changes to
+ * the same product (of any kind) are combined into it instead of taking
+ * another place. A product then has at most one change waiting: its
+ * quantity change is the sum of the ones combined, and its stock and price
+ * are those of the last one combined.
+ *
+ * Each change carries the stock and price it left the product with - for a
+ * sale or restock, the stock its own compare-and-set produced - rather than
+ * reading the product again later, when other changes may have been made.
+ *
+ * Changes are delivered on the publisher's executor (by default the common
+ * fork/join pool), one subscriber at a time in order, never on the thread
+ * that made the change. Changes made on different threads at the same
+ * moment may arrive in either order, even changes to the same product;
+ * their quantity changes still add up to the right total.
+ */
+public class InventoryChangePublisher implements Flow.Publisher<InventoryChange>, AutoCloseable {
+
+    // How many changes a subscriber's buffer holds, unless chosen when subscribing
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    // The most changes delivered before a delivery task lets others run
+    private static final int MAX_BATCH = 64;
+
+    private final Executor executor;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    /**
+     * Create a publisher that delivers on the common fork/join pool.
+     */
+    public InventoryChangePublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a publisher that delivers on the given executor.
+     *
+     * @param executor Where subscribers are called
+     */
+    public InventoryChangePublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribe with the default buffer size and no coalescing.
+     *
+     * @param subscriber Who to send changes to
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super InventoryChange> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_SIZE, false);
+    }
+
+    /**
+     * Subscribe to changes made from now on.
+     *
+     * @param subscriber Who to send changes to
+     * @param bufferSize The most changes to hold while the subscriber isn't ready for them
+     * @param coalesce   true to combine waiting changes to the same product
+     */
+    public void subscribe(Flow.Subscriber<? super InventoryChange> subscriber, int bufferSize, boolean coalesce) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1: " + bufferSize);
+        }
+        ChangeSubscription subscription = new ChangeSubscription(subscriber, bufferSize, coalesce);
+        if (closed) {
+            subscription.complete();
+        } else {
+            subscriptions.add(subscription);
+            subscription.start();
+        }
+    }
+
+    /**
+     * Get how many subscribers are currently subscribed
+     * @return The number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Get how many changes were dropped because a subscriber's buffer was
+     * full, over all current subscribers.
+     *
+     * @return The number of dropped changes
+     */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (ChangeSubscription subscription : subscriptions) {
+            dropped += subscription.getDropped();
+        }
+        return dropped;
+    }
+
+    /**
+     * Stop publishing. Each subscriber gets the changes already in its
+     * buffer (as it requests them), then onComplete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    // Publishing changes - called by InventoryManager
+
+    void productAdded(Product product) {
+        if (!subscriptions.isEmpty()) {
+            // Nobody can find the product yet, so its stock and price can't be changing
+            int quantity = product.getQuantity();
+            publish(new InventoryChange(InventoryChange.Kind.PRODUCT_ADDED, product, quantity,
+                    quantity, product.getPriceCents()));
+        }
+    }
+
+    void productsAdded(List<Product> added) {
+        if (!subscriptions.isEmpty()) {
+            for (Product product : added) {
+                productAdded(product);
+            }
+        }
+    }
+
+    void stockChanged(Product product, int change, int quantity) {
+        if (!subscriptions.isEmpty() && change != 0) {
+            InventoryChange.Kind kind = (change < 0) ? InventoryChange.Kind.STOCK_SOLD : InventoryChange.Kind.STOCK_ADDED;
+            publish(new InventoryChange(kind, product, change, quantity, product.getPriceCents()));
+        }
+    }
+
+    void priceChanged(Product product, long priceCents) {
+        if (!subscriptions.isEmpty()) {
+            publish(new InventoryChange(InventoryChange.Kind.PRICE_CHANGED, product, 0,
+                    product.getQuantity(), priceCents));
+        }
+    }
+
+    private void publish(InventoryChange change) {
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.offer(change);
+        }
+    }
+
+    /**
+     * One subscriber's buffer and demand.
+     *
+     * Everything in here is guarded by the subscription's lock, which is
+     * only held to add to or take from the buffer - subscribers are called
+     * outside it. At most one delivery task runs at a time ("delivering"),
+     * so the subscriber is never called from two threads at once.
+     */
+    private final class ChangeSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super InventoryChange> subscriber;
+        private final int capacity;
+        private final boolean coalesce;
+
+        // Waiting changes, oldest first. With coalescing, keyed by product
+        // name so a later change can find and join a waiting one.
+        private final ArrayDeque<InventoryChange> queue;
+        private final Map<String, InventoryChange> coalescing;
+
+        private long demand;            // Changes the subscriber is ready for
+        private long dropped;           // Changes lost because the buffer was full
+        private boolean subscribed;     // onSubscribe has been called
+        private boolean delivering;     // A delivery task is scheduled or running
+        private boolean completing;     // Send onComplete once the buffer is empty
+        private boolean done;           // Cancelled, or a final signal was sent
+        private Throwable error;        // Send onError next
+
+        ChangeSubscription(Flow.Subscriber<? super InventoryChange> subscriber, int capacity, boolean coalesce) {
+            this.subscriber = subscriber;
+            this.capacity = capacity;
+            this.coalesce = coalesce;
+            this.queue = coalesce ? null : new ArrayDeque<>(Math.min(capacity, 64));
+            this.coalescing = coalesce ? new LinkedHashMap<>() : null;
+        }
+
+        /**
+         * Schedule the call to onSubscribe.
+         */
+        void start() {
+            synchronized (this) {
+                delivering = true;
+            }
+            execute();
+        }
+
+        synchronized long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Add a change to the buffer, combining it with a waiting one if coalescing.
+         */
+        void offer(InventoryChange change) {
+            boolean schedule;
+            synchronized (this) {
+                if (done || completing) {
+                    return;
+                }
+                if (coalesce) {
+                    String key = InventoryManager.nameKey(change.getProductName());
+                    InventoryChange waiting = coalescing.get(key);
+                    if (waiting != null) {
+                        coalescing.put(key, waiting.mergedWith(change));  // Keeps its place in line
+                    } else if (coalescing.size() < capacity) {
+                        coalescing.put(key, change);
+                    } else {
+                        dropped++;
+                        return;
+                    }
+                } else if (queue.size() < capacity) {
+                    queue.add(change);
+                } else {
+                    dropped++;
+                    return;
+                }
+                schedule = claimDelivery();
+            }
+            if (schedule) {
+                execute();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            boolean schedule;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested a non-positive number of changes: " + n);
+                    clear();
+                } else {
+                    demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;  // Saturate at "unbounded"
+                }
+                schedule = claimDelivery();
+            }
+            if (schedule) {
+                execute();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Send onComplete once the subscriber has taken what is in its buffer.
+         */
+        void complete() {
+            boolean schedule;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                completing = true;
+                schedule = claimDelivery();
+            }
+            if (schedule) {
+                execute();
+            }
+        }
+
+        /**
+         * Decide whether a new delivery task is needed. Callers hold the lock.
+         */
+        private boolean claimDelivery() {
+            if (delivering) {
+                return false;   // The running task will see the new state
+            }
+            delivering = true;
+            return true;
+        }
+
+        private void execute() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // The executor was shut down - nothing more can be delivered
+                cancel();
+            }
+        }
+
+        private int size() {
+            return coalesce ? coalescing.size() : queue.size();
+        }
+
+        private InventoryChange poll() {
+            if (!coalesce) {
+                return queue.poll();
+            }
+            Iterator<InventoryChange> oldest = coalescing.values().iterator();
+            InventoryChange change = oldest.next();
+            oldest.remove();
+            return change;
+        }
+
+        private void clear() {
+            if (coalesce) {
+                coalescing.clear();
+            } else {
+                queue.clear();
+            }
+        }
+
+        /**
+         * A delivery task: send the subscriber what it is ready for, in batches,
+         * until it isn't ready for more or the buffer is empty.
+         */
+        @Override
+        public void run() {
+            InventoryChange[] batch = new InventoryChange[MAX_BATCH];
+            while (true) {
+                int count = 0;
+                boolean first = false;
+                Throwable failed = null;
+                boolean finished = false;
+                synchronized (this) {
+                    if (!subscribed) {
+                        subscribed = true;
+                        first = true;
+                    } else if (done) {
+                        delivering = false;
+                        return;
+                    } else if (error != null) {
+                        failed = error;
+                        done = true;
+                    } else {
+                        while (count < MAX_BATCH && demand > 0 && size() > 0) {
+                            batch[count++] = poll();
+                            demand--;
+                        }
+                        if (count == 0) {
+                            if (completing && size() == 0) {
+                                finished = true;
+                                done = true;
+                            } else {
+                                delivering = false;   // Nothing to do until more changes or demand
+                                return;
+                            }
+                        }
+                    }
+                }
+
+                try {
+                    if (first) {
+                        subscriber.onSubscribe(this);
+                    } else if (failed != null) {
+                        subscriptions.remove(this);
+                        subscriber.onError(failed);
+                        return;
+                    } else if (finished) {
+                        subscriptions.remove(this);
+                        subscriber.onComplete();
+                        return;
+                    } else {
+                        for (int i = 0; i < count; i++) {
+                            InventoryChange change = batch[i];
+                            batch[i] = null;
+                            subscriber.onNext(change);
+                        }
+                    }
+                } catch (Throwable t) {
+                    // A subscriber that throws gets nothing more
+                    cancel();
+                    return;
+                }
+
+                if (count == MAX_BATCH) {
+                    // Let other tasks on the executor run, then carry on
+                    execute();
+                    return;
+                }
+            }
+        }
+    }
+}
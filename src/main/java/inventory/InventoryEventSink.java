@@ -0,0 +1,61 @@
+// File: src/main/java/inventory/InventoryEventSink.java
+package inventory;
+
+/**
+ * InventoryEventSink - where the inventory reports what it has done.
+ *
+ * InventoryManager used to print straight to the console. Now it tells a sink
+ * instead, and the sink decides what to do: print right away
+ * (ConsoleEventSink), print later on a background thread (AsyncEventSink),
+ * or ignore everything (NoOpEventSink).
+ *
+ * Methods are called on the thread doing the work, so they should be quick.
+ */
+public interface InventoryEventSink {
+
+    /**
+     * A product was added to the inventory.
+     *
+     * @param product The new product
+     */
+    void productAdded(Product product);
+
+    /**
+     * A product could not be added.
+     *
+     * @param name   The requested product name
+     * @param reason Why it was rejected
+     */
+    void productAddFailed(String name, String reason);
+
+    /**
+     * A sale went through.
+     *
+     * @param result The details of the sale
+     */
+    void saleCompleted(SaleResult result);
+
+    /**
+     * A sale could not go through.
+     *
+     * @param result The failed sale, with the reason in its status
+     */
+    void saleFailed(SaleResult result);
+
+    /**
+     * Stock was added to a product.
+     *
+     * @param productName The requested product name
+     * @param quantity    How many items were added
+     * @param newStock    The stock after adding
+     */
+    void stockAdded(String productName, int quantity, int newStock);
+
+    /**
+     * Stock could not be added because the product doesn't exist.
+     *
+     * @param productName The requested product name
+     * @param quantity    How many items were meant to be added
+     */
+    void stockAddFailed(String productName, int quantity);
+}
@@ -0,0 +1,440 @@
+// File: src/main/java/inventory/InventoryHttpServer.java
+package inventory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryHttpServer puts an HTTP/JSON front end on an InventoryManager,
+ * using the HTTP server built into the JDK.
+ *
+ * Endpoints:
+ *
+ *   GET  /products/{name}                          find a product
+ *   POST /products/{name}/sell?quantity=2&discount=Student
+ *   POST /products/{name}/restock?quantity=10
+ *   GET  /types/{type}/products                    all products of one type
+ *   GET  /low-stock                                products that need restocking
+ *   GET  /statistics                               counts and values
+ *
+ * Names in the path are URL encoded, for example /products/Java%20Programming.
+ *
+ * Sell and restock go through the same calls as the console, so both are
+ * reported to the inventory's event sink just like a sale or restock typed
+ * in by hand.
+ *
+ * The JDK server accepts connections on one selector thread, so idle
+ * keep-alive connections don't tie up a thread each. Requests are handed
+ * to an executor: on Java 21 and later every request runs on its own
+ * virtual thread, which costs a few hundred bytes rather than a whole
+ * thread stack, so thousands of requests can be in flight on a small
+ * container. On older Java versions a cached thread pool is used instead.
+ *
+ * A server in front of a ReplicationFollower should be read only: sell and
+ * restock then answer 403, because changes must be made on the leader.
+ */
+public class InventoryHttpServer {
+
+    // How many connections may wait to be accepted
+    private static final int BACKLOG = 4096;
+
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final InventoryManager inventory;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private volatile boolean readOnly;
+
+    /**
+     * Create a server for an inventory. Call start() to begin serving.
+     *
+     * @param inventory The inventory to serve
+     * @param port      The port to listen on, or 0 to pick a free one
+     * @throws IOException if the port can't be opened
+     */
+    public InventoryHttpServer(InventoryManager inventory, int port) throws IOException {
+        configureJdkServer();
+        this.inventory = inventory;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = (virtual != null);
+        this.executor = virtualThreads ? virtual : Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+
+        server.createContext("/products/", exchange -> respond(exchange, this::products));
+        server.createContext("/types/", exchange -> respond(exchange, this::productsByType));
+        server.createContext("/low-stock", exchange -> respond(exchange, this::lowStock));
+        server.createContext("/statistics", exchange -> respond(exchange, this::statistics));
+    }
+
+    /**
+     * Start accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests, give running ones a moment to finish, and
+     * stop the request threads.
+     *
+     * @param delaySeconds How long to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the port the server listens on
+     * @return The port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Refuse (or allow again) requests that change the inventory, for a
+     * server whose inventory is a replication follower.
+     *
+     * @param readOnly true to answer sell and restock with 403
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Check whether requests run on virtual threads
+     * @return true on Java 21 and later, false when using a thread pool
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Tune the JDK server, unless these were already set on the command line.
+     * They are read once, when the first server is created.
+     * - nodelay: the server sends headers and body separately; without this,
+     *   TCP holds the body back for up to 40 ms on reused connections
+     * - maxIdleConnections: keep many keep-alive connections open instead of
+     *   closing all but a few hundred
+     */
+    private static void configureJdkServer() {
+        setIfAbsent("sun.net.httpserver.nodelay", "true");
+        setIfAbsent("sun.net.httpserver.maxIdleConnections", "10000");
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    /**
+     * Create an executor that starts a virtual thread per task, if this
+     * Java version has them. The project still compiles for Java 11, so the
+     * method is looked up by name rather than called directly.
+     *
+     * @return The executor, or null if virtual threads aren't available
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // Endpoints
+
+    private Response products(HttpExchange exchange) {
+        // /products/{name} or /products/{name}/{action}
+        String[] parts = pathParts(exchange, "/products/");
+        if (parts.length == 0 || parts.length > 2 || parts[0].isEmpty()) {
+            return Response.error(404, "Not found");
+        }
+        String name = parts[0];
+
+        if (parts.length == 1) {
+            if (!isMethod(exchange, "GET")) {
+                return Response.error(405, "Use GET");
+            }
+            Product product = inventory.findProduct(name);
+            if (product == null) {
+                return Response.error(404, "Product not found: " + name);
+            }
+            return Response.ok(productJson(new StringBuilder(), product));
+        }
+
+        if (!isMethod(exchange, "POST")) {
+            return Response.error(405, "Use POST");
+        }
+        if (readOnly) {
+            return Response.error(403, "This node is a read-only follower; send changes to the leader");
+        }
+        Map<String, String> query = query(exchange);
+        int quantity;
+        try {
+            quantity = Integer.parseInt(query.getOrDefault("quantity", ""));
+        } catch (NumberFormatException e) {
+            return Response.error(400, "quantity must be a whole number");
+        }
+        if (quantity <= 0) {
+            return Response.error(400, "quantity must be positive");
+        }
+
+        switch (parts[1]) {
+            case "sell":
+                return sell(name, quantity, query.getOrDefault("discount", DiscountCalculator.NO_DISCOUNT));
+            case "restock":
+                return restock(name, quantity);
+            default:
+                return Response.error(404, "Unknown action: " + parts[1]);
+        }
+    }
+
+    private Response sell(String name, int quantity, String discountType) {
+        if (!DiscountCalculator.isValidDiscountType(discountType)) {
+            return Response.error(400, "Unknown discount type: " + discountType);
+        }
+        SaleResult result = inventory.sellProductForResult(name, quantity, discountType);
+
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"status\":");
+        string(json, result.getStatus().name());
+        json.append(",\"product\":");
+        string(json, result.getProductName());
+        json.append(",\"quantity\":").append(result.getQuantity());
+        json.append(",\"remainingStock\":").append(result.getRemainingStock());
+        if (result.isSuccessful()) {
+            json.append(",\"discountType\":");
+            string(json, result.getDiscountType());
+            json.append(",\"originalTotal\":").append(result.getOriginalTotal());
+            json.append(",\"discount\":").append(result.getDiscount());
+            Money.appendTo(json.append(",\"finalPrice\":"), result.getFinalPriceCents());
+        }
+        json.append('}');
+
+        switch (result.getStatus()) {
+            case SOLD:
+                return Response.ok(json);
+            case NOT_FOUND:
+                return new Response(404, json);
+            default:
+                return new Response(409, json); // Not enough stock
+        }
+    }
+
+    private Response restock(String name, int quantity) {
+        if (!inventory.addStock(name, quantity)) {
+            return Response.error(404, "Product not found: " + name);
+        }
+        return Response.ok(productJson(new StringBuilder(), inventory.findProduct(name)));
+    }
+
+    private Response productsByType(HttpExchange exchange) {
+        // /types/{type}/products
+        String[] parts = pathParts(exchange, "/types/");
+        if (parts.length != 2 || !parts[1].equals("products")) {
+            return Response.error(404, "Not found");
+        }
+        if (!isMethod(exchange, "GET")) {
+            return Response.error(405, "Use GET");
+        }
+        ProductType type = ProductType.of(parts[0]);
+        if (type == null) {
+            return Response.error(404, "Unknown product type: " + parts[0]);
+        }
+        return Response.ok(productListJson(inventory.getProductsByType(type)));
+    }
+
+    private Response lowStock(HttpExchange exchange) {
+        if (!isMethod(exchange, "GET")) {
+            return Response.error(405, "Use GET");
+        }
+        return Response.ok(productListJson(inventory.getLowStockProducts()));
+    }
+
+    private Response statistics(HttpExchange exchange) {
+        if (!isMethod(exchange, "GET")) {
+            return Response.error(405, "Use GET");
+        }
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"productCount\":").append(inventory.getProductCount());
+        json.append(",\"totalValue\":").append(inventory.getTotalInventoryValue());
+        json.append(",\"lowStockThreshold\":").append(inventory.getLowStockThreshold());
+        json.append(",\"lowStockCount\":").append(inventory.getLowStockProducts().size());
+        json.append(",\"byType\":{");
+        String[] types = ProductFactory.getValidTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            string(json, types[i]);
+            json.append(":{\"productCount\":").append(inventory.getProductCountByType(types[i]));
+            json.append(",\"totalValue\":").append(inventory.getInventoryValueByType(types[i]));
+            json.append('}');
+        }
+        json.append("}}");
+        return Response.ok(json);
+    }
+
+    // Plumbing
+
+    /**
+     * Run an endpoint and send its response. Any unexpected error becomes a 500.
+     */
+    private static void respond(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        Response response;
+        try {
+            // Read and discard any request body so the connection can be reused
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            response = endpoint.handle(exchange);
+        } catch (RuntimeException e) {
+            response = Response.error(500, String.valueOf(e.getMessage()));
+        }
+
+        byte[] bytes = response.body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static boolean isMethod(HttpExchange exchange, String method) {
+        return exchange.getRequestMethod().equalsIgnoreCase(method);
+    }
+
+    /**
+     * Split the part of the path after a prefix into decoded pieces.
+     */
+    private static String[] pathParts(HttpExchange exchange, String prefix) {
+        String path = exchange.getRequestURI().getRawPath();
+        String rest = path.substring(Math.min(prefix.length(), path.length()));
+        if (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        if (rest.isEmpty()) {
+            return new String[0];
+        }
+        String[] parts = rest.split("/", -1);
+        for (int i = 0; i < parts.length; i++) {
+            // A + in a path is a plus sign, not a space
+            parts[i] = URLDecoder.decode(parts[i].replace("+", "%2B"), StandardCharsets.UTF_8);
+        }
+        return parts;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> values = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return values;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = (equals < 0) ? pair : pair.substring(0, equals);
+            String value = (equals < 0) ? "" : pair.substring(equals + 1);
+            values.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static StringBuilder productListJson(List<Product> products) {
+        StringBuilder json = new StringBuilder(64 + products.size() * 96);
+        json.append('[');
+        boolean first = true;
+        for (Product product : products) {
+            if (!first) {
+                json.append(',');
+            }
+            productJson(json, product);
+            first = false;
+        }
+        return json.append(']');
+    }
+
+    private static StringBuilder productJson(StringBuilder json, Product product) {
+        json.append("{\"name\":");
+        string(json, product.getName());
+        json.append(",\"type\":");
+        string(json, product.getType());
+        Money.appendTo(json.append(",\"price\":"), product.getPriceCents());
+        json.append(",\"quantity\":").append(product.getQuantity());
+        return json.append('}');
+    }
+
+    /**
+     * Append a JSON string, escaping quotes, backslashes and control characters.
+     */
+    private static void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * One endpoint: turns a request into a response.
+     */
+    private interface Endpoint {
+        Response handle(HttpExchange exchange);
+    }
+
+    /**
+     * A status code and a JSON body.
+     */
+    private static final class Response {
+        final int status;
+        final CharSequence body;
+
+        Response(int status, CharSequence body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(CharSequence body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            StringBuilder json = new StringBuilder("{\"error\":");
+            string(json, message);
+            return new Response(status, json.append('}'));
+        }
+    }
+}
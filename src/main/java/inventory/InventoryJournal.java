@@ -0,0 +1,683 @@
+// File: src/main/java/inventory/InventoryJournal.java
+package inventory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * InventoryJournal - an append-only log of every change to the inventory.
+ *
+ * Products live in memory, so without a journal a crash loses every sale
+ * since the last snapshot. With a journal attached, InventoryManager writes
+ * a record for each new product, stock change and price change before it
+ * reports the change as done. Replaying the journal on startup rebuilds
+ * the inventory.
+ *
+ * Writing to the file is done by a single background thread using
+ * "group commit": while one fsync is running, records from other threads
+ * pile up, and the next fsync makes all of them durable at once. That way
+ * many concurrent sales share one disk flush instead of queuing for one each.
+ *
+ * Two modes:
+ * - SYNC:  a change only returns once its record is safely on disk
+ * - ASYNC: a change returns straight away; records reach the disk within
+ *          a few milliseconds, so a crash can lose the last few changes
+ *
+ * If writing fails, the journal stops and keeps the error (see
+ * getFailure). A change that has already happened in memory is never
+ * reported as failed because of the journal: it still counts, and
+ * everyone else still hears about it, it just isn't on disk. sync and
+ * reset report the error, since they promise that everything is recorded.
+ *
+ * Each record is stored as [length][CRC32][body], so replay can tell where a
+ * crash cut the last record short and stops there. ReplicationLeader sends
+ * followers the same records over the network.
+ *
+ * The file starts with a header holding a generation number. Each reset
+ * empties the journal and moves it to a new generation. A snapshot is
+ * marked with the generation the journal moves to once the snapshot is
+ * safely saved, so replay can tell a journal the snapshot already
+ * contains (an older generation) from one with newer changes - even if
+ * the program died between saving the snapshot and resetting the journal.
+ */
+public class InventoryJournal implements AutoCloseable {
+
+    /**
+     * When a change counts as done.
+     */
+    public enum Mode {
+        SYNC,   // Wait until the record is on disk
+        ASYNC   // Don't wait - the record is written shortly after
+    }
+
+    // "INVJ" - marks the file as an inventory journal. The header is the
+    // magic number, the version and the generation.
+    private static final int MAGIC = 0x494E564A;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+    // Record types
+    private static final byte PRODUCT_ADDED = 1;
+    private static final byte STOCK_CHANGED = 2;
+    private static final byte PRICE_CHANGED = 3;
+
+    // In ASYNC mode, how long the writer collects records before each flush
+    private static final long ASYNC_FLUSH_MILLIS = 5;
+
+    private final Path file;
+    private final Mode mode;
+    private final FileChannel channel;
+
+    // Records waiting to be written, and a spare buffer to swap with
+    private final Object lock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private ByteArrayOutputStream writing = new ByteArrayOutputStream(64 * 1024);
+    private long generation;         // Which generation the file holds
+    private long appended;           // Records added so far
+    private long durable;            // Records known to be on disk
+    private IOException failure;     // Set if the writer hit an error
+    private boolean running = true;
+
+    private final Thread writer;
+
+    /**
+     * Open a journal file, creating it if needed. New records are added to
+     * the end. A new journal starts at generation 1.
+     *
+     * @param file Where to keep the journal
+     * @param mode Whether changes wait for the disk (SYNC) or not (ASYNC)
+     * @throws IOException if the file can't be opened or isn't a journal
+     */
+    public InventoryJournal(Path file, Mode mode) throws IOException {
+        this.file = file;
+        this.mode = mode;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                writeHeader(1);    // New, or the header was never finished
+            } else {
+                generation = readHeader(new DataInputStream(Channels.newInputStream(channel)), file);
+                channel.position(channel.size());
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        writer = new Thread(this::writeLoop, "inventory-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Get the journal file
+     * @return the path of the journal
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the journal mode
+     * @return SYNC or ASYNC
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get the journal's generation
+     * @return The generation, which goes up on every reset
+     */
+    public long getGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    // Recording changes - called by InventoryManager
+
+    /**
+     * Record a new product without waiting for the disk. InventoryManager
+     * calls this before the product can be found, so the record holds its
+     * starting stock and no sale of it can be recorded ahead of it. It then
+     * calls awaitRecorded once it has let go of its lock.
+     *
+     * @return The record's sequence number, for awaitRecorded
+     */
+    long productAdded(Product product) {
+        return enqueue(productRecord(product));
+    }
+
+    /**
+     * Record many new products at once, without waiting for the disk.
+     *
+     * @return The last record's sequence number, for awaitRecorded (0 if there were none)
+     */
+    long productsAdded(List<Product> added) {
+        long last = 0;
+        for (Product product : added) {
+            last = enqueue(productRecord(product));
+        }
+        return last;
+    }
+
+    /**
+     * In SYNC mode, wait until a record from productAdded or productsAdded
+     * (and every record before it) is on disk. In ASYNC mode, return straight away.
+     *
+     * @param sequence The sequence number they returned
+     */
+    void awaitRecorded(long sequence) {
+        if (mode == Mode.SYNC && sequence > 0) {
+            awaitDurable(sequence);
+        }
+    }
+
+    void stockChanged(Product product, int change) {
+        append(stockRecord(product, change));
+    }
+
+    void priceChanged(Product product, long priceCents) {
+        append(priceRecord(product, priceCents));
+    }
+
+    /**
+     * Wait until every record added so far is on disk, whatever the mode.
+     *
+     * @throws UncheckedIOException if the journal has stopped, so some changes aren't recorded
+     */
+    public void sync() {
+        flush();
+        IOException error = getFailure();
+        if (error != null) {
+            throw new UncheckedIOException("Journal write failed", error);
+        }
+    }
+
+    /**
+     * Get the error that stopped the journal. Changes made since then are
+     * only in memory, until the inventory is saved.
+     *
+     * @return The error, or null if every change so far has been recorded
+     */
+    public IOException getFailure() {
+        synchronized (lock) {
+            return failure;
+        }
+    }
+
+    /**
+     * Wait until every record added so far is on disk, or the journal has stopped.
+     */
+    private void flush() {
+        long target;
+        synchronized (lock) {
+            target = appended;
+            lock.notifyAll();
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * Empty the journal and move it to the next generation.
+     * Only call this while no changes are being made.
+     *
+     * @throws IOException if the file can't be truncated
+     */
+    public void reset() throws IOException {
+        reset(getGeneration() + 1);
+    }
+
+    /**
+     * Empty the journal and move it to a later generation, for example
+     * after saving a snapshot marked with that generation, which already
+     * contains every change recorded so far. Only call this while no
+     * changes are being made.
+     *
+     * @param newGeneration The new generation
+     * @throws IOException              if the file can't be truncated, or the journal has stopped
+     * @throws IllegalArgumentException if the generation isn't later than the current one
+     */
+    public void reset(long newGeneration) throws IOException {
+        flush();
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Journal write failed, can't reset it: " + failure.getMessage(), failure);
+            }
+            if (newGeneration <= generation) {
+                throw new IllegalArgumentException("Journal is already at generation " + generation
+                        + ", can't move to " + newGeneration);
+            }
+            writeHeader(newGeneration);
+        }
+    }
+
+    /**
+     * Replace the file with just a header. If the program dies part way,
+     * the file is left shorter than a header, which counts as empty.
+     */
+    private void writeHeader(long newGeneration) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(newGeneration).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        generation = newGeneration;
+    }
+
+    /**
+     * Read and check a journal header.
+     *
+     * @return The generation
+     * @throws IOException if the file isn't a journal this version can read
+     */
+    private static long readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an inventory journal: " + file);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + ": " + file);
+        }
+        return in.readLong();
+    }
+
+    /**
+     * Get the generation of a journal file without opening it for writing.
+     *
+     * @param file The journal
+     * @return The generation, or 0 if the file doesn't exist or is empty
+     * @throws IOException if the file can't be read or isn't a journal
+     */
+    public static long readGeneration(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return readHeader(in, file);
+        }
+    }
+
+    /**
+     * Write any remaining records and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Add an encoded record to the pending buffer and, in SYNC mode, wait
+     * until the writer has made it durable (or the journal has stopped).
+     */
+    private void append(byte[] record) {
+        long sequence = enqueue(record);
+        if (mode == Mode.SYNC && sequence > 0) {
+            awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Add an encoded record to the pending buffer without waiting for it.
+     * Once the journal has stopped, the record is dropped: the change has
+     * already happened in memory, and the error is kept for getFailure.
+     *
+     * @return The record's sequence number, to pass to awaitDurable, or 0 if it was dropped
+     */
+    private long enqueue(byte[] record) {
+        synchronized (lock) {
+            if (failure == null && !running) {
+                failure = new IOException("Journal is closed");
+            }
+            if (failure != null) {
+                return 0;
+            }
+            pending.write(record, 0, record.length);
+
+            // Wake the writer for every SYNC record, or for the first record
+            // of a new ASYNC batch
+            if (mode == Mode.SYNC || pending.size() == record.length) {
+                lock.notifyAll();
+            }
+            return ++appended;
+        }
+    }
+
+    /**
+     * Wait until a record is on disk, or the journal has stopped.
+     */
+    private void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (durable < sequence && failure == null && writer.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Body of the writer thread: take whatever has piled up, write it,
+     * fsync once, and tell everyone waiting for those records.
+     */
+    private void writeLoop() {
+        while (true) {
+            long batchEnd;
+            synchronized (lock) {
+                while (pending.size() == 0 && running) {
+                    waitQuietly(0);
+                }
+                if (pending.size() == 0) {
+                    return; // Closed and nothing left to write
+                }
+                if (mode == Mode.ASYNC && running) {
+                    waitQuietly(ASYNC_FLUSH_MILLIS); // Let a few more records arrive
+                }
+
+                // Swap buffers so other threads can keep appending while we write
+                ByteArrayOutputStream batch = pending;
+                pending = writing;
+                writing = batch;
+                batchEnd = appended;
+            }
+
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(writing.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+                writing.reset();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durable = batchEnd;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            // The writer only stops through close()
+        }
+    }
+
+    /**
+     * Writes the type-specific part of a record.
+     */
+    private interface Fields {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Encoding records - also used by ReplicationLeader
+
+    /**
+     * Encode a new product with its current price and stock. Call this
+     * before the product can be found, so no sale changes the stock first.
+     */
+    static byte[] productRecord(Product product) {
+        String type = product.getType();
+        long priceCents = product.getPriceCents();
+        int quantity = product.getStoredQuantity();
+        return frame(body(PRODUCT_ADDED, product.getName(), out -> {
+            out.writeUTF(type);
+            out.writeLong(priceCents);
+            out.writeInt(quantity);
+        }));
+    }
+
+    static byte[] stockRecord(Product product, int change) {
+        return frame(body(STOCK_CHANGED, product.getName(), out -> out.writeInt(change)));
+    }
+
+    static byte[] priceRecord(Product product, long priceCents) {
+        return frame(body(PRICE_CHANGED, product.getName(), out -> out.writeLong(priceCents)));
+    }
+
+    /**
+     * Encode the body of a record: type, name, fields.
+     */
+    private static byte[] body(byte type, String name, Fields fields) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeByte(type);
+            out.writeUTF(name);
+            fields.write(out);
+            return body.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Can't happen when writing to memory
+        }
+    }
+
+    /**
+     * Put a record body in its frame: [length][CRC32][body].
+     */
+    private static byte[] frame(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + body.length);
+        record.putInt(body.length).putInt((int) crc.getValue()).put(body);
+        return record.array();
+    }
+
+    /**
+     * Apply every record in a journal file to an inventory, in order.
+     * Call this before attaching a journal to the inventory, so replayed
+     * changes aren't journaled a second time.
+     *
+     * @param file      The journal to replay
+     * @param inventory The inventory to apply the changes to
+     * @return How many records were applied (0 if the file doesn't exist)
+     * @throws IOException if the file can't be read, or a record can't be
+     *                     applied (the inventory doesn't match the journal)
+     */
+    public static int replay(Path file, InventoryManager inventory) throws IOException {
+        return replay(file, inventory, 0);
+    }
+
+    /**
+     * Apply the records in a journal file to an inventory loaded from a
+     * snapshot, in order. If the journal is from a generation before the
+     * snapshot's, the snapshot already has all of its changes and nothing
+     * is applied.
+     *
+     * Replay stops at the first record that is incomplete or fails its
+     * checksum - that is where the last run stopped writing. That record
+     * and anything after it are cut off the file, so records added to the
+     * journal from now on come straight after the last good one and are
+     * replayed next time.
+     *
+     * @param file               The journal to replay
+     * @param inventory          The inventory to apply the changes to
+     * @param snapshotGeneration The generation the snapshot was marked with
+     *                           (see InventorySnapshot.readJournalGeneration), or 0 for none
+     * @return How many records were applied (0 if the file doesn't exist)
+     * @throws IOException if the file can't be read or isn't a journal, or a record
+     *                     can't be applied (the inventory doesn't match the journal)
+     */
+    public static int replay(Path file, InventoryManager inventory, long snapshotGeneration) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) {
+            return 0;
+        }
+        int applied = 0;
+        long validBytes = HEADER_BYTES;    // Where the last good record ends
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024))) {
+            if (readHeader(in, file) < snapshotGeneration) {
+                return 0;   // Saved in the snapshot already
+            }
+            byte[] body;
+            while ((body = readRecord(in)) != null) {
+                validBytes += 2 * Integer.BYTES + body.length;
+                apply(body, inventory);
+                applied++;
+            }
+        }
+
+        if (validBytes < Files.size(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Read the next record from a journal file.
+     *
+     * @return The body, or null at the end of the file or at a record that
+     *         is cut short or damaged
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            return readBody(in.readInt(), in);
+        } catch (EOFException e) {
+            return null; // Clean end, or a record cut short
+        }
+    }
+
+    /**
+     * Read the rest of a record after its length: the checksum and the body.
+     *
+     * @param length The length already read
+     * @param in     Where to read from
+     * @return The body, or null if the length is impossible or the checksum doesn't match
+     * @throws IOException if reading fails (EOFException if the record is cut short)
+     */
+    static byte[] readBody(int length, DataInputStream in) throws IOException {
+        int checksum = in.readInt();
+        if (length <= 0 || length > 1 << 20) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return ((int) crc.getValue() == checksum) ? body : null;
+    }
+
+    /**
+     * Apply one record body to an inventory.
+     *
+     * @throws IOException if the record names an unknown product, type or record type
+     */
+    static void apply(byte[] body, InventoryManager inventory) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        String name = in.readUTF();
+
+        if (type == PRODUCT_ADDED) {
+            ProductType productType = readType(in.readUTF());
+            long priceCents = in.readLong();
+            int quantity = in.readInt();
+            Product product = new Product(name, productType, 0.0, quantity);
+            product.setPriceCents(priceCents);
+            List<Product> added = new ArrayList<>(1);
+            added.add(product);
+            inventory.addLoadedProducts(added);
+            return;
+        }
+
+        Product product = inventory.findProduct(name);
+        if (product == null) {
+            throw new IOException("Journal refers to unknown product: " + name);
+        }
+        if (type == STOCK_CHANGED) {
+            product.addStock(in.readInt());
+        } else if (type == PRICE_CHANGED) {
+            product.setPriceCents(in.readLong());
+        } else {
+            throw new IOException("Unknown journal record type: " + type);
+        }
+    }
+
+    /**
+     * Apply one record body to an inventory that may already have the
+     * product a new-product record adds. That record holds the product's
+     * whole state, so the product's price and stock are set to the record's
+     * instead. Used by followers, which may resync onto an inventory that
+     * isn't empty.
+     *
+     * @throws IOException if the record names an unknown product, type or
+     *                     record type, or a product has another type
+     */
+    static void applyState(byte[] body, InventoryManager inventory) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        String name = in.readUTF();
+        if (type != PRODUCT_ADDED) {
+            apply(body, inventory);
+            return;
+        }
+        ProductType productType = readType(in.readUTF());
+        long priceCents = in.readLong();
+        int quantity = in.readInt();
+
+        Product product = inventory.findProduct(name);
+        if (product == null) {
+            apply(body, inventory);
+        } else if (product.getProductType() != productType) {
+            throw new IOException("Product " + name + " is a " + product.getType() + ", not a " + productType);
+        } else {
+            product.setPriceCents(priceCents);
+            product.setQuantity(quantity);
+        }
+    }
+
+    /**
+     * Look up the product type a record names.
+     */
+    private static ProductType readType(String type) throws IOException {
+        ProductType productType = ProductType.of(type);
+        if (productType == null) {
+            throw new IOException("Journal refers to unknown product type: " + type);
+        }
+        return productType;
+    }
+}
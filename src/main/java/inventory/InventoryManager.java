@@ -2,7 +2,15 @@
 package inventory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * InventoryManager class manages all products in our inventory.
@@ -12,17 +20,165 @@ import java.util.List;
  *
  * It uses both the Factory Pattern (to create products) and Strategy Pattern
  * (to calculate discounts during sales).
+ *
+ * Sales and restocks can run from many threads at once. Stock changes are
+ * atomic inside Product, so concurrent checkouts never oversell.
+ *
+ * Instead of printing directly, the manager reports what it does to an
+ * InventoryEventSink. By default that is a ConsoleEventSink, which prints
+ * the same messages as always.
+ *
+ * The total stock value and the low stock list are kept up to date as
+ * products change, so statistics don't have to look at every product.
+ * Products are also grouped by type as they are added, so by-type queries
+ * only touch products of that type.
+ *
+ * Stock can be reserved for a few minutes during checkout, then committed
+ * or released. Reservations nobody finishes are put back in stock by a
+ * timing wheel (see ReservationWheel), whose thread runs until close().
+ *
+ * An InventoryJournal can be attached to record every change on disk
+ * before it is reported as done, so the inventory can be rebuilt after a
+ * crash. If the journal stops working, changes carry on in memory and the
+ * journal keeps the error.
+ *
+ * Other parts of a system can subscribe to getChanges() to hear about every
+ * change as it happens, instead of polling the product lists.
+ *
+ * The product lists (showInventory, getProductsByType) can be read while
+ * products are being added: readers get the products added so far.
  */
-public class InventoryManager {
+public class InventoryManager implements AutoCloseable {
+
+    // Products with this many items or fewer count as low stock, unless changed
+    public static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
 
     // List to store all our products
-    private List<Product> products;
+    private final ProductList products;
+
+    // Index of products by case-folded name, so lookups don't scan the whole list
+    private final Map<String, Product> productsByName;
+
+    // Trie of the same names, for prefix and typo searches
+    private final ProductNameIndex nameIndex = new ProductNameIndex();
+
+    // Products grouped by type, indexed by the type code (ProductType ordinal)
+    private final ProductList[] productsByType;
+
+    // Where we report sales, new products and restocks
+    private volatile InventoryEventSink events;
+
+    // Running total value and low stock set
+    private final InventoryAggregates aggregates;
+
+    // Operation counts, failure reasons and latencies
+    private final InventoryMetrics metrics = new InventoryMetrics();
+
+    // Records changes on disk, or null if changes aren't journaled
+    private volatile InventoryJournal journal;
+
+    // Streams changes to follower nodes, or null if this isn't a replication leader
+    private volatile ReplicationLeader replication;
+
+    // Sends every change to in-process subscribers
+    private final InventoryChangePublisher changes = new InventoryChangePublisher();
+
+    // Attached to every product, so we hear about its price and stock changes
+    private final ProductObserver productChanges = new ProductChanges();
+
+    // Expires reservations - started by the first reserve call
+    private volatile ReservationWheel reservationWheel;
+    private final AtomicLong nextReservationId = new AtomicLong(1);
+    private boolean closed;                 // Guarded by nextReservationId
 
     /**
-     * Constructor creates a new empty inventory.
+     * Constructor creates a new empty inventory that prints to the console.
      */
     public InventoryManager() {
-        products = new ArrayList<>();
+        this(new ConsoleEventSink());
+    }
+
+    /**
+     * Constructor creates a new empty inventory that reports to the given sink.
+     *
+     * @param events Where to report what the inventory does
+     */
+    public InventoryManager(InventoryEventSink events) {
+        this(events, 16);
+    }
+
+    /**
+     * Constructor creates a new empty inventory sized for a known number of
+     * products, so loading a big catalog doesn't keep growing the indexes.
+     *
+     * @param events           Where to report what the inventory does
+     * @param expectedProducts Roughly how many products will be added
+     */
+    public InventoryManager(InventoryEventSink events, int expectedProducts) {
+        products = new ProductList(expectedProducts);
+        productsByName = new ConcurrentHashMap<>(expectedProducts);
+        productsByType = new ProductList[ProductType.count()];
+        for (int i = 0; i < productsByType.length; i++) {
+            productsByType[i] = new ProductList(16);
+        }
+        aggregates = new InventoryAggregates(DEFAULT_LOW_STOCK_THRESHOLD);
+        this.events = events;
+    }
+
+    /**
+     * Change where the inventory reports what it does.
+     *
+     * @param events The new event sink
+     */
+    public void setEventSink(InventoryEventSink events) {
+        this.events = events;
+    }
+
+    /**
+     * Get where the inventory reports what it does.
+     *
+     * @return The current event sink
+     */
+    public InventoryEventSink getEventSink() {
+        return events;
+    }
+
+    /**
+     * Start (or stop, with null) recording every change in a journal.
+     * Replay any existing journal with InventoryJournal.replay before
+     * attaching it.
+     *
+     * @param journal The journal to write to, or null for none
+     */
+    public void setJournal(InventoryJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Get the journal changes are recorded in.
+     *
+     * @return The journal, or null if changes aren't journaled
+     */
+    public InventoryJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Get the stream of changes to this inventory, for subscribers that
+     * want to hear about new products, sales, restocks and price changes.
+     *
+     * @return The change publisher
+     */
+    public InventoryChangePublisher getChanges() {
+        return changes;
+    }
+
+    /**
+     * Start (or stop, with null) streaming every change to followers.
+     * Called by ReplicationLeader.
+     */
+    void setReplicationLeader(ReplicationLeader leader) {
+        this.replication = leader;
     }
 
     /**
@@ -32,41 +188,283 @@ public class InventoryManager {
      * @param name     Product name
      * @param price    Product price
      * @param quantity Initial stock quantity
-     * @return true if product was added successfully
+     * @return true if product was added successfully, false if it was
+     *         invalid or a product with the same name (ignoring case) exists
      */
     public boolean addProduct(String type, String name, double price, int quantity) {
-        try {
-            // Use Factory Pattern to create the product
-            Product product = ProductFactory.createProduct(type, name, price, quantity);
-
-            // Add it to our inventory
-            products.add(product);
+        return addProduct(name, () -> ProductFactory.createProduct(type, name, price, quantity));
+    }
 
-            System.out.println("Added product: " + product.getName());
-            return true;
+    /**
+     * Add a new product whose price is already in cents, such as a price
+     * read from a file with Money.parseCents.
+     *
+     * @param type       Type of product ("Book" or "Electronics")
+     * @param name       Product name
+     * @param priceCents Product price, in cents
+     * @param quantity   Initial stock quantity
+     * @return true if product was added successfully, false if it was
+     *         invalid or a product with the same name (ignoring case) exists
+     */
+    public boolean addProductCents(String type, String name, long priceCents, int quantity) {
+        return addProduct(name, () -> ProductFactory.createProductCents(
+                ProductType.require(type), name, priceCents, quantity));
+    }
 
+    /**
+     * Add a new product made by the factory.
+     *
+     * @param name    Product name
+     * @param factory Creates the product once the name is known to be free
+     * @return true if the product was added, false if it couldn't be
+     */
+    private boolean addProduct(String name, Supplier<Product> factory) {
+        Product product;
+        InventoryJournal current;
+        long recorded = 0;
+        try {
+            synchronized (this) {
+                // Names must be unique, otherwise findProduct couldn't tell them apart
+                if (productsByName.containsKey(nameKey(name))) {
+                    throw new IllegalArgumentException("Product already exists: " + name);
+                }
+
+                // Use Factory Pattern to create the product
+                product = factory.get();
+
+                // Record it while nobody can find it yet, so the records hold its
+                // starting stock and none of its sales can be recorded before it
+                current = journal;
+                if (current != null) {
+                    recorded = current.productAdded(product);
+                }
+                ReplicationLeader leader = replication;
+                if (leader != null) {
+                    leader.productAdded(product);
+                }
+                changes.productAdded(product);
+
+                // Then add it to our inventory and indexes
+                insert(product);
+            }
         } catch (Exception e) {
-            System.out.println("Error adding product: " + e.getMessage());
+            events.productAddFailed(name, e.getMessage());
             return false;
         }
+
+        // The product can be found now, so it counts as added even if the
+        // journal has stopped (the journal keeps that error). Wait for the
+        // disk without holding the lock.
+        if (current != null) {
+            current.awaitRecorded(recorded);
+        }
+        events.productAdded(product);
+        return true;
     }
 
     /**
-     * Find a product by name.
-     * This searches through all products to find one with the given name.
+     * Add products that were already created and checked, such as products
+     * loaded from a snapshot. No events are reported, but change
+     * subscribers hear about them.
+     *
+     * @param loaded The products to add
+     * @throws IllegalArgumentException if a name is already in the inventory
+     */
+    synchronized void addLoadedProducts(List<Product> loaded) {
+        List<String> keys = new ArrayList<>(loaded.size());
+        Set<String> seen = new HashSet<>();
+        for (Product product : loaded) {
+            String key = nameKey(product.getName());
+            if (productsByName.containsKey(key) || !seen.add(key)) {
+                throw new IllegalArgumentException("Product already exists: " + product.getName());
+            }
+            keys.add(key);
+        }
+
+        changes.productsAdded(loaded);
+        insertAll(loaded, keys);
+    }
+
+    /**
+     * Add products created by an importer. Products whose name is already
+     * taken (including by an earlier product in the same list) are skipped.
+     * No events are reported, but the added products are journaled.
+     * The lock is only held while the products are added; in SYNC mode the
+     * wait for the journal comes after, so other threads can carry on.
+     * Importers pass a big catalog in batches, so no one waits long.
+     *
+     * @param imported The products to add
+     * @return Positions in the list of the products that were skipped
+     */
+    List<Integer> addImportedProducts(List<Product> imported) {
+        List<Integer> skipped = new ArrayList<>();
+        InventoryJournal current;
+        long recorded = 0;
+        synchronized (this) {
+            List<Product> added = new ArrayList<>(imported.size());
+            List<String> keys = new ArrayList<>(imported.size());
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < imported.size(); i++) {
+                String key = nameKey(imported.get(i).getName());
+                if (productsByName.containsKey(key) || !seen.add(key)) {
+                    skipped.add(i);
+                    continue;
+                }
+                added.add(imported.get(i));
+                keys.add(key);
+            }
+
+            // Record the products before they can be found, like addProduct does
+            current = journal;
+            if (current != null) {
+                recorded = current.productsAdded(added);
+            }
+            ReplicationLeader leader = replication;
+            if (leader != null) {
+                leader.productsAdded(added);
+            }
+            changes.productsAdded(added);
+
+            insertAll(added, keys);
+        }
+
+        if (current != null) {
+            current.awaitRecorded(recorded);
+        }
+        return skipped;
+    }
+
+    /**
+     * Get a copy of the product list, in the order products were added.
+     *
+     * @return A new list of all products
+     */
+    List<Product> getAllProducts() {
+        return new ArrayList<>(products.snapshot());
+    }
+
+    /**
+     * Put a new product in the list, the name index, its type group and the totals.
+     * Callers hold the lock, have checked the name is free and have already
+     * recorded the product.
+     */
+    private void insert(Product product) {
+        product.attach(products.size(), productChanges);
+        aggregates.add(product);
+        makeFindable(product, nameKey(product.getName()));
+    }
+
+    /**
+     * Insert many new products, adding them to the totals in one go.
+     * They are attached and counted before anyone can find them, so they
+     * don't change while the totals are added up.
+     *
+     * @param added The products, with their names already checked and recorded
+     * @param keys  The name key of each product
+     */
+    private void insertAll(List<Product> added, List<String> keys) {
+        int id = products.size();
+        for (Product product : added) {
+            product.attach(id++, productChanges);
+        }
+        aggregates.addAll(added);
+        for (int i = 0; i < added.size(); i++) {
+            makeFindable(added.get(i), keys.get(i));
+        }
+    }
+
+    /**
+     * Put an attached product in the list, its type group and the name
+     * indexes. From here on it can be found and sold.
+     */
+    private void makeFindable(Product product, String key) {
+        products.add(product);
+        typeGroup(product.getProductType()).add(product);
+        nameIndex.add(key, product);
+        productsByName.put(key, product);
+    }
+
+    /**
+     * Find a product by name (ignoring upper/lower case).
+     * This is a single hash lookup, so it stays fast no matter how many
+     * products are in the inventory.
      *
      * @param name The name of the product to find
      * @return The product if found, null if not found
      */
     public Product findProduct(String name) {
-        // Look through all products
-        for (Product product : products) {
-            // Check if the name matches (ignoring upper/lower case)
-            if (product.getName().equalsIgnoreCase(name)) {
-                return product;
+        long start = metrics.start();
+        Product product = lookup(name);
+        metrics.record(InventoryMetrics.Operation.FIND, start);
+        return product;
+    }
+
+    /**
+     * Find a product for another operation. Not counted as a find: the
+     * operation's own time includes the lookup.
+     */
+    private Product lookup(String name) {
+        return (name == null) ? null : productsByName.get(nameKey(name)); // null if not found
+    }
+
+    /**
+     * Find products whose name starts with some text (ignoring upper/lower case),
+     * for when only the start of a name was typed.
+     *
+     * @param prefix The start of the name
+     * @param limit  The most products to return
+     * @return Up to limit products, in alphabetical order of name
+     */
+    public List<Product> searchByPrefix(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return nameIndex.startingWith(nameKey(prefix), limit);
+    }
+
+    /**
+     * Find products whose name is close to some text, for names typed with
+     * mistakes. Closeness is the number of letters that must be inserted,
+     * deleted, changed or swapped with a neighbour (ignoring upper/lower case).
+     * Keep maxEdits small - 1 or 2 - or nearly everything matches.
+     *
+     * @param name     The name as typed
+     * @param maxEdits The most edits allowed
+     * @param limit    The most products to return
+     * @return Up to limit products, closest first, then in alphabetical order of name
+     */
+    public List<Product> searchSimilar(String name, int maxEdits, int limit) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("maxEdits must not be negative: " + maxEdits);
+        }
+        if (name == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return nameIndex.similarTo(nameKey(name), maxEdits, limit);
+    }
+
+    /**
+     * Build the name index key for a product name.
+     * Folds each character the same way String.equalsIgnoreCase compares them,
+     * so two names share a key exactly when equalsIgnoreCase says they match.
+     *
+     * @param name The product name
+     * @return The case-folded key
+     */
+    static String nameKey(String name) {
+        char[] chars = null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c) {
+                // Only copy the name once we find a character that changes
+                if (chars == null) {
+                    chars = name.toCharArray();
+                }
+                chars[i] = folded;
             }
         }
-        return null; // Product not found
+        return (chars == null) ? name : new String(chars);
     }
 
     /**
@@ -78,39 +476,105 @@ public class InventoryManager {
      * @return true if sale was successful
      */
     public boolean sellProduct(String productName, int quantity, String discountType) {
-        // Find the product
-        Product product = findProduct(productName);
-        if (product == null) {
-            System.out.println("Product not found: " + productName);
-            return false;
-        }
+        return sellProduct(productName, quantity, discountType, DiscountCalculator.resolve(discountType));
+    }
 
-        // Check if we have enough stock
-        if (!product.isInStock() || product.getQuantity() < quantity) {
-            System.out.println("Not enough stock. Available: " + product.getQuantity());
-            return false;
-        }
+    /**
+     * Sell a product with a discount strategy that was already looked up.
+     *
+     * @param productName Name of the product to sell
+     * @param quantity    How many to sell
+     * @param discount    The discount strategy to apply (see DiscountCalculator.resolve)
+     * @return true if sale was successful
+     */
+    public boolean sellProduct(String productName, int quantity, DiscountStrategy discount) {
+        return sellProduct(productName, quantity, discount.getName(), discount);
+    }
+
+    private boolean sellProduct(String productName, int quantity, String discountType,
+                                DiscountStrategy discount) {
+        return sellProductForResult(productName, quantity, discountType, discount).isSuccessful();
+    }
 
-        // Calculate prices using Strategy Pattern
-        double originalPrice = product.getPrice() * quantity;
-        double discount = DiscountCalculator.calculateDiscount(product, quantity, discountType);
-        double finalPrice = originalPrice - discount;
+    /**
+     * Sell a product like sellProduct does, reporting the sale to the event
+     * sink, but hand back the whole result instead of just true or false.
+     *
+     * @param productName  Name of the product to sell
+     * @param quantity     How many to sell
+     * @param discountType What type of discount to apply
+     * @return What happened to the sale
+     */
+    public SaleResult sellProductForResult(String productName, int quantity, String discountType) {
+        return sellProductForResult(productName, quantity, discountType, DiscountCalculator.resolve(discountType));
+    }
 
-        // Process the sale
-        product.sell(quantity);
+    private SaleResult sellProductForResult(String productName, int quantity, String discountType,
+                                            DiscountStrategy discount) {
+        SaleResult result = sell(productName, quantity, discountType, discount);
 
-        // Show sale summary
-        System.out.println("\n=== SALE COMPLETE ===");
-        System.out.println("Product: " + product.getName());
-        System.out.println("Quantity: " + quantity);
-        System.out.println("Unit Price: $" + String.format("%.2f", product.getPrice()));
-        System.out.println("Original Total: $" + String.format("%.2f", originalPrice));
-        System.out.println(DiscountCalculator.getDiscountDescription(product, quantity, discountType));
-        System.out.println("Final Price: $" + String.format("%.2f", finalPrice));
-        System.out.println("Remaining Stock: " + product.getQuantity());
-        System.out.println("====================\n");
+        // Report the sale - the sink decides whether to show a receipt
+        if (result.isSuccessful()) {
+            events.saleCompleted(result);
+        } else {
+            events.saleFailed(result);
+        }
+        return result;
+    }
 
-        return true;
+    /**
+     * Sell a whole order in one call.
+     * Each line is looked up, priced and sold in a single pass over the order.
+     * No events are reported - every line gets a SaleResult saying what happened,
+     * in the same order as the lines were given.
+     *
+     * Lines are independent: if one line fails (unknown product or not
+     * enough stock), the other lines are still sold.
+     *
+     * @param lines The order lines to sell
+     * @return One result per order line
+     */
+    public List<SaleResult> sellProducts(List<OrderLine> lines) {
+        List<SaleResult> results = new ArrayList<>(lines.size());
+        for (OrderLine line : lines) {
+            results.add(sell(line.getProductName(), line.getQuantity(),
+                    line.getDiscountType(), line.getDiscount()));
+        }
+        return results;
+    }
+
+    /**
+     * Look up a product, take stock for one sale and work out its price.
+     * Timed as one sale, lookup included, like addStock.
+     *
+     * @param productName  The requested product name
+     * @param quantity     How many to sell
+     * @param discountType The requested discount type
+     * @param discount     The discount strategy to apply
+     * @return The result of the sale
+     */
+    private SaleResult sell(String productName, int quantity, String discountType, DiscountStrategy discount) {
+        long start = metrics.start();
+        Product product = lookup(productName);
+        SaleResult result;
+        if (product == null) {
+            result = SaleResult.failed(productName, quantity, discountType, SaleResult.Status.NOT_FOUND, 0);
+        } else if (!product.isInStock() || !product.sell(quantity)) {
+            // Take the stock in one atomic step - checking first and selling
+            // afterwards would let two threads both sell the last items
+            result = SaleResult.failed(product.getName(), quantity, discountType,
+                    SaleResult.Status.INSUFFICIENT_STOCK, product.getQuantity());
+        } else {
+            // Calculate the discount using Strategy Pattern
+            DiscountQuote quote = discount.quote(product, quantity);
+            result = SaleResult.sold(product, quantity, discountType, quote);
+        }
+
+        if (!result.isSuccessful()) {
+            metrics.saleFailed(result.getStatus());
+        }
+        metrics.record(InventoryMetrics.Operation.SELL, start);
+        return result;
     }
 
     /**
@@ -119,11 +583,12 @@ public class InventoryManager {
     public void showInventory() {
         System.out.println("\n=== INVENTORY LIST ===");
 
-        if (products.isEmpty()) {
+        List<Product> all = products.snapshot();
+        if (all.isEmpty()) {
             System.out.println("No products in inventory.");
         } else {
-            for (int i = 0; i < products.size(); i++) {
-                System.out.println((i + 1) + ". " + products.get(i));
+            for (int i = 0; i < all.size(); i++) {
+                System.out.println((i + 1) + ". " + all.get(i));
             }
         }
 
@@ -132,37 +597,247 @@ public class InventoryManager {
 
     /**
      * Get all products of a specific type.
+     * This returns a read-only snapshot of the group kept for that type,
+     * which doesn't copy anything. It holds the products added so far and
+     * doesn't change afterwards, so it is safe to read while products are added.
      *
      * @param type The product type ("Book" or "Electronics")
-     * @return List of products of that type
+     * @return Read-only list of products of that type (empty if there are none)
      */
     public List<Product> getProductsByType(String type) {
-        List<Product> result = new ArrayList<>();
+        ProductType productType = ProductType.of(type);
+        return (productType != null) ? getProductsByType(productType) : Collections.emptyList();
+    }
 
-        for (Product product : products) {
-            if (product.getType().equals(type)) {
-                result.add(product);
-            }
-        }
+    /**
+     * Get all products of a specific type, without looking the type up by name.
+     *
+     * @param type The product type
+     * @return Read-only list of products of that type (empty if there are none)
+     */
+    public List<Product> getProductsByType(ProductType type) {
+        return typeGroup(type).snapshot();
+    }
 
-        return result;
+    /**
+     * Get how many different products of a type we have.
+     *
+     * @param type The product type
+     * @return Number of products of that type
+     */
+    public int getProductCountByType(String type) {
+        ProductType productType = ProductType.of(type);
+        return (productType != null) ? typeGroup(productType).size() : 0;
+    }
+
+    /**
+     * Get the total value of all stock of one product type.
+     * Kept up to date as stock changes, like getTotalInventoryValue.
+     *
+     * @param type The product type
+     * @return Total value of products of that type
+     */
+    public double getInventoryValueByType(String type) {
+        return Money.toDollars(getInventoryValueCentsByType(type));
     }
 
     /**
-     * Get products that are low in stock (5 or fewer items).
+     * Get the total value of all stock of one product type in cents.
      *
-     * @return List of products with low stock
+     * @param type The product type
+     * @return Total value of products of that type, in cents
+     */
+    public long getInventoryValueCentsByType(String type) {
+        ProductType productType = ProductType.of(type);
+        return (productType != null) ? aggregates.getTotalValueCents(productType) : 0;
+    }
+
+    /**
+     * Get the group for a product type.
+     * Only added to while adding products, which is synchronized.
+     */
+    private ProductList typeGroup(ProductType type) {
+        return productsByType[type.ordinal()];
+    }
+
+    /**
+     * Get products that are low in stock (5 or fewer items, unless the
+     * threshold has been changed or the product has its own reorder threshold).
+     * The list is kept up to date as stock changes, so this doesn't scan
+     * the inventory.
+     *
+     * @return List of products with low stock, in the order they were added
      */
     public List<Product> getLowStockProducts() {
-        List<Product> lowStock = new ArrayList<>();
+        return aggregates.getLowStockProducts();
+    }
 
-        for (Product product : products) {
-            if (product.getQuantity() <= 5) {
-                lowStock.add(product);
+    /**
+     * Get the low stock threshold.
+     *
+     * @return Quantity at or below which a product counts as low stock
+     */
+    public int getLowStockThreshold() {
+        return aggregates.getLowStockThreshold();
+    }
+
+    /**
+     * Change the low stock threshold.
+     * This checks every product once against the new threshold.
+     *
+     * @param threshold Quantity at or below which a product counts as low stock
+     */
+    public synchronized void setLowStockThreshold(int threshold) {
+        aggregates.setLowStockThreshold(threshold, products.snapshot());
+    }
+
+    /**
+     * Give one product its own reorder threshold instead of the inventory's
+     * low stock threshold. The product is re-checked straight away, so
+     * listeners hear about it if the new threshold puts it on the other side.
+     *
+     * @param productName Name of the product
+     * @param threshold   Quantity at or below which the product needs reordering,
+     *                    or Product.INVENTORY_THRESHOLD to go back to the inventory's
+     * @return true if the product exists
+     * @throws IllegalArgumentException if the threshold is negative (other than INVENTORY_THRESHOLD)
+     */
+    public boolean setReorderThreshold(String productName, int threshold) {
+        if (threshold < 0 && threshold != Product.INVENTORY_THRESHOLD) {
+            throw new IllegalArgumentException("Reorder threshold cannot be negative: " + threshold);
+        }
+        Product product = lookup(productName);
+        if (product == null) {
+            return false;
+        }
+        product.setReorderThreshold(threshold);
+        aggregates.thresholdChanged(product);
+        return true;
+    }
+
+    /**
+     * Start telling a listener when a product drops to or below its reorder
+     * threshold, and when it is restocked above it again. See LowStockListener.
+     *
+     * @param listener The listener to add
+     */
+    public void addLowStockListener(LowStockListener listener) {
+        aggregates.addListener(listener);
+    }
+
+    /**
+     * Stop telling a listener about low stock.
+     *
+     * @param listener The listener to remove
+     * @return true if it was registered
+     */
+    public boolean removeLowStockListener(LowStockListener listener) {
+        return aggregates.removeListener(listener);
+    }
+
+    /**
+     * Hold items for a checkout. The items leave the sellable stock straight
+     * away and are counted as reserved. Commit the reservation when the
+     * customer pays, or release it if they don't; if neither happens within
+     * the hold time, the items go back into stock on their own.
+     *
+     * Reservations only live in memory. Holding items isn't journaled; the
+     * journal records the sale when a reservation is committed. Snapshots
+     * count held items as still in stock, so after a restart any unfinished
+     * holds are simply back on the shelf.
+     *
+     * @param productName Name of the product
+     * @param quantity    How many items to hold
+     * @param holdMillis  How long to hold them, in milliseconds
+     * @return The reservation, or null if the product doesn't exist or
+     *         there isn't enough stock
+     * @throws IllegalArgumentException if the quantity or hold time isn't positive
+     * @throws IllegalStateException if the inventory has been closed
+     */
+    public Reservation reserve(String productName, int quantity, long holdMillis) {
+        if (quantity <= 0 || holdMillis <= 0) {
+            throw new IllegalArgumentException("Quantity and hold time must be positive");
+        }
+        // Get the wheel first, so a closed inventory throws before any stock is held
+        ReservationWheel wheel = reservationWheel();
+        Product product = lookup(productName);
+        if (product == null || !product.reserve(quantity)) {
+            return null;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(holdMillis);
+        Reservation reservation = new Reservation(nextReservationId.getAndIncrement(), product, quantity, deadline);
+        wheel.schedule(reservation);
+        return reservation;
+    }
+
+    /**
+     * Complete a reservation: the held items are sold.
+     *
+     * @param reservation A reservation from reserve
+     * @return true if it was still held, false if it was already
+     *         committed, released or expired
+     */
+    public boolean commitReservation(Reservation reservation) {
+        return reservation.commit();
+    }
+
+    /**
+     * Cancel a reservation: the held items go back into stock.
+     *
+     * @param reservation A reservation from reserve
+     * @return true if it was still held, false if it was already
+     *         committed, released or expired
+     */
+    public boolean releaseReservation(Reservation reservation) {
+        return reservation.release(Reservation.State.RELEASED);
+    }
+
+    /**
+     * Get how many reservations are waiting to expire. Committed and released
+     * ones count until their hold time would have run out.
+     *
+     * @return The number of reservations the timing wheel is holding
+     */
+    public long getPendingReservationCount() {
+        ReservationWheel wheel = reservationWheel;
+        return (wheel == null) ? 0 : wheel.getPendingCount();
+    }
+
+    /**
+     * Stop the thread that expires reservations. Call this when the
+     * inventory is no longer needed, before saving it. Reservations still
+     * held stay held, and a snapshot counts them as stock.
+     * Reading and selling still work afterwards, but reserve doesn't.
+     */
+    @Override
+    public void close() {
+        synchronized (nextReservationId) {
+            closed = true;
+            ReservationWheel wheel = reservationWheel;
+            if (wheel != null) {
+                wheel.stop();
+                reservationWheel = null;
             }
         }
+    }
 
-        return lowStock;
+    private ReservationWheel reservationWheel() {
+        ReservationWheel wheel = reservationWheel;
+        if (wheel == null) {
+            synchronized (nextReservationId) {
+                if (closed) {
+                    throw new IllegalStateException("Inventory is closed");
+                }
+                wheel = reservationWheel;
+                if (wheel == null) {
+                    wheel = new ReservationWheel(ReservationWheel.DEFAULT_TICK_MILLIS,
+                            ReservationWheel.DEFAULT_WHEEL_SIZE);
+                    reservationWheel = wheel;
+                }
+            }
+        }
+        return wheel;
     }
 
     /**
@@ -173,15 +848,18 @@ public class InventoryManager {
      * @return true if stock was added successfully
      */
     public boolean addStock(String productName, int quantity) {
-        Product product = findProduct(productName);
+        long start = metrics.start();
+        Product product = lookup(productName);
         if (product == null) {
-            System.out.println("Product not found: " + productName);
+            metrics.addStockFailed();
+            metrics.record(InventoryMetrics.Operation.ADD_STOCK, start);
+            events.stockAddFailed(productName, quantity);
             return false;
         }
 
         product.addStock(quantity);
-        System.out.println("Added " + quantity + " items to " + productName +
-                ". New stock: " + product.getQuantity());
+        metrics.record(InventoryMetrics.Operation.ADD_STOCK, start);
+        events.stockAdded(productName, quantity, product.getQuantity());
         return true;
     }
 
@@ -196,26 +874,33 @@ public class InventoryManager {
 
     /**
      * Get the total value of all inventory.
+     * The total is kept up to date as stock and prices change, so this is
+     * a quick read no matter how big the inventory is. It is counted in
+     * whole cents, so it is exact.
      *
      * @return Total value of all products
      */
     public double getTotalInventoryValue() {
-        double total = 0.0;
-
-        for (Product product : products) {
-            total += product.getPrice() * product.getQuantity();
-        }
+        return Money.toDollars(getTotalInventoryValueCents());
+    }
 
-        return total;
+    /**
+     * Get the total value of all inventory in cents.
+     *
+     * @return Total value of all products, in cents
+     */
+    public long getTotalInventoryValueCents() {
+        return aggregates.getTotalValueCents();
     }
 
     /**
      * Show inventory statistics.
      */
     public void showStatistics() {
+        long start = metrics.start();
         System.out.println("\n=== INVENTORY STATISTICS ===");
         System.out.println("Total Products: " + getProductCount());
-        System.out.println("Total Inventory Value: $" + String.format("%.2f", getTotalInventoryValue()));
+        System.out.println("Total Inventory Value: $" + Money.format(getTotalInventoryValueCents()));
 
         List<Product> lowStock = getLowStockProducts();
         System.out.println("Low Stock Items: " + lowStock.size());
@@ -228,5 +913,80 @@ public class InventoryManager {
         }
 
         System.out.println("============================\n");
+        metrics.record(InventoryMetrics.Operation.SHOW_STATISTICS, start);
+    }
+
+    /**
+     * Get the counters and latency histograms for this inventory.
+     * Finds, sales, restocks and statistics screens are timed; the time
+     * spent reporting events to the sink is not included.
+     *
+     * @return The metrics
+     */
+    public InventoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Show operation counts, failure reasons and latencies.
+     */
+    public void showMetrics() {
+        metrics.print(System.out);
+    }
+
+    /**
+     * Passes product changes on to the running totals, the journal, any
+     * followers and the change subscribers.
+     */
+    private final class ProductChanges implements ProductObserver {
+
+        @Override
+        public void stockChanged(Product product, int change, int quantity) {
+            aggregates.stockChanged(product, change, quantity);
+            InventoryJournal current = journal;
+            if (current != null) {
+                current.stockChanged(product, change);
+            }
+            ReplicationLeader leader = replication;
+            if (leader != null) {
+                leader.stockChanged(product, change);
+            }
+            changes.stockChanged(product, change, quantity);
+        }
+
+        @Override
+        public void stockReserved(Product product, int change, int quantity) {
+            // The items are still ours, so there is nothing to journal or replicate
+            aggregates.stockReserved(product, change, quantity);
+            changes.stockChanged(product, -change, quantity);
+        }
+
+        @Override
+        public void reservedSold(Product product, int amount) {
+            // Only now do the items leave the stored stock
+            aggregates.reservedSold(product, amount);
+            InventoryJournal current = journal;
+            if (current != null) {
+                current.stockChanged(product, -amount);
+            }
+            ReplicationLeader leader = replication;
+            if (leader != null) {
+                leader.stockChanged(product, -amount);
+            }
+        }
+
+        @Override
+        public void priceChanged(Product product, long priceCents) {
+            aggregates.priceChanged(product, priceCents);
+            InventoryJournal current = journal;
+            if (current != null) {
+                current.priceChanged(product, priceCents);
+            }
+            ReplicationLeader leader = replication;
+            if (leader != null) {
+                leader.priceChanged(product, priceCents);
+            }
+            changes.priceChanged(product, priceCents);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+// File: src/main/java/inventory/InventoryMetrics.java
+package inventory;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * InventoryMetrics - counts and times what an InventoryManager does.
+ *
+ * For each kind of operation it keeps a latency histogram (which also
+ * counts the operations), and it counts why sales and restocks failed.
+ * Recording doesn't lock or create objects, so it is cheap enough to
+ * leave on; it can still be switched off, which skips reading the clock.
+ *
+ * Each operation is timed as a whole, including looking up its product.
+ * Finds only count calls to findProduct, not the lookups other operations
+ * do for themselves.
+ *
+ * The numbers can be read here, printed with print, or watched over JMX
+ * after calling registerMBean.
+ */
+public class InventoryMetrics implements InventoryMetricsMXBean {
+
+    /**
+     * The operations that are timed.
+     */
+    public enum Operation {
+        FIND("Find product"),
+        SELL("Sell"),
+        ADD_STOCK("Add stock"),
+        SHOW_STATISTICS("Show statistics");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Get the name shown on the metrics screen
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // The name the metrics are registered under in JMX
+    public static final String MBEAN_NAME = "inventory:type=InventoryMetrics";
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder salesNotFound = new LongAdder();
+    private final LongAdder salesInsufficientStock = new LongAdder();
+    private final LongAdder addStockNotFound = new LongAdder();
+    private volatile boolean enabled = true;
+
+    /**
+     * Create metrics with everything at zero.
+     */
+    public InventoryMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Note the time an operation starts.
+     *
+     * @return The start time to pass to record, or 0 if metrics are off
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Count an operation that has finished and record how long it took.
+     *
+     * @param operation The kind of operation
+     * @param start     What start returned when it began
+     */
+    void record(Operation operation, long start) {
+        if (start != 0) {
+            latencies[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Count a sale that didn't go through.
+     *
+     * @param status Why it failed
+     */
+    void saleFailed(SaleResult.Status status) {
+        if (!enabled) {
+            return;
+        }
+        if (status == SaleResult.Status.NOT_FOUND) {
+            salesNotFound.increment();
+        } else if (status == SaleResult.Status.INSUFFICIENT_STOCK) {
+            salesInsufficientStock.increment();
+        }
+    }
+
+    /**
+     * Count a restock of a product that doesn't exist.
+     */
+    void addStockFailed() {
+        if (enabled) {
+            addStockNotFound.increment();
+        }
+    }
+
+    /**
+     * Get the latency histogram of one kind of operation.
+     *
+     * @param operation The kind of operation
+     * @return The histogram (live - it keeps changing)
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    /**
+     * Get how many times an operation ran while metrics were on.
+     *
+     * @param operation The kind of operation
+     * @return The count
+     */
+    public long getCount(Operation operation) {
+        return getLatency(operation).getCount();
+    }
+
+    @Override
+    public long getFindCount() {
+        return getCount(Operation.FIND);
+    }
+
+    @Override
+    public long getSellCount() {
+        return getCount(Operation.SELL);
+    }
+
+    @Override
+    public long getAddStockCount() {
+        return getCount(Operation.ADD_STOCK);
+    }
+
+    @Override
+    public long getShowStatisticsCount() {
+        return getCount(Operation.SHOW_STATISTICS);
+    }
+
+    @Override
+    public long getSalesNotFound() {
+        return salesNotFound.sum();
+    }
+
+    @Override
+    public long getSalesInsufficientStock() {
+        return salesInsufficientStock.sum();
+    }
+
+    @Override
+    public long getAddStockNotFound() {
+        return addStockNotFound.sum();
+    }
+
+    @Override
+    public double getFindP50Micros() {
+        return micros(Operation.FIND, 50);
+    }
+
+    @Override
+    public double getFindP99Micros() {
+        return micros(Operation.FIND, 99);
+    }
+
+    @Override
+    public double getSellP50Micros() {
+        return micros(Operation.SELL, 50);
+    }
+
+    @Override
+    public double getSellP99Micros() {
+        return micros(Operation.SELL, 99);
+    }
+
+    @Override
+    public double getAddStockP50Micros() {
+        return micros(Operation.ADD_STOCK, 50);
+    }
+
+    @Override
+    public double getAddStockP99Micros() {
+        return micros(Operation.ADD_STOCK, 99);
+    }
+
+    @Override
+    public double getShowStatisticsP50Micros() {
+        return micros(Operation.SHOW_STATISTICS, 50);
+    }
+
+    @Override
+    public double getShowStatisticsP99Micros() {
+        return micros(Operation.SHOW_STATISTICS, 99);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram latency : latencies) {
+            latency.reset();
+        }
+        salesNotFound.reset();
+        salesInsufficientStock.reset();
+        addStockNotFound.reset();
+    }
+
+    private double micros(Operation operation, double percentile) {
+        return getLatency(operation).getPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Print a table of counts and latencies.
+     *
+     * @param out Where to print
+     */
+    public void print(PrintStream out) {
+        out.println("\n=== INVENTORY METRICS ===");
+        if (!enabled) {
+            out.println("(metrics are switched off)");
+        }
+        out.printf("%-16s %10s %10s %10s %10s %10s%n",
+                "Operation", "Count", "p50 us", "p99 us", "p99.9 us", "max us");
+        for (Operation operation : OPERATIONS) {
+            LatencyHistogram latency = getLatency(operation);
+            out.printf("%-16s %10d %10.1f %10.1f %10.1f %10.1f%n", operation.getLabel(), latency.getCount(),
+                    latency.getPercentile(50) / 1000.0, latency.getPercentile(99) / 1000.0,
+                    latency.getPercentile(99.9) / 1000.0, latency.getMax() / 1000.0);
+        }
+        out.println("Failed sales - product not found: " + getSalesNotFound());
+        out.println("Failed sales - not enough stock:  " + getSalesInsufficientStock());
+        out.println("Failed restocks - not found:      " + getAddStockNotFound());
+        out.println("=========================\n");
+    }
+
+    /**
+     * Make these metrics visible over JMX under MBEAN_NAME, replacing
+     * whatever was registered there before (such as the metrics of an
+     * inventory that has since been reloaded).
+     *
+     * @throws JMException if the platform MBean server refuses the registration
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MBEAN_NAME);
+        synchronized (InventoryMetrics.class) {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+// File: src/main/java/inventory/InventoryMetricsMXBean.java
+package inventory;
+
+/**
+ * What InventoryMetrics shows over JMX, for tools like JConsole or
+ * VisualVM. Each getter appears as one attribute.
+ *
+ * Latencies are in microseconds.
+ */
+public interface InventoryMetricsMXBean {
+
+    long getFindCount();
+
+    long getSellCount();
+
+    long getAddStockCount();
+
+    long getShowStatisticsCount();
+
+    long getSalesNotFound();
+
+    long getSalesInsufficientStock();
+
+    long getAddStockNotFound();
+
+    double getFindP50Micros();
+
+    double getFindP99Micros();
+
+    double getSellP50Micros();
+
+    double getSellP99Micros();
+
+    double getAddStockP50Micros();
+
+    double getAddStockP99Micros();
+
+    double getShowStatisticsP50Micros();
+
+    double getShowStatisticsP99Micros();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Set every counter and histogram back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,133 @@
+// File: src/main/java/inventory/LatencyHistogram.java
+package inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram - counts how long operations take, cheaply enough to
+ * leave switched on all the time.
+ *
+ * Keeping every measurement and sorting them would give exact percentiles,
+ * but the list grows forever. Instead each measurement just adds one to a
+ * bucket. Buckets get wider as times get longer: every power of two (1-2 us,
+ * 2-4 us, 4-8 us and so on) is split into 16 equal buckets, so a percentile
+ * read back from the histogram is never more than about 6% off, from a few
+ * nanoseconds up to hours.
+ *
+ * Recording is one array increment: no locks and no objects created. Many
+ * threads can record at once. Reading a percentile walks the buckets (about
+ * a thousand of them), which is fine for a statistics screen.
+ */
+public final class LatencyHistogram {
+
+    // Each power of two is split into 2^SUB_BITS buckets
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    // Enough buckets for any non-negative long
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Count one measurement.
+     *
+     * @param nanos How long the operation took, in nanoseconds (negative counts as 0)
+     */
+    public void record(long nanos) {
+        counts.getAndIncrement(bucketOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * Get how many measurements have been recorded.
+     *
+     * @return The number of measurements
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Get a percentile of the recorded times.
+     *
+     * @param percentile Between 0 and 100, for example 99 for the 99th percentile
+     * @return The time in nanoseconds (the top of its bucket), or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        // Copy the counts first, so the total and the walk see the same numbers
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(BUCKETS - 1);
+    }
+
+    /**
+     * Get the longest recorded time.
+     *
+     * @return The time in nanoseconds (the top of its bucket), or 0 if nothing was recorded
+     */
+    public long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) {
+                return highestValueIn(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Forget everything recorded so far.
+     * Measurements recorded while this runs may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Find the bucket for a time.
+     * Small values get a bucket each; larger ones are grouped by their
+     * highest bit and the SUB_BITS bits below it.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the largest value that falls into a bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
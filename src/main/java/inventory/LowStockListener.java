@@ -0,0 +1,41 @@
+// File: src/main/java/inventory/LowStockListener.java
+package inventory;
+
+/**
+ * LowStockListener - gets told when a product needs reordering.
+ *
+ * Instead of checking getLowStockProducts every so often, a replenishment
+ * job can register one of these with InventoryManager.addLowStockListener.
+ * lowStock is called once when a product's stock drops to or below its
+ * reorder threshold, and not again until restocked has been called because
+ * the stock went back above it.
+ *
+ * Products that are already low when they join the inventory haven't
+ * crossed their threshold, so they don't cause a call; use
+ * getLowStockProducts to find those.
+ *
+ * Methods are called on the thread that changed the stock (inside the sale
+ * or restock), so they should be quick - hand real work to another thread.
+ */
+public interface LowStockListener {
+
+    /**
+     * A product's stock dropped to or below its reorder threshold.
+     *
+     * @param product   The product
+     * @param quantity  Its stock when the drop was noticed
+     * @param threshold The threshold it crossed
+     */
+    void lowStock(Product product, int quantity, int threshold);
+
+    /**
+     * A product that was low in stock went back above its reorder threshold.
+     * Does nothing unless overridden.
+     *
+     * @param product   The product
+     * @param quantity  Its stock when the restock was noticed
+     * @param threshold The threshold it crossed
+     */
+    default void restocked(Product product, int quantity, int threshold) {
+    }
+}
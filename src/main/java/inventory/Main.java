@@ -1,7 +1,16 @@
 // File: src/main/java/inventory/Main.java
 package inventory;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Scanner;
+import javax.management.JMException;
 
 /**
  * Main class for the Simple Inventory Management System.
@@ -11,6 +20,40 @@ import java.util.Scanner;
  * - View all products
  * - Sell products with different discounts
  * - View inventory statistics
+ * - View how often each operation ran and how long it took
+ * - Search for products by the start of a name, or a name with typos
+ *
+ * The inventory is saved to a snapshot file on exit and loaded from it
+ * on the next start. Every change is also written to a journal as it
+ * happens, so even if the program crashes, sales and stock changes aren't lost.
+ *
+ * It can also run without prompts, executing a file of commands:
+ *
+ *   java -jar simple-inventory.jar --batch commands.txt [--verbose]
+ *
+ * Use "-" as the file name to read commands from standard input. See
+ * CommandRunner for the command format. Batch mode starts from an empty
+ * inventory and doesn't touch the snapshot or journal, so the same file
+ * always gives the same result.
+ *
+ * Or it can serve the inventory over HTTP (see InventoryHttpServer):
+ *
+ *   java -jar simple-inventory.jar --serve [port]
+ *
+ * The server uses the saved inventory and journal just like the menu does,
+ * and saves the inventory when it is stopped.
+ *
+ * Several servers can share one inventory: one leader takes the changes
+ * and streams them to followers, which answer reads from their own copy
+ * (see ReplicationLeader and ReplicationFollower):
+ *
+ *   java -jar simple-inventory.jar --serve 8080 --leader 9090
+ *   java -jar simple-inventory.jar --serve 8081 --follow localhost:9090
+ *
+ * In the menu and the server, the inventory's metrics are also published
+ * over JMX as inventory:type=InventoryMetrics, for JConsole or VisualVM.
+ * If there is a discount-rules.txt file, its promotions become discount
+ * types (see DiscountRuleEngine), and edits to it are picked up while running.
  *
  * This demonstrates how the Factory and Strategy patterns work together
  * in a real application.
@@ -23,16 +66,48 @@ public class Main {
     // Our inventory manager
     private static InventoryManager inventory = new InventoryManager();
 
+    // Where the inventory is saved between runs
+    private static final Path SNAPSHOT_FILE = Paths.get("inventory.snapshot");
+
+    // Where changes since the last snapshot are recorded
+    private static final Path JOURNAL_FILE = Paths.get("inventory.journal");
+    private static InventoryJournal journal;
+
+    // The journal generation the loaded snapshot was saved with (0 if none)
+    private static long snapshotGeneration;
+
+    // Promotions defined outside the code, and how often to check them for edits
+    private static final Path DISCOUNT_RULES_FILE = Paths.get("discount-rules.txt");
+    private static final long RULES_CHECK_MILLIS = 2000;
+
     /**
      * Main method - this is where the program starts.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args);
+            return;
+        }
+        if (args.length > 0) {
+            runBatch(args);
+            return;
+        }
+
         System.out.println("=== WELCOME TO SIMPLE INVENTORY SYSTEM ===");
         System.out.println("This system demonstrates Factory and Strategy patterns");
         System.out.println();
 
-        // Add some sample products to start with
-        addSampleProducts();
+        // Load the saved inventory and any changes made after it was saved
+        loadSnapshot();
+        replayJournal();
+
+        // Record every change from now on, then add sample products if we have none
+        openJournal();
+        if (inventory.getProductCount() == 0) {
+            addSampleProducts();
+        }
+        registerMetrics();
+        loadDiscountRules();
 
         // Show the main menu
         boolean running = true;
@@ -57,6 +132,13 @@ public class Main {
                     viewStatistics();
                     break;
                 case 6:
+                    viewMetrics();
+                    break;
+                case 7:
+                    searchProducts();
+                    break;
+                case 8:
+                    saveSnapshot();
                     System.out.println("Thank you for using the Inventory System!");
                     running = false;
                     break;
@@ -68,6 +150,141 @@ public class Main {
         scanner.close();
     }
 
+    /**
+     * Serve the inventory over HTTP until the program is stopped.
+     * Events are printed by a background thread, so request threads
+     * never wait for the console.
+     *
+     * With --leader, changes are also streamed to followers on another port.
+     * With --follow, the inventory is a read-only copy of a leader's: it
+     * starts empty, ignores the snapshot and journal, and the server refuses
+     * sell and restock.
+     */
+    private static void runServer(String[] args) {
+        String usage = "Usage: --serve [port] [--leader <replication port> | --follow <host>:<port>]";
+        int port = 8080;
+        int leaderPort = -1;
+        String followHost = null;
+        int followPort = -1;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--leader") && i + 1 < args.length) {
+                    leaderPort = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--follow") && i + 1 < args.length) {
+                    String address = args[++i];
+                    int colon = address.lastIndexOf(':');
+                    if (colon <= 0) {
+                        throw new NumberFormatException(address);
+                    }
+                    followHost = address.substring(0, colon);
+                    followPort = Integer.parseInt(address.substring(colon + 1));
+                } else {
+                    port = Integer.parseInt(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println(usage);
+            System.exit(2);
+        }
+        if (leaderPort >= 0 && followHost != null) {
+            System.out.println(usage);
+            System.exit(2);
+        }
+        boolean follower = followHost != null;
+
+        if (!follower) {
+            loadSnapshot();
+            replayJournal();
+            openJournal();
+            if (inventory.getProductCount() == 0) {
+                addSampleProducts();
+            }
+        }
+        registerMetrics();
+        loadDiscountRules();
+
+        AsyncEventSink events = new AsyncEventSink();
+        inventory.setEventSink(events);
+        InventoryHttpServer server;
+        ReplicationLeader leader = null;
+        ReplicationFollower following = null;
+        try {
+            if (leaderPort >= 0) {
+                leader = new ReplicationLeader(inventory, leaderPort);
+                System.out.println("Streaming changes to followers on port " + leader.getPort());
+            }
+            if (follower) {
+                following = new ReplicationFollower(inventory, followHost, followPort);
+                System.out.println("Following " + followHost + ":" + followPort);
+            }
+            server = new InventoryHttpServer(inventory, port);
+            server.setReadOnly(follower);
+        } catch (IOException e) {
+            System.out.println("Could not start server: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        // Save the inventory when the server is stopped (Ctrl+C or docker stop).
+        // A follower's copy lives on the leader, so it isn't saved.
+        AutoCloseable replication = (leader != null) ? leader : following;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            if (replication != null) {
+                try {
+                    replication.close();
+                } catch (Exception e) {
+                    // Stopping anyway
+                }
+            }
+            events.close();
+            if (!follower) {
+                saveSnapshot();
+            }
+        }));
+
+        server.start();
+        System.out.println("Serving inventory on http://localhost:" + server.getPort()
+                + (server.usesVirtualThreads() ? " (virtual threads)" : " (thread pool)")
+                + (follower ? ", read only" : ""));
+    }
+
+    /**
+     * Run a file of commands without prompts and print a summary.
+     * Per-product messages are only printed with --verbose, so printing
+     * doesn't slow the run down.
+     */
+    private static void runBatch(String[] args) {
+        String file = null;
+        boolean verbose = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch") && i + 1 < args.length) {
+                file = args[++i];
+            } else if (args[i].equals("--verbose")) {
+                verbose = true;
+            } else {
+                file = null;
+                break;
+            }
+        }
+        if (file == null) {
+            System.out.println("Usage: --batch <command file, or - for standard input> [--verbose]");
+            System.exit(2);
+        }
+
+        InventoryEventSink events = verbose ? new ConsoleEventSink() : NoOpEventSink.INSTANCE;
+        InventoryManager batchInventory = new InventoryManager(events);
+        CommandRunner runner = new CommandRunner(batchInventory, System.err);
+        try (Reader input = file.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            runner.run(input).print(System.out);
+        } catch (IOException e) {
+            System.out.println("Could not read commands: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
     /**
      * Show the main menu options.
      */
@@ -78,8 +295,14 @@ public class Main {
         System.out.println("3. Sell Product");
         System.out.println("4. Add Stock");
         System.out.println("5. View Statistics");
-        System.out.println("6. Exit");
+        System.out.println("6. View Metrics");
+        System.out.println("7. Search Products");
+        System.out.println("8. Exit");
         System.out.println("==================");
+        if (journal != null && journal.getFailure() != null) {
+            System.out.println("Warning: the journal stopped (" + journal.getFailure().getMessage()
+                    + "), changes are only saved on exit");
+        }
     }
 
     /**
@@ -147,11 +370,13 @@ public class Main {
 
         // Get discount type
         int discountChoice = getIntInput("Choose discount type (1-" + discountTypes.length + "): ");
+        String discountType;
         if (discountChoice < 1 || discountChoice > discountTypes.length) {
             System.out.println("Invalid choice. Using no discount.");
-            discountChoice = 3; // No discount
+            discountType = DiscountCalculator.NO_DISCOUNT;  // By name - promotions can change the list
+        } else {
+            discountType = discountTypes[discountChoice - 1];
         }
-        String discountType = discountTypes[discountChoice - 1];
 
         // Process the sale using Strategy Pattern
         inventory.sellProduct(productName, quantity, discountType);
@@ -174,6 +399,30 @@ public class Main {
         System.out.println();
     }
 
+    /**
+     * Search for products by the start of their name, and if nothing
+     * starts with that, by names that are spelled almost the same.
+     */
+    private static void searchProducts() {
+        System.out.println("\n=== SEARCH PRODUCTS ===");
+        String text = getStringInput("Enter part of a product name: ");
+
+        List<Product> found = inventory.searchByPrefix(text, 10);
+        if (found.isEmpty()) {
+            found = inventory.searchSimilar(text, 2, 10);
+            if (!found.isEmpty()) {
+                System.out.println("Nothing starts with \"" + text + "\". Did you mean:");
+            }
+        }
+        if (found.isEmpty()) {
+            System.out.println("No matching products.");
+        }
+        for (Product product : found) {
+            System.out.println("  " + product);
+        }
+        System.out.println();
+    }
+
     /**
      * View inventory statistics.
      */
@@ -181,6 +430,142 @@ public class Main {
         inventory.showStatistics();
     }
 
+    /**
+     * View operation counts and latencies.
+     */
+    private static void viewMetrics() {
+        inventory.showMetrics();
+    }
+
+    /**
+     * Publish the inventory's metrics over JMX.
+     * Done after loading, because loading a snapshot replaces the inventory.
+     */
+    private static void registerMetrics() {
+        try {
+            inventory.getMetrics().registerMBean();
+        } catch (JMException e) {
+            System.out.println("Could not publish metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load the discount rules file, if there is one, and keep checking it
+     * for edits on a background thread.
+     */
+    private static void loadDiscountRules() {
+        if (!Files.exists(DISCOUNT_RULES_FILE)) {
+            return;
+        }
+        DiscountRuleEngine rules = new DiscountRuleEngine(DISCOUNT_RULES_FILE);
+        try {
+            System.out.println("Loaded " + rules.reload() + " discount rules from " + DISCOUNT_RULES_FILE);
+        } catch (IOException e) {
+            System.out.println("Could not load discount rules: " + e.getMessage());
+        }
+
+        Thread watcher = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(RULES_CHECK_MILLIS);
+                    if (rules.reloadIfChanged()) {
+                        System.out.println("Reloaded " + rules.getRuleCount() + " discount rules");
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    // Keep the old rules until the file is fixed
+                    System.out.println("Could not reload discount rules: " + e.getMessage());
+                }
+            }
+        }, "discount-rules-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Load the inventory saved by the last run, if there is one.
+     *
+     * @return true if a saved inventory was loaded
+     */
+    private static boolean loadSnapshot() {
+        if (!Files.exists(SNAPSHOT_FILE)) {
+            return false;
+        }
+        try {
+            inventory = InventorySnapshot.load(SNAPSHOT_FILE, new ConsoleEventSink());
+            snapshotGeneration = InventorySnapshot.readJournalGeneration(SNAPSHOT_FILE);
+            System.out.println("Loaded " + inventory.getProductCount() + " products from " + SNAPSHOT_FILE);
+            System.out.println();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Could not load saved inventory: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Apply changes recorded in the journal since the last snapshot.
+     * If the journal can't be replayed the program stops, rather than
+     * start with a wrong inventory and record new changes after ones that
+     * can never be applied.
+     */
+    private static void replayJournal() {
+        try {
+            int changes = InventoryJournal.replay(JOURNAL_FILE, inventory, snapshotGeneration);
+            if (changes > 0) {
+                System.out.println("Recovered " + changes + " changes from " + JOURNAL_FILE);
+                System.out.println();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not replay journal: " + e.getMessage());
+            System.out.println("Move " + JOURNAL_FILE + " aside (or fix " + SNAPSHOT_FILE + ") and start again.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Start recording every change in the journal. A journal older than the
+     * snapshot only holds changes the snapshot has, so it is emptied first.
+     */
+    private static void openJournal() {
+        try {
+            journal = new InventoryJournal(JOURNAL_FILE, InventoryJournal.Mode.SYNC);
+            if (journal.getGeneration() < snapshotGeneration) {
+                journal.reset(snapshotGeneration);
+            }
+            inventory.setJournal(journal);
+        } catch (IOException e) {
+            System.out.println("Could not open journal, changes won't survive a crash: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save the inventory so the next run can carry on where this one stopped.
+     * Only called once nothing else is changing the inventory.
+     *
+     * The snapshot is marked with the next journal generation, and once it
+     * is safely written the journal is emptied and moved to that generation.
+     * If the program dies in between, the next run sees that the journal is
+     * older than the snapshot and skips it rather than apply it twice.
+     */
+    private static void saveSnapshot() {
+        // Stop expiring reservations first, so the stock stays put while it is saved
+        inventory.close();
+        try {
+            long generation = ((journal != null) ? journal.getGeneration()
+                    : InventoryJournal.readGeneration(JOURNAL_FILE)) + 1;
+            InventorySnapshot.save(inventory, SNAPSHOT_FILE, generation);
+            System.out.println("Inventory saved to " + SNAPSHOT_FILE);
+            if (journal != null) {
+                journal.reset(generation);
+                journal.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Could not save inventory: " + e.getMessage());
+        }
+    }
+
     /**
      * Add some sample products to demonstrate the system.
      */
@@ -0,0 +1,166 @@
+// File: src/main/java/inventory/Money.java
+package inventory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money - helpers for amounts held as whole cents in a long.
+ *
+ * A double can't store most prices exactly (0.10 is really
+ * 0.1000000000000000055...), so adding up many of them drifts by a cent
+ * here and there. Whole cents in a long are exact, fast to add and
+ * multiply, and don't create any objects.
+ *
+ * Rounding policy: whenever an amount has to be rounded to the cent, it is
+ * rounded half up (0.5 cents becomes 1 cent). That happens in two places:
+ * - when a price given as a double is turned into cents
+ * - when a percentage discount is worked out, once per sale line on the
+ *   line total (not per item)
+ */
+public final class Money {
+
+    // How amounts are rounded to the cent
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    public static final int CENTS_PER_DOLLAR = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Turn a dollar amount into cents, rounding half up.
+     * 1.005 becomes 101 cents, even though 1.005 * 100 as a double is 100.4999...
+     *
+     * @param dollars The amount in dollars
+     * @return The amount in cents
+     * @throws IllegalArgumentException if the amount is not a finite number
+     */
+    public static long toCents(double dollars) {
+        if (Double.isNaN(dollars) || Double.isInfinite(dollars)) {
+            throw new IllegalArgumentException("Not a money amount: " + dollars);
+        }
+        // BigDecimal.valueOf uses the shortest decimal that reads back as this double
+        return BigDecimal.valueOf(dollars).setScale(2, ROUNDING).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Turn cents into dollars, for display or for older code that works in doubles.
+     *
+     * @param cents The amount in cents
+     * @return The amount in dollars
+     */
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Multiply a unit price by a quantity.
+     *
+     * @param cents    The unit price in cents
+     * @param quantity How many items
+     * @return The total in cents
+     * @throws ArithmeticException if the total doesn't fit in a long
+     */
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, (long) quantity);
+    }
+
+    /**
+     * Work out a percentage of an amount, rounding half up to the cent.
+     *
+     * @param cents   The amount in cents (not negative)
+     * @param percent The percentage, like 10 for 10%
+     * @return The percentage of the amount, in cents
+     */
+    public static long percentOf(long cents, int percent) {
+        // Adding half the divisor before dividing rounds half up
+        return (Math.multiplyExact(cents, (long) percent) + 50) / 100;
+    }
+
+    /**
+     * Read a dollar amount like "29.99" straight into cents, without going
+     * through a double. More than two decimals are rounded half up.
+     *
+     * @param text The amount, with an optional sign and decimal point
+     * @return The amount in cents
+     * @throws NumberFormatException if the text isn't a plain decimal number
+     */
+    public static long parseCents(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long cents = 0;
+        int digits = 0;
+        int decimals = -1;       // -1 until we see the decimal point
+        boolean roundUp = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+                if (decimals < 0) {
+                    cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+                } else if (decimals < 2) {
+                    cents = cents * 10 + (c - '0');
+                    decimals++;
+                } else {
+                    if (decimals == 2) {
+                        roundUp = c >= '5';   // Only the third decimal decides
+                    }
+                    decimals = 3;
+                }
+            } else {
+                throw new NumberFormatException("Not a money amount: \"" + text + "\"");
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a money amount: \"" + text + "\"");
+        }
+
+        // Scale to cents if fewer than two decimals were given
+        for (int scale = Math.max(decimals, 0); scale < 2; scale++) {
+            cents = Math.multiplyExact(cents, 10);
+        }
+        if (roundUp) {
+            cents++;
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Format cents as dollars with two decimals, like "1234.50".
+     *
+     * @param cents The amount in cents
+     * @return The formatted amount (without a $ sign)
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+
+    /**
+     * Append cents as dollars with two decimals, like "1234.50".
+     *
+     * @param text  Where to append
+     * @param cents The amount in cents
+     * @return The same StringBuilder
+     */
+    public static StringBuilder appendTo(StringBuilder text, long cents) {
+        if (cents < 0) {
+            text.append('-');
+        }
+        long abs = Math.abs(cents);
+        long part = abs % CENTS_PER_DOLLAR;
+        text.append(abs / CENTS_PER_DOLLAR).append('.');
+        if (part < 10) {
+            text.append('0');
+        }
+        return text.append(part);
+    }
+}
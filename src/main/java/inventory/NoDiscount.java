@@ -0,0 +1,29 @@
+// File: src/main/java/inventory/NoDiscount.java
+package inventory;
+
+/**
+ * No discount - the customer pays full price.
+ * Also used for discount types nobody has registered.
+ */
+public class NoDiscount implements DiscountStrategy {
+
+    @Override
+    public String getName() {
+        return DiscountCalculator.NO_DISCOUNT;
+    }
+
+    @Override
+    public double calculateDiscount(Product product, int quantity) {
+        return 0.0;
+    }
+
+    @Override
+    public long calculateDiscountCents(Product product, int quantity) {
+        return 0;
+    }
+
+    @Override
+    public String describe(double discount) {
+        return "No discount applied";
+    }
+}
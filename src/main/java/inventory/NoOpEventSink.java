@@ -0,0 +1,36 @@
+// File: src/main/java/inventory/NoOpEventSink.java
+package inventory;
+
+/**
+ * An event sink that ignores every event.
+ * Useful for bulk loading, tests and benchmarks where nobody reads the output.
+ */
+public class NoOpEventSink implements InventoryEventSink {
+
+    // There's nothing to configure, so one shared instance is enough
+    public static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    @Override
+    public void productAdded(Product product) {
+    }
+
+    @Override
+    public void productAddFailed(String name, String reason) {
+    }
+
+    @Override
+    public void saleCompleted(SaleResult result) {
+    }
+
+    @Override
+    public void saleFailed(SaleResult result) {
+    }
+
+    @Override
+    public void stockAdded(String productName, int quantity, int newStock) {
+    }
+
+    @Override
+    public void stockAddFailed(String productName, int quantity) {
+    }
+}
@@ -0,0 +1,82 @@
+// File: src/main/java/inventory/OrderLine.java
+package inventory;
+
+/**
+ * One line of a customer order: which product, how many, and which discount.
+ *
+ * A whole order is a list of these, which can be sold in one go with
+ * InventoryManager.sellProducts.
+ */
+public class OrderLine {
+
+    private final String productName;   // Name of the product to sell
+    private final int quantity;         // How many to sell
+    private final String discountType;  // Which discount to apply ("Student", "Bulk", "None" or "Best")
+    private final DiscountStrategy discount;  // The strategy for that discount type
+
+    /**
+     * Create a new order line.
+     * The discount type is looked up here, once, rather than when the line is sold.
+     *
+     * @param productName  Name of the product to sell
+     * @param quantity     How many to sell
+     * @param discountType What type of discount to apply
+     */
+    public OrderLine(String productName, int quantity, String discountType) {
+        this.productName = productName;
+        this.quantity = quantity;
+        this.discountType = discountType;
+        this.discount = DiscountCalculator.resolve(discountType);
+    }
+
+    /**
+     * Create a new order line with a discount strategy that was already looked up.
+     *
+     * @param productName Name of the product to sell
+     * @param quantity    How many to sell
+     * @param discount    The discount strategy to apply
+     */
+    public OrderLine(String productName, int quantity, DiscountStrategy discount) {
+        this.productName = productName;
+        this.quantity = quantity;
+        this.discountType = discount.getName();
+        this.discount = discount;
+    }
+
+    /**
+     * Get the name of the product to sell
+     * @return the product name
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * Get how many items to sell
+     * @return the quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the discount type for this line
+     * @return the discount type
+     */
+    public String getDiscountType() {
+        return discountType;
+    }
+
+    /**
+     * Get the discount strategy for this line
+     * @return the discount strategy
+     */
+    public DiscountStrategy getDiscount() {
+        return discount;
+    }
+
+    @Override
+    public String toString() {
+        return quantity + " x " + productName + " (" + discountType + ")";
+    }
+}
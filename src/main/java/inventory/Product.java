@@ -1,34 +1,95 @@
 // File: src/main/java/inventory/Product.java
 package inventory;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * Simple Product class to represent items in our inventory.
  * This class keeps track of basic product information like name, price, and quantity.
  *
  * We use this class for both books and electronics - it's simple and flexible.
+ *
+ * Products are safe to use from several threads at once: stock changes use
+ * compare-and-set with retry instead of locks, so two checkouts can never
+ * both take the last item.
+ *
+ * Prices are kept as whole cents (see Money), so totals never drift.
+ * getPrice and setPrice still work in dollars for convenience.
+ *
+ * Items can also be reserved for a checkout that hasn't finished yet
+ * (see InventoryManager.reserve). Reserved items are taken out of the
+ * quantity, so nobody else can sell them, and counted separately until the
+ * checkout is completed or the reservation is released. Holds only live in
+ * memory, so the stock that is saved or journaled counts reserved items as
+ * still in stock (see getStoredQuantity): after a restart they are simply
+ * back on the shelf.
+ *
+ * A product can have its own reorder threshold. While it has none, the
+ * inventory's low stock threshold applies (see InventoryManager.setReorderThreshold).
  */
 public class Product {
 
+    // Use the inventory's low stock threshold instead of one of the product's own
+    public static final int INVENTORY_THRESHOLD = -1;
+
+    // Lets us do atomic compare-and-set on the quantity, reserved and reorder level fields
+    private static final VarHandle QUANTITY;
+    private static final VarHandle RESERVED;
+    private static final VarHandle BELOW_REORDER_LEVEL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            QUANTITY = lookup.findVarHandle(Product.class, "quantity", int.class);
+            RESERVED = lookup.findVarHandle(Product.class, "reserved", int.class);
+            BELOW_REORDER_LEVEL = lookup.findVarHandle(Product.class, "belowReorderLevel", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     // Basic product information
-    private String name;        // Product name (like "Java Programming Book")
-    private String type;        // Product type ("Book" or "Electronics")
-    private double price;       // How much it costs
-    private int quantity;       // How many we have in stock
+    private String name;              // Product name (like "Java Programming Book")
+    private ProductType type;         // Product type (Book or Electronics)
+    private volatile long priceCents; // How much it costs, in cents
+    private volatile int quantity;    // How many we have in stock and can sell
+    private volatile int reserved;    // How many are held for unfinished checkouts
+    private volatile int reorderThreshold = INVENTORY_THRESHOLD;  // Low stock at or below this
+
+    // Bookkeeping used by the inventory that holds this product
+    private int id = -1;                        // Position in the inventory, -1 if not in one
+    private volatile ProductObserver observer;  // Told about every price or stock change
+    volatile long valueContribution;            // Value last added to the inventory total, in cents
+    private volatile boolean belowReorderLevel; // Low stock alert sent and not yet cleared by a restock
 
     /**
      * Constructor to create a new product.
      * This is like filling out a form with product details.
      *
      * @param name     What the product is called
-     * @param type     What kind of product it is
+     * @param type     What kind of product it is ("Book" or "Electronics")
      * @param price    How much it costs
      * @param quantity How many we have
+     * @throws IllegalArgumentException if the type is unknown
      */
     public Product(String name, String type, double price, int quantity) {
+        this(name, ProductType.require(type), price, quantity);
+    }
+
+    /**
+     * Constructor to create a new product of a type that is already resolved.
+     *
+     * @param name     What the product is called
+     * @param type     What kind of product it is
+     * @param price    How much it costs
+     * @param quantity How many we have
+     */
+    public Product(String name, ProductType type, double price, int quantity) {
         // Set the product information
         this.name = name;
         this.type = type;
-        this.price = price;
+        this.priceCents = Money.toCents(price);
         this.quantity = quantity;
     }
 
@@ -44,36 +105,93 @@ public class Product {
 
     /**
      * Get the product type
-     * @return the type (Book or Electronics)
+     * @return the type name (Book or Electronics)
      */
     public String getType() {
+        return type.getName();
+    }
+
+    /**
+     * Get the product type as a ProductType, for quick comparisons
+     * @return the type
+     */
+    public ProductType getProductType() {
         return type;
     }
 
     /**
      * Get the product price
-     * @return how much the product costs
+     * @return how much the product costs, in dollars
      */
     public double getPrice() {
-        return price;
+        return Money.toDollars(getPriceCents());
+    }
+
+    /**
+     * Get the product price in cents
+     * @return how much the product costs, in cents
+     */
+    public long getPriceCents() {
+        return priceCents;
     }
 
     /**
      * Get how many items we have
-     * @return the quantity in stock
+     * @return the quantity in stock, not counting reserved items
      */
     public int getQuantity() {
         return quantity;
     }
 
+    /**
+     * Get how many items are held for checkouts that haven't finished
+     * @return the reserved quantity
+     */
+    public int getReservedQuantity() {
+        return reserved;
+    }
+
+    /**
+     * Get how many items to save for a restart: the stock plus the reserved
+     * items, because reservations don't survive a restart.
+     * @return the quantity in stock, counting reserved items
+     */
+    int getStoredQuantity() {
+        return quantity + reserved;
+    }
+
+    /**
+     * Get the product's own reorder threshold
+     * @return the threshold, or INVENTORY_THRESHOLD if the inventory's low stock threshold applies
+     */
+    public int getReorderThreshold() {
+        return reorderThreshold;
+    }
+
     // Setter methods - these let us change the product information
 
     /**
      * Change the product price
-     * @param price the new price
+     * @param price the new price in dollars (rounded half up to the cent)
      */
     public void setPrice(double price) {
-        this.price = price;
+        setPriceCents(Money.toCents(price));
+    }
+
+    /**
+     * Change the product price
+     * @param priceCents the new price in cents
+     */
+    public void setPriceCents(long priceCents) {
+        // Prices are recorded as the new value, not a change, so one price
+        // change at a time: the price that stays is the one recorded last
+        synchronized (this) {
+            this.priceCents = priceCents;
+            ProductObserver current = observer;
+            if (current != null) {
+                current.priceChanged(this, priceCents);
+            }
+        }
     }
 
     /**
@@ -81,7 +199,8 @@ public class Product {
      * @param quantity the new quantity
      */
     public void setQuantity(int quantity) {
-        this.quantity = quantity;
+        int previous = (int) QUANTITY.getAndSet(this, quantity);
+        stockChanged(quantity - previous, quantity);
     }
 
     /**
@@ -98,22 +217,148 @@ public class Product {
      * @return true if we had enough stock, false if not enough
      */
     public boolean sell(int amount) {
-        // Check if we have enough items
-        if (amount > quantity) {
+        int left = take(amount);
+        if (left < 0) {
             return false; // Not enough stock
         }
-
-        // Reduce the quantity
-        quantity = quantity - amount;
+        stockChanged(-amount, left);
         return true; // Sale successful
     }
 
+    /**
+     * Take items out of the quantity, without telling anyone
+     * @param amount how many items to take
+     * @return how many items this left, or -1 if there weren't enough
+     */
+    private int take(int amount) {
+        while (true) {
+            int current = quantity;
+
+            // Check if we have enough items
+            if (amount > current) {
+                return -1;
+            }
+
+            // Reduce the quantity, unless another thread changed it first
+            if (QUANTITY.compareAndSet(this, current, current - amount)) {
+                return current - amount;
+            }
+            // Someone else got in between - read the new quantity and try again
+        }
+    }
+
     /**
      * Add more items to stock
      * @param amount how many items to add
      */
     public void addStock(int amount) {
-        quantity = quantity + amount;
+        int previous = (int) QUANTITY.getAndAdd(this, amount);
+        stockChanged(amount, previous + amount);
+    }
+
+    // Reservations - only used by Reservation
+
+    /**
+     * Move items from the sellable stock to the reserved count
+     * @param amount how many items to hold
+     * @return true if we had enough stock, false if not enough
+     */
+    boolean reserve(int amount) {
+        int left = take(amount);
+        if (left < 0) {
+            return false;
+        }
+        RESERVED.getAndAdd(this, amount);
+        ProductObserver current = observer;
+        if (current != null) {
+            current.stockReserved(this, amount, left);
+        }
+        return true;
+    }
+
+    /**
+     * Reserved items were bought - they just stop being reserved
+     * @param amount how many items were bought
+     */
+    void commitReserved(int amount) {
+        RESERVED.getAndAdd(this, -amount);
+        ProductObserver current = observer;
+        if (current != null) {
+            current.reservedSold(this, amount);
+        }
+    }
+
+    /**
+     * Reserved items weren't bought - put them back in stock
+     * @param amount how many items to put back
+     */
+    void releaseReserved(int amount) {
+        int previous = (int) QUANTITY.getAndAdd(this, amount);
+        RESERVED.getAndAdd(this, -amount);
+        ProductObserver current = observer;
+        if (current != null) {
+            current.stockReserved(this, -amount, previous + amount);
+        }
+    }
+
+    // Inventory bookkeeping - only used by classes in this package
+
+    /**
+     * Get this product's position in its inventory
+     * @return the id, or -1 if the product isn't in an inventory
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Attach this product to an inventory.
+     * @param id       the product's position in the inventory
+     * @param observer who to tell about price and stock changes
+     */
+    void attach(int id, ProductObserver observer) {
+        this.id = id;
+        this.observer = observer;
+    }
+
+    /**
+     * Change the product's own reorder threshold. Only used by
+     * InventoryManager, which then re-checks the product against it.
+     * @param threshold the threshold, or INVENTORY_THRESHOLD to use the inventory's
+     */
+    void setReorderThreshold(int threshold) {
+        this.reorderThreshold = threshold;
+    }
+
+    /**
+     * Record that the product has gone below (or back above) its reorder
+     * level. Only one thread can make each change, so only one alert is sent.
+     * @param below true if the stock is now at or below the threshold
+     * @return true if this call made the change, false if it was already so
+     */
+    boolean markBelowReorderLevel(boolean below) {
+        return BELOW_REORDER_LEVEL.compareAndSet(this, !below, below);
+    }
+
+    /**
+     * Set whether the product is below its reorder level without it counting
+     * as a change, for products that have just joined an inventory.
+     * @param below true if the stock is at or below the threshold
+     */
+    void initBelowReorderLevel(boolean below) {
+        this.belowReorderLevel = below;
+    }
+
+    /**
+     * Tell the observer (if any) that the stock changed.
+     * @param change   how many items were added (negative if taken away)
+     * @param quantity the stock the change left
+     */
+    private void stockChanged(int change, int quantity) {
+        ProductObserver current = observer;
+        if (current != null) {
+            current.stockChanged(this, change, quantity);
+        }
     }
 
     /**
@@ -122,7 +367,7 @@ public class Product {
      */
     @Override
     public String toString() {
-        return String.format("%s (%s) - $%.2f [Stock: %d]",
-                name, type, price, quantity);
+        return String.format("%s (%s) - $%s [Stock: %d]",
+                name, type, Money.format(priceCents), quantity);
     }
 }
\ No newline at end of file
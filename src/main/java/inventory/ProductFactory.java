@@ -10,6 +10,8 @@ package inventory;
  * knows how to make it.
  *
  * This factory creates two types of products: Books and Electronics.
+ * A type name is turned into a ProductType once, here, so the rest of the
+ * code can compare types without comparing strings.
  */
 public class ProductFactory {
 
@@ -24,7 +26,7 @@ public class ProductFactory {
      */
     public static Product createBook(String name, double price, int quantity) {
         // Create a new product with type "Book"
-        Product book = new Product(name, "Book", price, quantity);
+        Product book = new Product(name, ProductType.BOOK, price, quantity);
 
         // We could add book-specific logic here if needed
         // For example, books might have a minimum price
@@ -46,7 +48,7 @@ public class ProductFactory {
      */
     public static Product createElectronics(String name, double price, int quantity) {
         // Create a new product with type "Electronics"
-        Product electronics = new Product(name, "Electronics", price, quantity);
+        Product electronics = new Product(name, ProductType.ELECTRONICS, price, quantity);
 
         // Electronics might have special business rules
         // For example, electronics might have a minimum price
@@ -66,19 +68,54 @@ public class ProductFactory {
      * @param price    The product price
      * @param quantity The initial quantity
      * @return A new Product of the specified type
+     * @throws IllegalArgumentException if the type is unknown
      */
     public static Product createProduct(String type, String name, double price, int quantity) {
+        // If we don't know the type, ProductType.require throws an error
+        return createProduct(ProductType.require(type), name, price, quantity);
+    }
+
+    /**
+     * Create a product of a type that has already been looked up.
+     * Saves finding the type again when creating many products.
+     *
+     * @param type     The type of product
+     * @param name     The product name
+     * @param price    The product price
+     * @param quantity The initial quantity
+     * @return A new Product of the specified type
+     */
+    public static Product createProduct(ProductType type, String name, double price, int quantity) {
         // Check what type of product to create
-        if (type.equals("Book")) {
-            return createBook(name, price, quantity);
-        } else if (type.equals("Electronics")) {
-            return createElectronics(name, price, quantity);
-        } else {
-            // If we don't know the type, throw an error
-            throw new IllegalArgumentException("Unknown product type: " + type);
+        switch (type) {
+            case BOOK:
+                return createBook(name, price, quantity);
+            case ELECTRONICS:
+                return createElectronics(name, price, quantity);
+            default:
+                throw new IllegalArgumentException("Unknown product type: " + type);
         }
     }
 
+    /**
+     * Create a product whose price is already in cents, such as a price
+     * read from a file with Money.parseCents. The same minimum prices apply.
+     *
+     * @param type       The type of product
+     * @param name       The product name
+     * @param priceCents The product price, in cents
+     * @param quantity   The initial quantity
+     * @return A new Product of the specified type
+     */
+    public static Product createProductCents(ProductType type, String name, long priceCents, int quantity) {
+        // Start from the type's minimum price, then use the real price if it is higher
+        Product product = createProduct(type, name, 0.0, quantity);
+        if (priceCents > product.getPriceCents()) {
+            product.setPriceCents(priceCents);
+        }
+        return product;
+    }
+
     /**
      * Helper method to check if a product type is valid.
      * This is useful for validating user input.
@@ -87,7 +124,7 @@ public class ProductFactory {
      * @return true if the type is valid, false otherwise
      */
     public static boolean isValidType(String type) {
-        return type.equals("Book") || type.equals("Electronics");
+        return ProductType.of(type) != null;
     }
 
     /**
@@ -97,6 +134,11 @@ public class ProductFactory {
      * @return An array of valid product types
      */
     public static String[] getValidTypes() {
-        return new String[]{"Book", "Electronics"};
+        ProductType[] types = ProductType.values();
+        String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = types[i].getName();
+        }
+        return names;
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+// File: src/main/java/inventory/ProductList.java
+package inventory;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An append-only list of products that can be read without a lock while
+ * another thread adds to it.
+ *
+ * Products are only ever added at the end, by one thread at a time (the
+ * inventory's adds are synchronized). A reader takes a snapshot: the
+ * products added so far, as a read-only list that never changes after it
+ * is handed out. Taking a snapshot copies nothing, so it costs the same
+ * however many products there are.
+ *
+ * The array is only grown by copying it, and the size is published after
+ * the product is stored, so a reader that sees a size also sees every
+ * product below it.
+ */
+final class ProductList {
+
+    private volatile Product[] items;
+    private volatile int size;
+
+    /**
+     * Create an empty list.
+     *
+     * @param capacity How many products to make room for up front
+     */
+    ProductList(int capacity) {
+        items = new Product[Math.max(capacity, 4)];
+    }
+
+    /**
+     * Add a product at the end. Only one thread may add at a time.
+     *
+     * @param product The product to add
+     */
+    void add(Product product) {
+        Product[] current = items;
+        int count = size;
+        if (count == current.length) {
+            Product[] grown = new Product[count + (count >> 1) + 1];
+            System.arraycopy(current, 0, grown, 0, count);
+            items = grown;
+            current = grown;
+        }
+        current[count] = product;
+        size = count + 1;
+    }
+
+    /**
+     * Get how many products have been added
+     * @return The number of products
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the products added so far.
+     *
+     * @return A read-only list that doesn't change when more products are added
+     */
+    List<Product> snapshot() {
+        int count = size;      // Read the size first - the array holds at least this many
+        return new Snapshot(items, count);
+    }
+
+    /**
+     * A fixed-length, read-only view of the start of the array.
+     */
+    private static final class Snapshot extends AbstractList<Product> implements RandomAccess {
+        private final Product[] items;
+        private final int size;
+
+        Snapshot(Product[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        @Override
+        public Product get(int index) {
+            Objects.checkIndex(index, size);
+            return items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
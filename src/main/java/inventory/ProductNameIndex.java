@@ -0,0 +1,279 @@
+// File: src/main/java/inventory/ProductNameIndex.java
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * ProductNameIndex - finds products from part of a name, or from a name
+ * with typos in it.
+ *
+ * The names are kept in a trie: a tree where each step down adds one
+ * letter, so all names starting with "lap" sit under the path l-a-p.
+ * - Prefix search walks down the path of the prefix and then collects the
+ *   names below it in alphabetical order, stopping after the first few.
+ * - Typo search walks the tree while working out the edit distance between
+ *   the query and the path so far (the number of letters inserted, deleted,
+ *   changed or swapped). As soon as every way of continuing a path would
+ *   need too many edits, the whole branch under it is skipped, so only a
+ *   small part of a big catalog is ever looked at.
+ *
+ * Names are indexed by the same case-folded key as the inventory's name
+ * index, so searches ignore upper/lower case.
+ *
+ * Adding a name is done by one thread at a time (the inventory holds its
+ * lock), while any number of threads search. Each node's children live in
+ * an array that is replaced, never changed in place, so a search sees
+ * either the old children or the new ones.
+ */
+final class ProductNameIndex {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Best matches first: fewer edits, then alphabetical
+    private static final Comparator<Match> BEST_FIRST =
+            Comparator.comparingInt((Match match) -> match.edits).thenComparing(match -> match.key);
+
+    private final Node root = new Node('\0');
+
+    /**
+     * Add a product under its name.
+     *
+     * @param key     The product's name key (see InventoryManager.nameKey)
+     * @param product The product
+     */
+    void add(String key, Product product) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrAdd(key.charAt(i));
+        }
+        node.product = product;
+    }
+
+    /**
+     * Find products whose name starts with a prefix.
+     *
+     * @param prefixKey The case-folded prefix
+     * @param limit     The most products to return
+     * @return Up to limit products, in alphabetical order of name
+     */
+    List<Product> startingWith(String prefixKey, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefixKey.length() && node != null; i++) {
+            node = node.child(prefixKey.charAt(i));
+        }
+        List<Product> found = new ArrayList<>(Math.min(limit, 64));
+        if (node != null) {
+            collect(node, limit, found);
+        }
+        return found;
+    }
+
+    /**
+     * Add the products at and below a node, in order, until there are enough.
+     */
+    private static void collect(Node node, int limit, List<Product> found) {
+        Product product = node.product;
+        if (product != null) {
+            found.add(product);
+        }
+        for (Node child : node.children) {
+            if (found.size() >= limit) {
+                return;
+            }
+            collect(child, limit, found);
+        }
+    }
+
+    /**
+     * Find the products whose names are closest to a query.
+     *
+     * @param queryKey The case-folded query
+     * @param maxEdits The most edits (inserted, deleted, changed or swapped letters) allowed
+     * @param limit    The most products to return
+     * @return Up to limit products, fewest edits first, then in alphabetical order
+     */
+    List<Product> similarTo(String queryKey, int maxEdits, int limit) {
+        Search search = new Search(queryKey, maxEdits, limit);
+
+        // Row 0: turning "" into each prefix of the query takes that many inserts
+        int[] first = search.row(0);
+        for (int j = 0; j < first.length; j++) {
+            first[j] = j;
+        }
+        for (Node child : root.children) {
+            search.visit(child, 1);
+        }
+
+        List<Match> matches = new ArrayList<>(search.best);
+        matches.sort(BEST_FIRST);
+        List<Product> found = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            found.add(match.product);
+        }
+        return found;
+    }
+
+    /**
+     * One typo search in progress. Keeps one row of edit distances per
+     * level of the tree, reused as the search moves between branches.
+     */
+    private static final class Search {
+        private final char[] query;
+        private final int maxEdits;
+        private final int limit;
+        private final List<int[]> rows = new ArrayList<>();
+        private char[] path = new char[32];
+
+        // The best matches so far, worst at the head so it can be dropped
+        private final PriorityQueue<Match> best;
+
+        Search(String queryKey, int maxEdits, int limit) {
+            this.query = queryKey.toCharArray();
+            this.maxEdits = maxEdits;
+            this.limit = limit;
+            this.best = new PriorityQueue<>(limit + 1, Collections.reverseOrder(BEST_FIRST));
+        }
+
+        int[] row(int depth) {
+            while (rows.size() <= depth) {
+                rows.add(new int[query.length + 1]);
+            }
+            return rows.get(depth);
+        }
+
+        /**
+         * Work out the edit distances for a node at some depth, record it if
+         * it is a close enough product, and go down unless nothing below
+         * could be close enough.
+         */
+        void visit(Node node, int depth) {
+            char c = node.label;
+            if (depth >= path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[depth] = c;
+
+            int[] above = row(depth - 1);
+            int[] twoAbove = (depth >= 2) ? row(depth - 2) : null;
+            int[] current = row(depth);
+            current[0] = depth;
+            int smallest = current[0];
+            for (int j = 1; j <= query.length; j++) {
+                int cost = (query[j - 1] == c) ? 0 : 1;
+                int edits = Math.min(Math.min(above[j] + 1, current[j - 1] + 1), above[j - 1] + cost);
+                // Two neighbouring letters swapped count as one edit
+                if (twoAbove != null && j >= 2 && query[j - 1] == path[depth - 1] && query[j - 2] == c) {
+                    edits = Math.min(edits, twoAbove[j - 2] + 1);
+                }
+                current[j] = edits;
+                smallest = Math.min(smallest, edits);
+            }
+
+            // Every name below starts with this path, so it can't do better than the
+            // smallest entry. Names below also come later alphabetically, so once we have
+            // enough matches they must need strictly fewer edits than the worst one kept.
+            if (smallest > maxEdits || (best.size() == limit && smallest >= best.peek().edits)) {
+                return;
+            }
+
+            Product product = node.product;
+            int edits = current[query.length];
+            if (product != null && edits <= maxEdits) {
+                offer(new Match(new String(path, 1, depth), product, edits));
+            }
+            for (Node child : node.children) {
+                visit(child, depth + 1);
+            }
+        }
+
+        private void offer(Match match) {
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (BEST_FIRST.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+    }
+
+    /**
+     * A product found by a typo search and how many edits away it is.
+     */
+    private static final class Match {
+        final String key;
+        final Product product;
+        final int edits;
+
+        Match(String key, Product product, int edits) {
+            this.key = key;
+            this.product = product;
+            this.edits = edits;
+        }
+    }
+
+    /**
+     * One letter of the trie. Its children are sorted by letter.
+     */
+    private static final class Node {
+        final char label;
+        volatile Node[] children = NO_CHILDREN;
+        volatile Product product;       // The product whose name ends here, if any
+
+        Node(char label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            Node[] current = children;
+            int i = indexOf(current, c);
+            return (i >= 0) ? current[i] : null;
+        }
+
+        /**
+         * Get the child for a letter, adding it if it isn't there.
+         * Only one thread adds at a time.
+         */
+        Node childOrAdd(char c) {
+            Node[] current = children;
+            int i = indexOf(current, c);
+            if (i >= 0) {
+                return current[i];
+            }
+            // Copy into a new array with the child in its sorted place, then publish it
+            int at = -(i + 1);
+            Node added = new Node(c);
+            Node[] grown = new Node[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, at);
+            grown[at] = added;
+            System.arraycopy(current, at, grown, at + 1, current.length - at);
+            children = grown;
+            return added;
+        }
+
+        /**
+         * Binary search for a letter among the children.
+         * @return the position, or -(insertion point + 1) if it isn't there
+         */
+        private static int indexOf(Node[] nodes, char c) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = nodes[middle].label;
+                if (label < c) {
+                    low = middle + 1;
+                } else if (label > c) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// File: src/main/java/inventory/ProductObserver.java
+package inventory;
+
+/**
+ * Gets told whenever a product's price or stock changes.
+ *
+ * The inventory attaches one of these to each product it holds, so it can
+ * keep its totals up to date without scanning every product, and record
+ * every change in its journal.
+ *
+ * Reservations get methods of their own, because holding items changes the
+ * stock that can be sold but not the stock that is saved (see
+ * Product.getStoredQuantity). Only a held item being bought is recorded.
+ *
+ * All methods are called on the thread that made the change, after the
+ * change is visible to other threads.
+ */
+interface ProductObserver {
+
+    /**
+     * A product's stock has just changed.
+     *
+     * @param product  The product that changed
+     * @param change   How many items were added (negative if items were taken away)
+     * @param quantity The stock this change left (other threads may have changed it since)
+     */
+    void stockChanged(Product product, int change, int quantity);
+
+    /**
+     * Items have been put on hold for a checkout, or a hold has ended and
+     * they are back in stock. The sellable stock moved the other way.
+     *
+     * @param product  The product that changed
+     * @param change   How many items were put on hold (negative if they went back into stock)
+     * @param quantity The sellable stock this change left
+     */
+    void stockReserved(Product product, int change, int quantity);
+
+    /**
+     * Items on hold have been bought. The sellable stock didn't change, but
+     * the items are gone for good.
+     *
+     * @param product The product that changed
+     * @param amount  How many items were bought
+     */
+    void reservedSold(Product product, int amount);
+
+    /**
+     * A product's price has just changed.
+     *
+     * @param product    The product that changed
+     * @param priceCents The new price, in cents
+     */
+    void priceChanged(Product product, long priceCents);
+}
@@ -0,0 +1,106 @@
+// File: src/main/java/inventory/ProductType.java
+package inventory;
+
+/**
+ * ProductType - the kinds of product the inventory knows about.
+ *
+ * Types used to be plain strings ("Book", "Electronics") that were compared
+ * with equals every time a discount or a type list needed them. A product
+ * type is now resolved once, when the product is created, to one of these
+ * constants. After that, checking a type is just comparing two references,
+ * and every product shares the same constant instead of holding its own
+ * copy of the type name (a catalog read from a file used to have a separate
+ * "Book" string for every row).
+ *
+ * The position of each constant (its ordinal) is also used as a small type
+ * code, for example in snapshots and in per-type arrays.
+ */
+public enum ProductType {
+
+    BOOK("Book"),
+    ELECTRONICS("Electronics");
+
+    // values() copies the array on every call, so keep one copy
+    private static final ProductType[] TYPES = values();
+
+    private final String name;
+
+    ProductType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the type name shown to users and stored in files
+     * @return the name, like "Book"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Find the type with a name.
+     *
+     * @param name The type name, like "Book" (upper/lower case matters)
+     * @return The type, or null if there is no type with that name
+     */
+    public static ProductType of(String name) {
+        if (name == null) {
+            return null;
+        }
+        // Most callers pass the same string constants we hold, so try that first
+        for (ProductType type : TYPES) {
+            if (type.name == name) {
+                return type;
+            }
+        }
+        for (ProductType type : TYPES) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the type with a name, or fail.
+     *
+     * @param name The type name, like "Book"
+     * @return The type
+     * @throws IllegalArgumentException if there is no type with that name
+     */
+    public static ProductType require(String name) {
+        ProductType type = of(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown product type: " + name);
+        }
+        return type;
+    }
+
+    /**
+     * Get the type with a type code.
+     *
+     * @param code The type code (the ordinal)
+     * @return The type
+     * @throws IllegalArgumentException if the code isn't a type code
+     */
+    public static ProductType fromCode(int code) {
+        if (code < 0 || code >= TYPES.length) {
+            throw new IllegalArgumentException("Unknown product type code: " + code);
+        }
+        return TYPES[code];
+    }
+
+    /**
+     * Get how many types there are, for sizing per-type arrays.
+     *
+     * @return The number of types
+     */
+    static int count() {
+        return TYPES.length;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
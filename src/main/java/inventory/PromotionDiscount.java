@@ -0,0 +1,51 @@
+// File: src/main/java/inventory/PromotionDiscount.java
+package inventory;
+
+/**
+ * A discount defined by rules in a rules file rather than in code (see
+ * DiscountRuleEngine). There is one of these for every promotion named in
+ * the file, registered in DiscountCalculator under that name.
+ *
+ * Each sale looks its percentage up in the engine's current decision
+ * table, so reloading the rules changes the discount straight away.
+ */
+public class PromotionDiscount implements DiscountStrategy {
+
+    private final String name;
+    private final int promotionId;            // Row of the decision table for this promotion
+    private final DiscountRuleEngine engine;
+
+    PromotionDiscount(String name, int promotionId, DiscountRuleEngine engine) {
+        this.name = name;
+        this.promotionId = promotionId;
+        this.engine = engine;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public double calculateDiscount(Product product, int quantity) {
+        return Money.toDollars(calculateDiscountCents(product, quantity));
+    }
+
+    @Override
+    public long calculateDiscountCents(Product product, int quantity) {
+        long priceCents = product.getPriceCents();
+        int percent = engine.getTable().percentOff(promotionId, product.getProductType(), quantity, priceCents);
+        if (percent == 0) {
+            return 0;
+        }
+        return Money.percentOf(Money.times(priceCents, quantity), percent);
+    }
+
+    @Override
+    public String describe(double discount) {
+        if (discount > 0) {
+            return name + " promotion: $" + Money.format(Money.toCents(discount));
+        }
+        return "No discount applied";
+    }
+}
@@ -0,0 +1,367 @@
+// File: src/main/java/inventory/ReplicationFollower.java
+package inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * ReplicationFollower keeps a local copy of a leader's inventory up to date,
+ * so findProduct, getProductsByType and the statistics can be answered
+ * without asking the leader.
+ *
+ * A background thread connects to a ReplicationLeader, says which log it
+ * follows and how many of its records it has already applied, checks that
+ * both sides speak the same protocol version, and then applies every record
+ * the leader sends, in order, to the local inventory. If the connection
+ * drops, it reconnects and carries on from the last record it applied, so
+ * nothing is applied twice or missed.
+ *
+ * If the leader is a different one (or restarted), or no longer has the
+ * records we are missing, we resync: the leader sends its snapshot and then
+ * its log from the start. A "new product" record holds the product's whole
+ * state, so a product we already have is set to its price and stock rather
+ * than added again. Products are never removed, so a product only we have
+ * stays as it is.
+ *
+ * The local inventory should only be changed by the follower. Changes made
+ * to it directly are not sent anywhere and may clash with the leader's.
+ *
+ * To see how far behind the copy is:
+ *   getLagRecords()            - records the leader has that we haven't applied
+ *   getLagMillis()             - how long since we were last up to date
+ *   getCatchUpRecordsPerSecond() - how fast we applied the backlog after connecting
+ */
+public class ReplicationFollower implements AutoCloseable {
+
+    // How long to wait before reconnecting after the connection drops
+    private static final long RECONNECT_MILLIS = 500;
+
+    // How long to wait for the leader to answer a connection
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final InventoryManager inventory;
+    private final String host;
+    private final int port;
+    private final Thread receiver;
+    private volatile boolean running = true;
+    private volatile Socket socket;
+
+    // Progress - written by the receiver thread only, guarded by this for awaitCaughtUp
+    private volatile long logId;
+    private volatile long applied;
+    private volatile long resyncs;
+    private volatile long leaderSequence;
+    private volatile long caughtUpAt = System.currentTimeMillis();
+    private volatile double catchUpRate;
+    private volatile boolean connected;
+    private volatile Exception failure;
+
+    /**
+     * Start following a leader with an empty inventory.
+     *
+     * @param inventory The inventory to keep up to date (normally empty)
+     * @param host      The leader's host name
+     * @param port      The leader's replication port
+     */
+    public ReplicationFollower(InventoryManager inventory, String host, int port) {
+        this(inventory, host, port, 0, 0);
+    }
+
+    /**
+     * Start following a leader with an inventory that already has some of
+     * the leader's records applied, for example after a follower was closed.
+     * If the leader's log is no longer the given one, the inventory resyncs.
+     *
+     * @param inventory The inventory to keep up to date
+     * @param host      The leader's host name
+     * @param port      The leader's replication port
+     * @param logId     The log the records came from (see getLogId), or 0 for none
+     * @param applied   How many of that log's records the inventory already has
+     */
+    public ReplicationFollower(InventoryManager inventory, String host, int port, long logId, long applied) {
+        if (applied < 0) {
+            throw new IllegalArgumentException("Applied count cannot be negative: " + applied);
+        }
+        this.inventory = inventory;
+        this.host = host;
+        this.port = port;
+        this.logId = logId;
+        this.applied = applied;
+        this.leaderSequence = applied;
+
+        receiver = new Thread(this::receiveLoop, "inventory-replication-follower");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    /**
+     * Get how many of the leader's records have been applied
+     * @return The number of records applied
+     */
+    public long getAppliedCount() {
+        return applied;
+    }
+
+    /**
+     * Get the id of the leader's log the applied records came from
+     * @return The log id, or 0 if we haven't heard from a leader yet
+     */
+    public long getLogId() {
+        return logId;
+    }
+
+    /**
+     * Get how many times the whole inventory was resynced from the leader,
+     * rather than catching up record by record
+     * @return The number of resyncs
+     */
+    public long getResyncCount() {
+        return resyncs;
+    }
+
+    /**
+     * Get how many records the leader had at its last heartbeat
+     * @return The leader's log length as far as we know
+     */
+    public long getLeaderSequence() {
+        return leaderSequence;
+    }
+
+    /**
+     * Get how many records behind the leader the copy is
+     * @return The number of records still to apply, 0 if up to date
+     */
+    public long getLagRecords() {
+        return Math.max(0, leaderSequence - applied);
+    }
+
+    /**
+     * Get how long it has been since the copy was last up to date.
+     * While the leader is reachable and we keep up, this stays below a heartbeat.
+     *
+     * @return Milliseconds since the copy last matched the leader, 0 if it does now
+     */
+    public long getLagMillis() {
+        if (connected && getLagRecords() == 0) {
+            return 0;
+        }
+        return System.currentTimeMillis() - caughtUpAt;
+    }
+
+    /**
+     * Get how fast the backlog was applied the last time we connected,
+     * from connecting until we were up to date.
+     *
+     * @return Records per second, or 0 if we haven't caught up yet
+     */
+    public double getCatchUpRecordsPerSecond() {
+        return catchUpRate;
+    }
+
+    /**
+     * Check whether we are connected to the leader
+     * @return true if connected
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Get the error that stopped the follower, if any. A follower stops for
+     * good when a record can't be applied (the copy no longer matches the
+     * leader); dropped connections are retried instead.
+     *
+     * @return The error, or null if the follower is still running normally
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Wait until the given number of records have been applied.
+     *
+     * @param sequence      The record count to wait for, e.g. the leader's getSequence()
+     * @param timeoutMillis The longest time to wait
+     * @return true if the records were applied, false if the time ran out or the follower stopped
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCaughtUp(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            while (applied < sequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !running) {
+                    return false;
+                }
+                wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop following and disconnect. The inventory keeps everything applied so far.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        receiver.interrupt();
+        try {
+            receiver.join(CONNECT_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the receiver thread: connect, apply records, and reconnect if
+     * the connection drops.
+     */
+    private void receiveLoop() {
+        while (running) {
+            try {
+                follow();
+            } catch (IOException e) {
+                // Leader unreachable or connection dropped - try again shortly
+            } finally {
+                connected = false;
+            }
+            if (failure != null) {
+                return;
+            }
+            try {
+                Thread.sleep(RECONNECT_MILLIS);
+            } catch (InterruptedException e) {
+                return;   // Closed
+            }
+        }
+    }
+
+    /**
+     * Follow the leader over one connection until it drops.
+     */
+    private void follow() throws IOException {
+        try (Socket current = new Socket()) {
+            socket = current;
+            if (!running) {
+                return;   // Closed while we were setting up
+            }
+            current.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            current.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(current.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(current.getOutputStream()));
+            out.writeInt(ReplicationLeader.PROTOCOL_VERSION);
+            out.writeLong(logId);
+            out.writeLong(applied);
+            out.flush();
+            int leaderVersion = in.readInt();
+            if (leaderVersion != ReplicationLeader.PROTOCOL_VERSION) {
+                fail(new IOException("Leader speaks replication protocol " + leaderVersion
+                        + ", this follower speaks " + ReplicationLeader.PROTOCOL_VERSION));
+                return;
+            }
+            if (!resync(in)) {
+                return;
+            }
+            connected = true;
+
+            long startApplied = applied;
+            long startNanos = System.nanoTime();
+            boolean catchingUp = true;
+
+            while (running) {
+                int length = in.readInt();
+                if (length == 0) {
+                    // Heartbeat: the leader's log length and clock
+                    leaderSequence = in.readLong();
+                    in.readLong();
+                    if (applied >= leaderSequence) {
+                        caughtUpAt = System.currentTimeMillis();
+                        if (catchingUp) {
+                            catchingUp = false;
+                            long elapsed = System.nanoTime() - startNanos;
+                            catchUpRate = (applied - startApplied) * 1e9 / Math.max(1, elapsed);
+                        }
+                    }
+                    continue;
+                }
+
+                byte[] body = InventoryJournal.readBody(length, in);
+                if (body == null) {
+                    throw new IOException("Damaged replication record");  // Reconnect and ask again
+                }
+                try {
+                    InventoryJournal.applyState(body, inventory);
+                } catch (IOException e) {
+                    fail(e);   // Unknown product or record type - the copy can't be trusted
+                    return;
+                }
+                synchronized (this) {
+                    applied++;
+                    notifyAll();
+                }
+            }
+        } finally {
+            socket = null;
+        }
+    }
+
+    /**
+     * Read where the leader carries on from, and apply the product states
+     * it sends first when we have to resync.
+     *
+     * @return false if a product state couldn't be applied (the follower has stopped)
+     */
+    private boolean resync(DataInputStream in) throws IOException {
+        long leaderLog = in.readLong();
+        long from = in.readLong();
+        int products = in.readInt();
+        if (leaderLog == logId && from == applied && products == 0) {
+            return true;   // Carrying on where we stopped
+        }
+
+        // Forget the old position first, so a resync cut short is done again in full
+        logId = 0;
+        for (int i = 0; i < products; i++) {
+            byte[] body = InventoryJournal.readBody(in.readInt(), in);
+            if (body == null) {
+                throw new IOException("Damaged replication record");  // Reconnect and ask again
+            }
+            try {
+                InventoryJournal.applyState(body, inventory);
+            } catch (IOException e) {
+                fail(e);   // A product changed type - the copy can't be trusted
+                return false;
+            }
+        }
+        synchronized (this) {
+            logId = leaderLog;
+            applied = from;
+            leaderSequence = from;
+            resyncs++;
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Stop for good, and wake anyone waiting for records that will never come.
+     */
+    private void fail(Exception e) {
+        failure = e;
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+    }
+}
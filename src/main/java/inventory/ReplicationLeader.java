@@ -0,0 +1,379 @@
+// File: src/main/java/inventory/ReplicationLeader.java
+package inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReplicationLeader streams every change to an inventory to follower
+ * nodes over TCP, so other processes (or other machines) can keep a copy
+ * of the inventory and answer reads from it.
+ *
+ * The leader keeps an ordered log of changes in memory, using the same
+ * records as InventoryJournal: a new product, a stock change (plus or
+ * minus some items) or a new price. The log starts with one "new product"
+ * record for every product the inventory already has, so a follower that
+ * starts empty and applies the log from the beginning ends up with the
+ * same products, stock and prices.
+ *
+ * Every leader picks a random log id when it starts, so record numbers
+ * from one leader are never mistaken for another's (or for the same
+ * leader's before a restart). A follower connects and says which protocol
+ * version it speaks, which log it follows and how many of its records it
+ * has. The leader answers with its own version (and drops a follower that
+ * speaks a different one), its log id and the record number it will carry
+ * on from. If the follower follows this log and the leader still holds the
+ * records it is missing, it gets just those. Otherwise it resyncs: it is sent
+ * the snapshot described below, as one "new product" record (holding the
+ * whole state) for every product in it, followed by the log from its start.
+ *
+ * After that the leader keeps sending new records as they happen, each
+ * batch followed by a heartbeat saying how long the log is now. When
+ * nothing happens, a heartbeat is sent every HEARTBEAT_MILLIS so the
+ * follower knows it is up to date. Each follower has its own sending thread,
+ * so a slow follower never holds up the inventory or the other followers.
+ *
+ * The log only keeps the latest records. When it grows past its limit, the
+ * oldest half is applied to a snapshot inventory the leader keeps on the
+ * side and then dropped, so memory stays bounded however long the leader
+ * runs. The snapshot is what a resyncing follower is sent. A follower that
+ * falls so far behind that its records are dropped is disconnected, and
+ * resyncs when it reconnects.
+ *
+ * Start the leader before the inventory starts taking changes (like
+ * attaching a journal), so the starting records and the stream line up.
+ */
+public class ReplicationLeader implements AutoCloseable {
+
+    // How often an idle follower hears from the leader
+    static final long HEARTBEAT_MILLIS = 200;
+
+    // The handshake and record format on the wire, checked by both sides
+    static final int PROTOCOL_VERSION = 1;
+
+    // How many records the log holds by default before the oldest are dropped
+    public static final int DEFAULT_MAX_LOG_RECORDS = 1 << 20;
+
+    // The most records sent to a follower before each heartbeat
+    private static final int MAX_BATCH = 4096;
+
+    private final InventoryManager inventory;
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final long logId;
+    private final int maxLogRecords;
+
+    // The change log: records[i] is record number firstSequence + i. Every
+    // record before firstSequence has been applied to snapshot.
+    private final Object lock = new Object();
+    private final List<byte[]> records = new ArrayList<>();
+    private final InventoryManager snapshot = new InventoryManager(NoOpEventSink.INSTANCE);
+    private long firstSequence;
+    private int waitingSenders;          // Senders waiting for new records
+    private volatile boolean running = true;
+
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start leading: record the inventory's current products, begin recording
+     * its changes and accept followers.
+     *
+     * @param inventory The inventory to replicate
+     * @param port      The port followers connect to, or 0 to pick a free one
+     * @throws IOException if the port can't be opened
+     */
+    public ReplicationLeader(InventoryManager inventory, int port) throws IOException {
+        this(inventory, port, DEFAULT_MAX_LOG_RECORDS);
+    }
+
+    /**
+     * Start leading, with a limit on how many records the log holds.
+     *
+     * @param inventory     The inventory to replicate
+     * @param port          The port followers connect to, or 0 to pick a free one
+     * @param maxLogRecords How many records to keep before the oldest are dropped
+     * @throws IOException if the port can't be opened
+     */
+    public ReplicationLeader(InventoryManager inventory, int port, int maxLogRecords) throws IOException {
+        if (maxLogRecords < 2) {
+            throw new IllegalArgumentException("The log must hold at least 2 records: " + maxLogRecords);
+        }
+        this.inventory = inventory;
+        this.maxLogRecords = maxLogRecords;
+        long id;
+        do {
+            id = new SecureRandom().nextLong();
+        } while (id == 0);   // 0 means a follower doesn't follow any log yet
+        this.logId = id;
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+
+        // Adding products locks the inventory, so no product is missed or sent twice
+        synchronized (inventory) {
+            for (Product product : inventory.getAllProducts()) {
+                records.add(InventoryJournal.productRecord(product));
+            }
+            inventory.setReplicationLeader(this);
+        }
+
+        acceptor = new Thread(this::acceptLoop, "inventory-replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Get the port followers connect to
+     * @return The port number
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Get the id of this leader's log. Followers use it to tell whether
+     * their record count belongs to this leader.
+     *
+     * @return The log id, never 0
+     */
+    public long getLogId() {
+        return logId;
+    }
+
+    /**
+     * Get how many records have been added to the log, including the ones
+     * already dropped. A follower that has applied this many records is up to date.
+     *
+     * @return The number of records
+     */
+    public long getSequence() {
+        synchronized (lock) {
+            return firstSequence + records.size();
+        }
+    }
+
+    /**
+     * Get the number of the oldest record the log still holds. A follower
+     * with fewer records than this has to resync.
+     *
+     * @return The record number
+     */
+    public long getFirstSequence() {
+        synchronized (lock) {
+            return firstSequence;
+        }
+    }
+
+    /**
+     * Get how many followers are connected
+     * @return The number of connected followers
+     */
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    // Recording changes - called by InventoryManager
+
+    void productAdded(Product product) {
+        append(InventoryJournal.productRecord(product));
+    }
+
+    void productsAdded(List<Product> added) {
+        for (Product product : added) {
+            append(InventoryJournal.productRecord(product));
+        }
+    }
+
+    void stockChanged(Product product, int change) {
+        append(InventoryJournal.stockRecord(product, change));
+    }
+
+    void priceChanged(Product product, long priceCents) {
+        append(InventoryJournal.priceRecord(product, priceCents));
+    }
+
+    private void append(byte[] record) {
+        synchronized (lock) {
+            records.add(record);
+            if (records.size() > maxLogRecords) {
+                dropOldest();
+            }
+            // Only wake senders that are actually waiting
+            if (waitingSenders > 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Apply the oldest half of the log to the snapshot, then drop it.
+     * Only done once every maxLogRecords / 2 records, so it costs little
+     * per record. Called with the lock held.
+     */
+    private void dropOldest() {
+        List<byte[]> oldest = records.subList(0, records.size() - maxLogRecords / 2);
+        for (byte[] record : oldest) {
+            try {
+                // Skip the length and checksum in front of the body
+                InventoryJournal.apply(Arrays.copyOfRange(record, 2 * Integer.BYTES, record.length), snapshot);
+            } catch (IOException e) {
+                throw new IllegalStateException("Replication log doesn't match its own snapshot", e);
+            }
+        }
+        firstSequence += oldest.size();
+        oldest.clear();
+    }
+
+    /**
+     * Stop recording changes, disconnect every follower and close the port.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        inventory.setReplicationLeader(null);
+        serverSocket.close();
+        for (Socket follower : followers) {
+            follower.close();
+        }
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return; // Closed
+            }
+            Thread sender = new Thread(() -> serve(socket), "inventory-replication-sender");
+            sender.setDaemon(true);
+            sender.start();
+        }
+    }
+
+    /**
+     * Body of a sender thread: send one follower what it's missing, then
+     * keep it up to date until it disconnects.
+     */
+    private void serve(Socket socket) {
+        followers.add(socket);
+        try {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+
+            int version = in.readInt();
+            long followedLog = in.readLong();  // Which log the follower's records came from
+            long position = in.readLong();     // How many records the follower already has
+            out.writeInt(PROTOCOL_VERSION);
+            if (version != PROTOCOL_VERSION) {
+                out.flush();
+                return; // The follower can't read our records
+            }
+
+            // Send the missing records if we still have them, or else the whole snapshot
+            List<byte[]> resync = Collections.emptyList();
+            synchronized (lock) {
+                if (followedLog != logId || position < firstSequence || position > firstSequence + records.size()) {
+                    resync = snapshotRecords();
+                    position = firstSequence;
+                }
+            }
+            out.writeLong(logId);
+            out.writeLong(position);
+            out.writeInt(resync.size());
+            for (byte[] record : resync) {
+                out.write(record);
+            }
+            resync = null;   // Let the copies go while we stream
+
+            byte[][] batch = new byte[MAX_BATCH][];
+            while (running) {
+                int count = 0;
+                long head;
+                synchronized (lock) {
+                    if (firstSequence + records.size() <= position) {
+                        waitingSenders++;
+                        try {
+                            lock.wait(HEARTBEAT_MILLIS);
+                        } finally {
+                            waitingSenders--;
+                        }
+                    }
+                    if (position < firstSequence) {
+                        return; // Fell too far behind - it resyncs when it reconnects
+                    }
+                    head = firstSequence + records.size();
+                    int index = (int) (position - firstSequence);
+                    while (index + count < records.size() && count < MAX_BATCH) {
+                        batch[count] = records.get(index + count);
+                        count++;
+                    }
+                }
+
+                // Write outside the lock, so the inventory never waits for the network
+                for (int i = 0; i < count; i++) {
+                    out.write(batch[i]);
+                    batch[i] = null;
+                }
+                position += count;
+                writeHeartbeat(out, head);
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // The follower went away, or we were closed
+        } catch (IOException e) {
+            // Same - the follower will reconnect and carry on from where it was
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing more to send anyway
+            }
+        }
+    }
+
+    /**
+     * Encode the snapshot as one "new product" record per product, holding
+     * its whole state as of record firstSequence. Called with the lock held.
+     */
+    private List<byte[]> snapshotRecords() {
+        List<Product> products = snapshot.getAllProducts();
+        List<byte[]> encoded = new ArrayList<>(products.size());
+        for (Product product : products) {
+            encoded.add(InventoryJournal.productRecord(product));
+        }
+        return encoded;
+    }
+
+    /**
+     * A heartbeat is a record with length 0, followed by the length of the
+     * log and the leader's clock.
+     */
+    private static void writeHeartbeat(DataOutputStream out, long head) throws IOException {
+        out.writeInt(0);
+        out.writeLong(head);
+        out.writeLong(System.currentTimeMillis());
+    }
+}
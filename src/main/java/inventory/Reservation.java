@@ -0,0 +1,139 @@
+// File: src/main/java/inventory/Reservation.java
+package inventory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Reservation - items held for a checkout that hasn't finished yet.
+ *
+ * A reservation is created by InventoryManager.reserve. Its items are taken
+ * out of the product's sellable stock straight away, so nobody else can buy
+ * them. Then exactly one of these happens:
+ * - commit:  the customer paid, the items are gone for good
+ * - release: the customer gave up, the items go back into stock
+ * - expire:  nobody did either in time, the items go back into stock
+ *
+ * The state changes with compare-and-set, so if a commit and an expiry race
+ * each other only one of them wins.
+ */
+public class Reservation {
+
+    /**
+     * Where a reservation is in its life.
+     */
+    public enum State {
+        HELD,       // Items are held, waiting for commit or release
+        COMMITTED,  // The items were bought
+        RELEASED,   // The items were put back by hand
+        EXPIRED     // The hold ran out and the items were put back
+    }
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Reservation.class, "state", State.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long id;
+    private final Product product;
+    private final int quantity;
+    private final long deadlineNanos;       // System.nanoTime() when the hold runs out
+    private volatile State state = State.HELD;
+
+    // Timing wheel bookkeeping - only used by ReservationWheel
+    Reservation next;                       // Next reservation in the same list
+    long rounds;                            // Wheel turns left before this one is due
+
+    Reservation(long id, Product product, int quantity, long deadlineNanos) {
+        this.id = id;
+        this.product = product;
+        this.quantity = quantity;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Get the reservation number
+     * @return a number unique within the inventory
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the reserved product
+     * @return the product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Get how many items are held
+     * @return the reserved quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the current state
+     * @return HELD, COMMITTED, RELEASED or EXPIRED
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Check if the items are still held
+     * @return true if the reservation hasn't been committed, released or expired
+     */
+    public boolean isHeld() {
+        return state == State.HELD;
+    }
+
+    /**
+     * Get how long until the hold runs out
+     * @return milliseconds left, 0 if the time is up
+     */
+    public long getRemainingMillis() {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * The items were bought.
+     * @return true if the reservation was still held
+     */
+    boolean commit() {
+        if (!STATE.compareAndSet(this, State.HELD, State.COMMITTED)) {
+            return false;
+        }
+        product.commitReserved(quantity);
+        return true;
+    }
+
+    /**
+     * Put the items back, by hand (RELEASED) or because time ran out (EXPIRED).
+     * @return true if the reservation was still held
+     */
+    boolean release(State reason) {
+        if (!STATE.compareAndSet(this, State.HELD, reason)) {
+            return false;
+        }
+        product.releaseReserved(quantity);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation " + id + ": " + quantity + " x " + product.getName() + " (" + state + ")";
+    }
+}
@@ -0,0 +1,179 @@
+// File: src/main/java/inventory/ReservationWheel.java
+package inventory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ReservationWheel expires reservations whose hold has run out, using a
+ * hashed timing wheel.
+ *
+ * Picture a clock face with a few thousand slots. A hand moves one slot
+ * every tick (100 ms by default). A reservation is dropped into the slot
+ * the hand will point at when it is due, with a count of how many more
+ * full turns to wait if it is due further away than one turn. When the
+ * hand reaches a slot, it only looks at the reservations in that slot.
+ *
+ * So scheduling is O(1), and each tick only touches one slot instead of
+ * scanning every outstanding reservation. One background thread runs the
+ * whole wheel, however many reservations there are.
+ *
+ * Committed and released reservations aren't taken out of their slot
+ * straight away - that would need a lock. They are just skipped and
+ * dropped when the hand reaches them.
+ *
+ * New reservations are pushed onto a lock-free list and moved into their
+ * slots by the wheel thread on its next tick, so the slots themselves are
+ * only ever touched by one thread.
+ */
+final class ReservationWheel {
+
+    static final long DEFAULT_TICK_MILLIS = 100;
+    static final int DEFAULT_WHEEL_SIZE = 4096;   // About 7 minutes per turn with 100 ms ticks
+
+    private final long tickNanos;
+    private final Reservation[] slots;
+    private final int mask;
+    private final long startNanos;
+
+    // Reservations waiting to be put in a slot, newest first
+    private final AtomicReference<Reservation> incoming = new AtomicReference<>();
+
+    // Reservations scheduled but not yet expired or dropped
+    private final AtomicLong pending = new AtomicLong();
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Only used by the wheel thread
+    private long tick;
+
+    /**
+     * Create and start a wheel.
+     *
+     * @param tickMillis How far the hand moves each tick - the expiry precision
+     * @param wheelSize  How many slots (rounded up to a power of two)
+     */
+    ReservationWheel(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.slots = new Reservation[size];
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+
+        worker = new Thread(this::run, "inventory-reservation-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Expire a reservation when its deadline passes, unless it is committed
+     * or released first.
+     *
+     * @param reservation The reservation to watch
+     */
+    void schedule(Reservation reservation) {
+        pending.incrementAndGet();
+        Reservation head;
+        do {
+            head = incoming.get();
+            reservation.next = head;
+        } while (!incoming.compareAndSet(head, reservation));
+    }
+
+    /**
+     * Get how many reservations the wheel is still holding, including
+     * finished ones that haven't been dropped yet.
+     *
+     * @return The number of scheduled reservations
+     */
+    long getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the wheel thread. Reservations still held stay held.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            // Wait until this tick's time has come
+            long due = startNanos + (tick + 1) * tickNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            placeIncoming();
+            expireSlot();
+            tick++;
+        }
+    }
+
+    /**
+     * Move newly scheduled reservations into their slots.
+     */
+    private void placeIncoming() {
+        Reservation reservation = incoming.getAndSet(null);
+        while (reservation != null) {
+            Reservation following = reservation.next;
+
+            // The tick whose processing time is the first at or after the deadline
+            long offset = reservation.getDeadlineNanos() - startNanos;
+            long dueTick = Math.max(tick, (offset + tickNanos - 1) / tickNanos - 1);
+            reservation.rounds = (dueTick - tick) / slots.length;
+
+            int slot = (int) (dueTick & mask);
+            reservation.next = slots[slot];
+            slots[slot] = reservation;
+
+            reservation = following;
+        }
+    }
+
+    /**
+     * Go through the slot under the hand: expire what is due, count down
+     * the rest, and drop finished reservations.
+     */
+    private void expireSlot() {
+        int slot = (int) (tick & mask);
+        Reservation previous = null;
+        Reservation reservation = slots[slot];
+        while (reservation != null) {
+            Reservation following = reservation.next;
+            boolean remove;
+            if (!reservation.isHeld()) {
+                remove = true;    // Committed or released already
+            } else if (reservation.rounds > 0) {
+                reservation.rounds--;
+                remove = false;   // Due on a later turn
+            } else {
+                reservation.release(Reservation.State.EXPIRED);
+                remove = true;
+            }
+
+            if (remove) {
+                if (previous == null) {
+                    slots[slot] = following;
+                } else {
+                    previous.next = following;
+                }
+                reservation.next = null;
+                pending.decrementAndGet();
+            } else {
+                previous = reservation;
+            }
+            reservation = following;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+// File: src/main/java/inventory/SaleResult.java
+package inventory;
+
+/**
+ * The outcome of selling one order line.
+ *
+ * Instead of printing a receipt, the inventory hands back one of these so
+ * the caller can decide what to do with it - show it, store it, or send it
+ * somewhere else.
+ *
+ * Amounts are kept in whole cents; the getters returning doubles convert them.
+ */
+public class SaleResult {
+
+    /**
+     * What happened to the order line.
+     */
+    public enum Status {
+        SOLD,               // Sale went through
+        NOT_FOUND,          // No product with that name
+        INSUFFICIENT_STOCK  // Not enough items left
+    }
+
+    private final String productName;
+    private final int quantity;
+    private final String discountType;
+    private final DiscountQuote quote;
+    private final Status status;
+    private final long unitPrice;       // All amounts in cents
+    private final long originalTotal;
+    private final long discount;
+    private final long finalPrice;
+    private final int remainingStock;
+
+    private SaleResult(String productName, int quantity, String discountType, DiscountQuote quote,
+                       Status status, long unitPrice, long originalTotal, long discount,
+                       long finalPrice, int remainingStock) {
+        this.productName = productName;
+        this.quantity = quantity;
+        this.discountType = discountType;
+        this.quote = quote;
+        this.status = status;
+        this.unitPrice = unitPrice;
+        this.originalTotal = originalTotal;
+        this.discount = discount;
+        this.finalPrice = finalPrice;
+        this.remainingStock = remainingStock;
+    }
+
+    /**
+     * Create the result of a successful sale.
+     *
+     * @param product      The product that was sold
+     * @param quantity     How many were sold
+     * @param discountType The discount type that was requested
+     * @param quote        The discount that was applied
+     * @return A SOLD result
+     */
+    static SaleResult sold(Product product, int quantity, String discountType, DiscountQuote quote) {
+        long unitPrice = product.getPriceCents();
+        long originalTotal = Money.times(unitPrice, quantity);
+        long discount = quote.getAmountCents();
+        return new SaleResult(product.getName(), quantity, discountType, quote, Status.SOLD,
+                unitPrice, originalTotal, discount, originalTotal - discount, product.getQuantity());
+    }
+
+    /**
+     * Create the result of a sale that could not go through.
+     *
+     * @param productName    The requested product name
+     * @param quantity       The requested quantity
+     * @param discountType   The requested discount type
+     * @param status         Why the sale failed
+     * @param remainingStock The stock left, or 0 if the product wasn't found
+     * @return A failed result
+     */
+    static SaleResult failed(String productName, int quantity, String discountType,
+                             Status status, int remainingStock) {
+        return new SaleResult(productName, quantity, discountType, null, status,
+                0, 0, 0, 0, remainingStock);
+    }
+
+    /**
+     * Check if the sale went through
+     * @return true if the status is SOLD
+     */
+    public boolean isSuccessful() {
+        return status == Status.SOLD;
+    }
+
+    /**
+     * Get what happened to the order line
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the product name
+     * @return the product name (as stored, or as requested if not found)
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * Get how many items were requested
+     * @return the quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the discount type that was requested
+     * @return the discount type
+     */
+    public String getDiscountType() {
+        return discountType;
+    }
+
+    /**
+     * Get the price of one item
+     * @return the unit price, or 0 if the sale failed
+     */
+    public double getUnitPrice() {
+        return Money.toDollars(unitPrice);
+    }
+
+    /**
+     * Get the price of one item in cents
+     * @return the unit price in cents, or 0 if the sale failed
+     */
+    public long getUnitPriceCents() {
+        return unitPrice;
+    }
+
+    /**
+     * Get the total before discount
+     * @return unit price times quantity, or 0 if the sale failed
+     */
+    public double getOriginalTotal() {
+        return Money.toDollars(originalTotal);
+    }
+
+    /**
+     * Get the total before discount in cents
+     * @return unit price times quantity in cents, or 0 if the sale failed
+     */
+    public long getOriginalTotalCents() {
+        return originalTotal;
+    }
+
+    /**
+     * Get the discount amount
+     * @return the discount, or 0 if the sale failed
+     */
+    public double getDiscount() {
+        return Money.toDollars(discount);
+    }
+
+    /**
+     * Get the discount amount in cents
+     * @return the discount in cents, or 0 if the sale failed
+     */
+    public long getDiscountCents() {
+        return discount;
+    }
+
+    /**
+     * Get the price the customer pays
+     * @return the final price, or 0 if the sale failed
+     */
+    public double getFinalPrice() {
+        return Money.toDollars(finalPrice);
+    }
+
+    /**
+     * Get the price the customer pays in cents
+     * @return the final price in cents, or 0 if the sale failed
+     */
+    public long getFinalPriceCents() {
+        return finalPrice;
+    }
+
+    /**
+     * Get the stock left after this sale
+     * @return the remaining quantity
+     */
+    public int getRemainingStock() {
+        return remainingStock;
+    }
+
+    /**
+     * Get a description of the discount, like the one printed on receipts.
+     * @return the discount description
+     */
+    public String getDiscountDescription() {
+        return (quote != null) ? quote.getDescription() : DiscountCalculator.NONE.describe(0.0);
+    }
+
+    @Override
+    public String toString() {
+        if (isSuccessful()) {
+            return "SOLD " + quantity + " x " + productName + " for $" + Money.format(finalPrice);
+        }
+        return status + " " + quantity + " x " + productName;
+    }
+}
@@ -0,0 +1,467 @@
+// File: src/main/java/inventory/ShardedInventoryManager.java
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+
+/**
+ * ShardedInventoryManager - an inventory split into several smaller ones.
+ *
+ * A single InventoryManager has one product list, one lock for adding
+ * products and one set of running totals that every thread updates. This
+ * class splits the products over several InventoryManagers (shards) by a
+ * hash of the product name:
+ * - Operations on one product (add, find, sell, restock, reserve) only
+ *   touch that product's shard, so threads working on different shards
+ *   don't get in each other's way.
+ * - Questions about the whole inventory that build lists (low stock,
+ *   products of a type, name search) are asked of every shard at once on a
+ *   ForkJoinPool, and the answers are merged. Totals that every shard
+ *   already keeps up to date are just added up.
+ *
+ * The number of shards is fixed when the inventory is created. More shards
+ * than CPU cores rarely helps.
+ *
+ * Lists that come back from more than one shard are in shard order, and in
+ * the order products were added within each shard.
+ */
+public class ShardedInventoryManager implements AutoCloseable {
+
+    private final InventoryManager[] shards;
+    private final int mask;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create an empty inventory with one shard per CPU core, using the
+     * common ForkJoinPool.
+     *
+     * @param events Where to report what the inventory does
+     */
+    public ShardedInventoryManager(InventoryEventSink events) {
+        this(events, Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create an empty inventory.
+     *
+     * @param events     Where to report what the inventory does
+     * @param shardCount How many shards (rounded up to a power of two)
+     * @param pool       Where whole-inventory questions are worked out
+     */
+    public ShardedInventoryManager(InventoryEventSink events, int shardCount, ForkJoinPool pool) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        // A power of two lets us pick a shard with a mask instead of a division
+        int size = (shardCount == 1) ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        shards = new InventoryManager[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new InventoryManager(events);
+        }
+        this.mask = size - 1;
+        this.pool = pool;
+    }
+
+    /**
+     * Get how many shards the products are split over.
+     *
+     * @return The shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Pick the shard for a product name.
+     * Hashes the name folded the same way as InventoryManager.nameKey, so
+     * names differing only in upper/lower case land on the same shard,
+     * without building the folded string.
+     */
+    InventoryManager shardFor(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        // Mix the high bits in, as HashMap does
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    // ---- Operations on one product: handled by its shard ----
+
+    /**
+     * Add a new product. See InventoryManager.addProduct.
+     *
+     * @param type     Type of product ("Book" or "Electronics")
+     * @param name     Product name
+     * @param price    Product price
+     * @param quantity Initial stock quantity
+     * @return true if the product was added
+     */
+    public boolean addProduct(String type, String name, double price, int quantity) {
+        if (name == null) {
+            return shards[0].addProduct(type, null, price, quantity);   // Reports the failure
+        }
+        return shardFor(name).addProduct(type, name, price, quantity);
+    }
+
+    /**
+     * Find a product by name (ignoring upper/lower case).
+     *
+     * @param name The product name
+     * @return The product, or null if not found
+     */
+    public Product findProduct(String name) {
+        return (name == null) ? null : shardFor(name).findProduct(name);
+    }
+
+    /**
+     * Sell a product. See InventoryManager.sellProduct.
+     *
+     * @param productName  Name of the product to sell
+     * @param quantity     How many to sell
+     * @param discountType What type of discount to apply
+     * @return true if the sale was successful
+     */
+    public boolean sellProduct(String productName, int quantity, String discountType) {
+        return sellProduct(productName, quantity, DiscountCalculator.resolve(discountType));
+    }
+
+    /**
+     * Sell a product with a discount strategy that was already looked up.
+     *
+     * @param productName Name of the product to sell
+     * @param quantity    How many to sell
+     * @param discount    The discount strategy to apply
+     * @return true if the sale was successful
+     */
+    public boolean sellProduct(String productName, int quantity, DiscountStrategy discount) {
+        InventoryManager shard = (productName == null) ? shards[0] : shardFor(productName);
+        return shard.sellProduct(productName, quantity, discount);
+    }
+
+    /**
+     * Sell a whole order. Each line is sold by its product's shard.
+     * See InventoryManager.sellProducts.
+     *
+     * @param lines The order lines to sell
+     * @return One result per order line, in the same order
+     */
+    public List<SaleResult> sellProducts(List<OrderLine> lines) {
+        List<SaleResult> results = new ArrayList<>(lines.size());
+        for (OrderLine line : lines) {
+            String name = line.getProductName();
+            InventoryManager shard = (name == null) ? shards[0] : shardFor(name);
+            results.add(shard.sellProducts(Collections.singletonList(line)).get(0));
+        }
+        return results;
+    }
+
+    /**
+     * Add more stock to a product.
+     *
+     * @param productName Name of the product
+     * @param quantity    How many items to add
+     * @return true if stock was added
+     */
+    public boolean addStock(String productName, int quantity) {
+        InventoryManager shard = (productName == null) ? shards[0] : shardFor(productName);
+        return shard.addStock(productName, quantity);
+    }
+
+    /**
+     * Hold items for a checkout. See InventoryManager.reserve.
+     * Each shard starts its own expiry thread the first time it is used.
+     *
+     * @param productName Name of the product
+     * @param quantity    How many items to hold
+     * @param holdMillis  How long to hold them, in milliseconds
+     * @return The reservation, or null if the product doesn't exist or there isn't enough stock
+     */
+    public Reservation reserve(String productName, int quantity, long holdMillis) {
+        InventoryManager shard = (productName == null) ? shards[0] : shardFor(productName);
+        return shard.reserve(productName, quantity, holdMillis);
+    }
+
+    /**
+     * Complete a reservation: the held items are sold.
+     *
+     * @param reservation A reservation from reserve
+     * @return true if it was still held
+     */
+    public boolean commitReservation(Reservation reservation) {
+        return shardFor(reservation.getProduct().getName()).commitReservation(reservation);
+    }
+
+    /**
+     * Cancel a reservation: the held items go back into stock.
+     *
+     * @param reservation A reservation from reserve
+     * @return true if it was still held
+     */
+    public boolean releaseReservation(Reservation reservation) {
+        return shardFor(reservation.getProduct().getName()).releaseReservation(reservation);
+    }
+
+    /**
+     * Stop every shard's reservation thread. See InventoryManager.close.
+     * The pool belongs to the caller and is left running.
+     */
+    @Override
+    public void close() {
+        for (InventoryManager shard : shards) {
+            shard.close();
+        }
+    }
+
+    // ---- Questions about the whole inventory: asked of every shard ----
+
+    /**
+     * Get the total number of products.
+     *
+     * @return Number of different products
+     */
+    public int getProductCount() {
+        int count = 0;
+        for (InventoryManager shard : shards) {
+            count += shard.getProductCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the total value of all stock.
+     *
+     * @return Total value, in dollars
+     */
+    public double getTotalInventoryValue() {
+        return Money.toDollars(getTotalInventoryValueCents());
+    }
+
+    /**
+     * Get the total value of all stock in cents.
+     * Each shard keeps its total up to date, so reading them one after the
+     * other takes a few nanoseconds - much less than handing the work to
+     * the pool would.
+     *
+     * @return Total value, in cents
+     */
+    public long getTotalInventoryValueCents() {
+        long total = 0;
+        for (InventoryManager shard : shards) {
+            total += shard.getTotalInventoryValueCents();
+        }
+        return total;
+    }
+
+    /**
+     * Get the total value of all stock of one type.
+     *
+     * @param type The product type
+     * @return Total value of products of that type, in dollars
+     */
+    public double getInventoryValueByType(String type) {
+        return Money.toDollars(getInventoryValueCentsByType(type));
+    }
+
+    /**
+     * Get the total value of all stock of one type in cents.
+     * The shards' totals are added up in cents, so the sum is exact.
+     *
+     * @param type The product type
+     * @return Total value of products of that type, in cents
+     */
+    public long getInventoryValueCentsByType(String type) {
+        long total = 0;
+        for (InventoryManager shard : shards) {
+            total += shard.getInventoryValueCentsByType(type);
+        }
+        return total;
+    }
+
+    /**
+     * Get products that are low in stock, gathered from every shard in parallel.
+     *
+     * @return A new list of low stock products
+     */
+    public List<Product> getLowStockProducts() {
+        return fanOut(i -> shards[i].getLowStockProducts(), ShardedInventoryManager::concat);
+    }
+
+    /**
+     * Get all products of a type, gathered from every shard in parallel.
+     * With a single shard this is that shard's read-only view.
+     *
+     * @param type The product type
+     * @return The products of that type
+     */
+    public List<Product> getProductsByType(ProductType type) {
+        return fanOut(i -> shards[i].getProductsByType(type), ShardedInventoryManager::concat);
+    }
+
+    /**
+     * Get all products of a type.
+     *
+     * @param type The product type name ("Book" or "Electronics")
+     * @return The products of that type (empty if the type is unknown)
+     */
+    public List<Product> getProductsByType(String type) {
+        ProductType productType = ProductType.of(type);
+        return (productType != null) ? getProductsByType(productType) : Collections.emptyList();
+    }
+
+    /**
+     * Get how many products of a type there are.
+     *
+     * @param type The product type
+     * @return Number of products of that type
+     */
+    public int getProductCountByType(String type) {
+        int count = 0;
+        for (InventoryManager shard : shards) {
+            count += shard.getProductCountByType(type);
+        }
+        return count;
+    }
+
+    /**
+     * Get the low stock threshold.
+     *
+     * @return Quantity at or below which a product counts as low stock
+     */
+    public int getLowStockThreshold() {
+        return shards[0].getLowStockThreshold();
+    }
+
+    /**
+     * Change the low stock threshold on every shard, in parallel.
+     *
+     * @param threshold Quantity at or below which a product counts as low stock
+     */
+    public void setLowStockThreshold(int threshold) {
+        fanOut(i -> {
+            shards[i].setLowStockThreshold(threshold);
+            return 0;
+        }, Integer::sum);
+    }
+
+    /**
+     * Give one product its own reorder threshold. See InventoryManager.setReorderThreshold.
+     *
+     * @param productName Name of the product
+     * @param threshold   The threshold, or Product.INVENTORY_THRESHOLD
+     * @return true if the product exists
+     */
+    public boolean setReorderThreshold(String productName, int threshold) {
+        InventoryManager shard = (productName == null) ? shards[0] : shardFor(productName);
+        return shard.setReorderThreshold(productName, threshold);
+    }
+
+    /**
+     * Tell a listener about low stock on every shard. It may be called from
+     * several shards at once.
+     *
+     * @param listener The listener to add
+     */
+    public void addLowStockListener(LowStockListener listener) {
+        for (InventoryManager shard : shards) {
+            shard.addLowStockListener(listener);
+        }
+    }
+
+    /**
+     * Find products whose name starts with some text, across all shards.
+     *
+     * @param prefix The start of the name
+     * @param limit  The most products to return
+     * @return Up to limit products, in alphabetical order of name
+     */
+    public List<Product> searchByPrefix(String prefix, int limit) {
+        List<Product> found = fanOut(i -> shards[i].searchByPrefix(prefix, limit),
+                ShardedInventoryManager::concat);
+        // Each shard's list is in order; sort the merged list and keep the first ones
+        found.sort((a, b) -> InventoryManager.nameKey(a.getName()).compareTo(InventoryManager.nameKey(b.getName())));
+        return (found.size() > limit) ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * Attach the same journal to every shard. The journal is thread-safe,
+     * and shards writing at the same time share its disk writes.
+     *
+     * @param journal The journal, or null to stop journaling
+     */
+    public void setJournal(InventoryJournal journal) {
+        for (InventoryManager shard : shards) {
+            shard.setJournal(journal);
+        }
+    }
+
+    /**
+     * Change where every shard reports what it does.
+     *
+     * @param events The new event sink
+     */
+    public void setEventSink(InventoryEventSink events) {
+        for (InventoryManager shard : shards) {
+            shard.setEventSink(events);
+        }
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> joined = new ArrayList<>(first.size() + second.size());
+        joined.addAll(first);
+        joined.addAll(second);
+        return joined;
+    }
+
+    /**
+     * Ask every shard the same question on the pool and combine the answers.
+     *
+     * @param perShard Works out the answer for one shard, given its number
+     * @param combine  Joins two answers (shards in order, left before right)
+     * @return The combined answer
+     */
+    private <T> T fanOut(IntFunction<T> perShard, BinaryOperator<T> combine) {
+        if (shards.length == 1) {
+            return perShard.apply(0);
+        }
+        return pool.invoke(new ShardTask<>(perShard, combine, 0, shards.length));
+    }
+
+    /**
+     * Splits a range of shards in half until each task has one shard,
+     * runs the halves in parallel and joins their answers.
+     */
+    private static final class ShardTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;    // Tasks are never serialized
+
+        private final IntFunction<T> perShard;
+        private final BinaryOperator<T> combine;
+        private final int from;
+        private final int to;
+
+        ShardTask(IntFunction<T> perShard, BinaryOperator<T> combine, int from, int to) {
+            this.perShard = perShard;
+            this.combine = combine;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from == 1) {
+                return perShard.apply(from);
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask<T> left = new ShardTask<>(perShard, combine, from, middle);
+            ShardTask<T> right = new ShardTask<>(perShard, combine, middle, to);
+            left.fork();
+            T rightAnswer = right.compute();
+            return combine.apply(left.join(), rightAnswer);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// File: src/main/java/inventory/StudentDiscount.java
+package inventory;
+
+/**
+ * Student discount: 10% off books, no discount on anything else.
+ */
+public class StudentDiscount implements DiscountStrategy {
+
+    @Override
+    public String getName() {
+        return DiscountCalculator.STUDENT_DISCOUNT;
+    }
+
+    /**
+     * Check if students get a discount on a product type.
+     *
+     * @param productType The product type
+     * @return true for books
+     */
+    public boolean appliesTo(String productType) {
+        return appliesTo(ProductType.of(productType));
+    }
+
+    /**
+     * Check if students get a discount on a product type.
+     *
+     * @param productType The product type
+     * @return true for books
+     */
+    public boolean appliesTo(ProductType productType) {
+        return productType == ProductType.BOOK;
+    }
+
+    @Override
+    public double calculateDiscount(Product product, int quantity) {
+        return Money.toDollars(calculateDiscountCents(product, quantity));
+    }
+
+    @Override
+    public long calculateDiscountCents(Product product, int quantity) {
+        // Only books are eligible
+        if (!appliesTo(product.getProductType())) {
+            return 0;
+        }
+        long totalPrice = Money.times(product.getPriceCents(), quantity);
+        return Money.percentOf(totalPrice, 10); // 10% discount
+    }
+
+    @Override
+    public String describe(double discount) {
+        if (discount > 0) {
+            return "Student discount (10% off books): $" + Money.format(Money.toCents(discount));
+        }
+        return "No discount applied";
+    }
+}
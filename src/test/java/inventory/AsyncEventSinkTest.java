@@ -0,0 +1,66 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for AsyncEventSink.
+ * These tests check that the background writer prints the same text as the console sink.
+ */
+public class AsyncEventSinkTest {
+
+    /**
+     * Run the same inventory operations against a sink and return what it printed.
+     */
+    private void runOperations(InventoryEventSink sink) {
+        InventoryManager inventory = new InventoryManager(sink);
+        inventory.addProduct("Book", "Test Book", 20.0, 10);
+        inventory.addProduct("Toy", "Test Toy", 5.0, 1);        // Invalid type
+        inventory.sellProduct("Test Book", 2, "Student");
+        inventory.sellProduct("Missing Book", 1, "None");       // Not found
+        inventory.sellProduct("Test Book", 50, "None");         // Not enough stock
+        inventory.addStock("Test Book", 5);
+        inventory.addStock("Missing Book", 5);                  // Not found
+    }
+
+    /**
+     * Test that the async sink prints exactly what the console sink prints.
+     */
+    @Test
+    public void testSameOutputAsConsoleSink() {
+        // Print with the normal console sink
+        ByteArrayOutputStream consoleBytes = new ByteArrayOutputStream();
+        runOperations(new ConsoleEventSink(new PrintStream(consoleBytes, true)));
+
+        // Print with the async sink
+        ByteArrayOutputStream asyncBytes = new ByteArrayOutputStream();
+        try (AsyncEventSink sink = new AsyncEventSink(new PrintStream(asyncBytes, true), 64)) {
+            runOperations(sink);
+        }
+
+        // Same text, and the receipt is really there
+        assertEquals(consoleBytes.toString(), asyncBytes.toString());
+        assertTrue(asyncBytes.toString().contains("=== SALE COMPLETE ==="));
+        assertTrue(asyncBytes.toString().contains("Added 5 items to Test Book. New stock: 13"));
+    }
+
+    /**
+     * Test that flush waits until recorded events are printed.
+     */
+    @Test
+    public void testFlush() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (AsyncEventSink sink = new AsyncEventSink(new PrintStream(bytes, true), 16)) {
+            sink.stockAdded("Test Book", 3, 8);
+            sink.flush();
+
+            // Should be printed without closing the sink
+            assertTrue(bytes.toString().contains("Added 3 items to Test Book. New stock: 8"));
+            assertEquals(0, sink.getDroppedCount());
+        }
+    }
+}
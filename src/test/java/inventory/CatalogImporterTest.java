@@ -0,0 +1,107 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for CatalogImporter.
+ * These tests check that valid rows become products and bad rows are reported.
+ */
+public class CatalogImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeCatalog(String text) throws IOException {
+        Path file = tempDir.resolve("catalog.csv");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Test importing good rows, with a header and quoted names.
+     */
+    @Test
+    public void testImportValidRows() throws IOException {
+        Path file = writeCatalog("type,name,price,quantity\r\n"
+                + "Book,Java Programming,29.99,10\r\n"
+                + "Electronics,\"Cable, USB-C\",12.50,200\r\n"
+                + "\r\n"
+                + "Book,\"The \"\"Quoted\"\" Book\",3.00,4\r\n");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+
+        ImportReport report = new CatalogImporter().importCatalog(file, inventory);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(200, inventory.findProduct("cable, usb-c").getQuantity());
+        assertEquals("Electronics", inventory.findProduct("Cable, USB-C").getType());
+
+        // The factory's $5 minimum book price still applies
+        assertEquals(5.0, inventory.findProduct("The \"Quoted\" Book").getPrice());
+    }
+
+    /**
+     * Test that bad rows are skipped with their line number and reason.
+     */
+    @Test
+    public void testRejectedRows() throws IOException {
+        Path file = writeCatalog("Book,Java Programming,29.99,10\n"
+                + "Toy,Ball,5.00,3\n"
+                + "Book,Cheap Book,abc,3\n"
+                + "Electronics,Mouse,19.99,-1\n"
+                + "Book,JAVA PROGRAMMING,10.00,1\n"
+                + "Book,Only Three,1.00\n"
+                + "Electronics,Keyboard,49.99,12");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+
+        ImportReport report = new CatalogImporter().importCatalog(file, inventory);
+
+        assertEquals(7, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(5, report.getRejected());
+        assertEquals(2, inventory.getProductCount());
+
+        assertEquals(2, report.getRejections().get(0).getLine());
+        assertEquals("Unknown product type: Toy", report.getRejections().get(0).getReason());
+        assertEquals("Invalid price: abc", report.getRejections().get(1).getReason());
+        assertEquals("Invalid quantity: -1", report.getRejections().get(2).getReason());
+        assertEquals(5, report.getRejections().get(3).getLine());
+        assertTrue(report.getRejections().get(3).getReason().startsWith("Product already exists"));
+        assertEquals(6, report.getRejections().get(4).getLine());
+    }
+
+    /**
+     * Test that a file split into many small chunks imports the same
+     * products with the right line numbers.
+     */
+    @Test
+    public void testManyChunks() throws IOException {
+        StringBuilder text = new StringBuilder("type,name,price,quantity\n");
+        for (int i = 0; i < 1000; i++) {
+            String type = (i % 2 == 0) ? "Book" : "Electronics";
+            text.append(type).append(",Product ").append(i).append(',').append(10 + i % 100)
+                    .append(',').append(i).append('\n');
+        }
+        text.append("Book,Product 500,10.00,1\n");   // Duplicate on line 1002
+        Path file = writeCatalog(text.toString());
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+
+        ImportReport report = new CatalogImporter(64).importCatalog(file, inventory);
+
+        assertEquals(1001, report.getRowsRead());
+        assertEquals(1000, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(1002, report.getRejections().get(0).getLine());
+        assertEquals(999, inventory.findProduct("Product 999").getQuantity());
+        assertEquals(500, inventory.getProductCountByType("Book"));
+    }
+}
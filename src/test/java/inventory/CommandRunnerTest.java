@@ -0,0 +1,53 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for CommandRunner.
+ * These tests check that command streams change the inventory and are counted.
+ */
+public class CommandRunnerTest {
+
+    /**
+     * Test running a small command stream.
+     */
+    @Test
+    public void testRunCommands() throws IOException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        ByteArrayOutputStream errorText = new ByteArrayOutputStream();
+        CommandRunner runner = new CommandRunner(inventory, new PrintStream(errorText));
+
+        CommandRunner.Summary summary = runner.run(new StringReader(
+                "# Morning stock\n"
+                + "add,Book,Java Programming,29.99,10\n"
+                + "add,Electronics,\"Cable, USB-C\",12.50,20\n"
+                + "\n"
+                + "sell,java programming,3,Student\n"
+                + "sell,Cable, USB-C,1\n"           // Unquoted comma - too many fields
+                + "sell,\"Cable, USB-C\",5\n"
+                + "sell,Laptop,1\n"                 // No such product - fails
+                + "restock,Java Programming,4\n"
+                + "refund,Laptop,1\n"));           // Unknown command
+
+        assertEquals(6, summary.getCommands());
+        assertEquals(2, summary.getCount(CommandRunner.Command.ADD));
+        assertEquals(3, summary.getCount(CommandRunner.Command.SELL));
+        assertEquals(1, summary.getFailed());
+        assertEquals(2, summary.getMalformed());
+        assertTrue(errorText.toString().contains("Line 6"));
+        assertTrue(errorText.toString().contains("Unknown command: refund"));
+
+        assertEquals(11, inventory.findProduct("Java Programming").getQuantity());
+        assertEquals(15, inventory.findProduct("Cable, USB-C").getQuantity());
+        assertEquals(1250, inventory.findProduct("Cable, USB-C").getPriceCents());
+        assertTrue(summary.getLatency(CommandRunner.Command.SELL, 99) > 0);
+        assertEquals(0, summary.getLatency(CommandRunner.Command.STATS, 99));
+    }
+}
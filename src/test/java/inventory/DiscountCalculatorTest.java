@@ -1,6 +1,9 @@
 package inventory;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -96,6 +99,41 @@ public class DiscountCalculatorTest {
         assertEquals(expectedPrice, finalPrice, 0.01);
     }
 
+    /**
+     * Test that the best discount picks the cheapest price.
+     */
+    @Test
+    public void testBestDiscount() {
+        Product book = new Product("Test Book", "Book", 20.0, 10);
+        Product laptop = new Product("Test Laptop", "Electronics", 500.0, 10);
+
+        // 2 books: only the student discount applies
+        DiscountQuote quote = DiscountCalculator.bestDiscount(book, 2);
+        assertEquals(DiscountCalculator.STUDENT_DISCOUNT, quote.getStrategy().getName());
+        assertEquals(4.0, quote.getAmount(), 0.01);
+
+        // 5 books: bulk (15%) beats student (10%)
+        quote = DiscountCalculator.bestDiscount(book, 5);
+        assertEquals(DiscountCalculator.BULK_DISCOUNT, quote.getStrategy().getName());
+        assertTrue(quote.getDescription().contains("Bulk discount"));
+
+        // 1 laptop: nothing applies
+        assertEquals(0.0, DiscountCalculator.calculateDiscount(laptop, 1, "Best"));
+    }
+
+    /**
+     * Test looking up strategies by name.
+     */
+    @Test
+    public void testResolve() {
+        assertEquals("Student", DiscountCalculator.resolve("Student").getName());
+
+        // Unknown names fall back to no discount
+        assertEquals("None", DiscountCalculator.resolve("Coupon").getName());
+        assertFalse(DiscountCalculator.isValidDiscountType("Coupon"));
+        assertTrue(DiscountCalculator.isValidDiscountType("Best"));
+    }
+
     /**
      * Test discount description for student discount.
      */
@@ -111,4 +149,56 @@ public class DiscountCalculatorTest {
         assertTrue(description.contains("Student discount"));
         assertTrue(description.contains("$4.00"));
     }
+
+    /**
+     * Test that batch pricing gives exactly the same prices as pricing each
+     * sale with finalPriceCents, including rows that take the slow path.
+     */
+    @Test
+    public void testBatchPricesMatchScalar() {
+        Random random = new Random(42);
+        int count = 10_000;
+        long[] prices = new long[count];
+        int[] quantities = new int[count];
+        byte[] types = new byte[count];
+        byte[] discounts = new byte[count];
+        for (int i = 0; i < count; i++) {
+            prices[i] = random.nextInt(100_000);
+            quantities[i] = random.nextInt(12);
+            types[i] = (byte) random.nextInt(ProductType.count());
+            discounts[i] = (byte) random.nextInt(4);
+        }
+        long[] batch = new long[count];
+        DiscountCalculator.finalPricesCents(prices, quantities, types, discounts, batch, count);
+        assertMatchesScalar(prices, quantities, types, discounts, batch);
+
+        // A very expensive row sends the whole batch down the one-by-one path
+        prices[7] = 5_000_000_000_000L;
+        quantities[7] = 3;
+        DiscountCalculator.finalPricesCents(prices, quantities, types, discounts, batch, count);
+        assertMatchesScalar(prices, quantities, types, discounts, batch);
+    }
+
+    private static void assertMatchesScalar(long[] prices, int[] quantities, byte[] types,
+                                            byte[] discounts, long[] batch) {
+        String[] names = {"None", "Student", "Bulk", "Best"};
+        for (int i = 0; i < batch.length; i++) {
+            Product product = new Product("Row " + i, ProductType.fromCode(types[i]), 0.0, 100);
+            product.setPriceCents(prices[i]);
+            DiscountStrategy strategy = DiscountCalculator.resolve(names[discounts[i]]);
+            assertEquals(DiscountCalculator.finalPriceCents(product, quantities[i], strategy), batch[i], "row " + i);
+        }
+    }
+
+    /**
+     * Test batch codes for discount names.
+     */
+    @Test
+    public void testBatchCode() {
+        assertEquals(DiscountCalculator.BATCH_STUDENT, DiscountCalculator.batchCode("Student"));
+        assertEquals(DiscountCalculator.BATCH_BEST, DiscountCalculator.batchCode("Best"));
+        assertEquals(DiscountCalculator.BATCH_NONE, DiscountCalculator.batchCode("Coupon"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountCalculator.finalPricesCents(
+                new long[1], new int[1], new byte[1], new byte[]{9}, new long[1], 1));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for DiscountRuleEngine.
+ * These tests load rules files and check the discounts the promotions give.
+ * The engines don't register their promotions, so other tests see the usual discounts.
+ */
+public class DiscountRuleEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeRules(String text) throws IOException {
+        Path file = tempDir.resolve("discount-rules.txt");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Test that rules reproduce the built-in discounts, and that quantity
+     * tiers and price bands pick the biggest matching discount.
+     */
+    @Test
+    public void testRules() throws IOException {
+        Path file = writeRules("promotion,type,min quantity,min price,max price,percent off\n"
+                + "# Same as the built-in discounts\n"
+                + "Student,Book,1,0,*,10\n"
+                + "Bulk,*,5,0,*,15\n"
+                + "\n"
+                + "Summer,Electronics,2,100.00,500.00,20\n"
+                + "Summer,Electronics,10,100.00,*,25\n"
+                + "Summer,*,1,0,10.00,5\n");
+        DiscountRuleEngine engine = new DiscountRuleEngine(file, false);
+        assertEquals(5, engine.reload());
+
+        Product book = new Product("Test Book", "Book", 20.0, 100);
+        Product laptop = new Product("Test Laptop", "Electronics", 300.0, 100);
+        Product cable = new Product("Test Cable", "Electronics", 8.0, 100);
+        for (int quantity = 1; quantity <= 12; quantity++) {
+            for (Product product : new Product[]{book, laptop, cable}) {
+                assertEquals(DiscountCalculator.resolve("Student").calculateDiscountCents(product, quantity),
+                        engine.getPromotion("Student").calculateDiscountCents(product, quantity));
+                assertEquals(DiscountCalculator.resolve("Bulk").calculateDiscountCents(product, quantity),
+                        engine.getPromotion("Bulk").calculateDiscountCents(product, quantity));
+            }
+        }
+
+        DiscountStrategy summer = engine.getPromotion("Summer");
+        assertEquals(0, summer.calculateDiscountCents(laptop, 1));          // Below the 2 item tier
+        assertEquals(12000, summer.calculateDiscountCents(laptop, 2));      // 20% of $600
+        assertEquals(75000, summer.calculateDiscountCents(laptop, 10));     // 25% of $3000
+        assertEquals(40, summer.calculateDiscountCents(cable, 1));          // 5% of $8, any type under $10
+        assertEquals(0, summer.calculateDiscountCents(book, 3));            // $20 book - no band
+        assertEquals(0, summer.calculateDiscountCents(laptop, 0));          // No items, no discount
+    }
+
+    /**
+     * Test that a rule table with many rules gives the same discounts as
+     * checking every rule by hand.
+     */
+    @Test
+    public void testManyRulesMatchBruteForce() {
+        Random random = new Random(7);
+        List<DiscountRule> rules = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ProductType type = random.nextBoolean() ? null : ProductType.fromCode(random.nextInt(2));
+            long min = random.nextInt(50_000);
+            long max = random.nextInt(4) == 0 ? DiscountRule.NO_MAX_PRICE : min + 1 + random.nextInt(50_000);
+            rules.add(new DiscountRule("Promo" + random.nextInt(3), type, random.nextInt(20), min, max,
+                    1 + random.nextInt(40)));
+        }
+        DiscountRuleEngine engine = new DiscountRuleEngine(null, false);
+        engine.setRules(rules);
+        assertEquals(300, engine.getRuleCount());
+
+        for (int i = 0; i < 5000; i++) {
+            String promotion = "Promo" + random.nextInt(3);
+            Product product = new Product("P", ProductType.fromCode(random.nextInt(2)), 0.0, 100);
+            product.setPriceCents(random.nextInt(120_000));
+            int quantity = random.nextInt(25);
+
+            int best = 0;
+            for (DiscountRule rule : rules) {
+                if (rule.getPromotion().equals(promotion) && rule.appliesTo(product.getProductType())
+                        && quantity >= rule.getMinQuantity()
+                        && product.getPriceCents() >= rule.getMinPriceCents()
+                        && product.getPriceCents() < rule.getMaxPriceCents()) {
+                    best = Math.max(best, rule.getPercentOff());
+                }
+            }
+            long expected = Money.percentOf(Money.times(product.getPriceCents(), quantity), best);
+            assertEquals(expected, engine.getPromotion(promotion).calculateDiscountCents(product, quantity));
+        }
+    }
+
+    /**
+     * Test that reloading swaps the rules, and a broken file keeps the old ones.
+     */
+    @Test
+    public void testReload() throws IOException {
+        Path file = writeRules("Flash,Book,1,0,*,30\n");
+        DiscountRuleEngine engine = new DiscountRuleEngine(file, false);
+        engine.reload();
+        PromotionDiscount flash = engine.getPromotion("Flash");
+        Product book = new Product("Test Book", "Book", 10.0, 100);
+        assertEquals(300, flash.calculateDiscountCents(book, 1));
+        assertFalse(engine.reloadIfChanged());
+
+        // The same strategy object sees the new rules
+        writeRules("Flash,Book,1,0,*,50\nOther,*,1,0,*,5\n");
+        engine.reload();
+        assertEquals(500, flash.calculateDiscountCents(book, 1));
+        assertEquals(2, engine.getRuleCount());
+
+        // A mistake is reported with its line, and nothing changes
+        writeRules("Flash,Book,1,0,*,50\nFlash,Toy,1,0,*,5\n");
+        IOException error = assertThrows(IOException.class, engine::reload);
+        assertTrue(error.getMessage().startsWith("Line 2:"));
+        assertEquals(500, flash.calculateDiscountCents(book, 1));
+
+        // Dropping a promotion leaves its strategy giving nothing
+        writeRules("Other,*,1,0,*,5\n");
+        engine.reload();
+        assertEquals(0, flash.calculateDiscountCents(book, 1));
+    }
+
+    /**
+     * Test that invalid lines are rejected.
+     */
+    @Test
+    public void testParseErrors() {
+        assertThrows(IOException.class, () -> DiscountRuleEngine.parse(new StringReader("Flash,Book,1,0,*\n")));
+        assertThrows(IOException.class, () -> DiscountRuleEngine.parse(new StringReader("Flash,Book,x,0,*,5\n")));
+        assertThrows(IOException.class, () -> DiscountRuleEngine.parse(new StringReader("Flash,Book,1,9,5,5\n")));
+        assertThrows(IOException.class, () -> DiscountRuleEngine.parse(new StringReader("Flash,Book,1,0,*,150\n")));
+    }
+}
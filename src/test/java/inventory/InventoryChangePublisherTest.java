@@ -0,0 +1,198 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for InventoryChangePublisher.
+ * These tests subscribe to an inventory's changes and check what arrives.
+ */
+public class InventoryChangePublisherTest {
+
+    /**
+     * A subscriber that keeps everything it is sent. It asks for nothing by
+     * itself - tests call request to say when it is ready.
+     */
+    private static class Collector implements Flow.Subscriber<InventoryChange> {
+        final List<InventoryChange> received = new ArrayList<>();
+        final CountDownLatch subscribed = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        private CountDownLatch expected = new CountDownLatch(0);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribed.countDown();
+        }
+
+        @Override
+        public synchronized void onNext(InventoryChange change) {
+            received.add(change);
+            expected.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        /**
+         * Ask for some changes and wait for them to arrive.
+         */
+        void requestAndWait(int n) throws InterruptedException {
+            synchronized (this) {
+                expected = new CountDownLatch(n);
+            }
+            CountDownLatch waiting = expected;
+            subscription.request(n);
+            assertTrue(waiting.await(5, TimeUnit.SECONDS), "changes did not arrive");
+        }
+
+        synchronized List<InventoryChange> received() {
+            return new ArrayList<>(received);
+        }
+    }
+
+    private static Collector subscribe(InventoryManager inventory, int bufferSize, boolean coalesce)
+            throws InterruptedException {
+        Collector collector = new Collector();
+        inventory.getChanges().subscribe(collector, bufferSize, coalesce);
+        assertTrue(collector.subscribed.await(5, TimeUnit.SECONDS));
+        return collector;
+    }
+
+    /**
+     * Test that each kind of change arrives, in order, with the stock and price after it.
+     */
+    @Test
+    public void testChangesArriveInOrder() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        Collector collector = subscribe(inventory, 16, false);
+
+        inventory.addProduct("Book", "Test Book", 20.0, 10);
+        inventory.sellProduct("Test Book", 3, "None");
+        inventory.addStock("Test Book", 5);
+        inventory.findProduct("Test Book").setPrice(18.50);
+        inventory.sellProduct("Test Book", 100, "None");   // Fails - no change
+        collector.requestAndWait(4);
+
+        List<InventoryChange> received = collector.received();
+        assertEquals(4, received.size());
+        assertEquals(InventoryChange.Kind.PRODUCT_ADDED, received.get(0).getKind());
+        assertEquals(10, received.get(0).getQuantity());
+        assertEquals(InventoryChange.Kind.STOCK_SOLD, received.get(1).getKind());
+        assertEquals(-3, received.get(1).getQuantityChange());
+        assertEquals(7, received.get(1).getQuantity());
+        assertEquals(InventoryChange.Kind.STOCK_ADDED, received.get(2).getKind());
+        assertEquals(12, received.get(2).getQuantity());
+        assertEquals(InventoryChange.Kind.PRICE_CHANGED, received.get(3).getKind());
+        assertEquals(1850, received.get(3).getPriceCents());
+
+        inventory.getChanges().close();
+        assertTrue(collector.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, inventory.getChanges().getSubscriberCount());
+    }
+
+    /**
+     * Test that a subscriber that isn't ready only holds a full buffer, and
+     * the rest is dropped instead of slowing down sales.
+     */
+    @Test
+    public void testBufferIsBounded() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Test Book", 20.0, 1000);
+        Collector collector = subscribe(inventory, 8, false);
+
+        for (int i = 0; i < 100; i++) {
+            inventory.sellProduct("Test Book", 1, "None");
+        }
+        assertEquals(92, inventory.getChanges().getDroppedCount());
+
+        collector.requestAndWait(8);
+        assertEquals(8, collector.received().size());
+        assertEquals(999, collector.received().get(0).getQuantity());
+    }
+
+    /**
+     * Test that each sale carries the stock its own compare-and-set left,
+     * even while other threads sell the same product: every stock level from
+     * 999 down to 0 is reported exactly once.
+     */
+    @Test
+    public void testConcurrentSalesCarryTheirOwnStock() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Test Book", 20.0, 1000);
+        Collector collector = subscribe(inventory, 1000, false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 250; i++) {
+                    inventory.sellProduct("Test Book", 1, "None");
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        collector.requestAndWait(1000);
+
+        boolean[] seen = new boolean[1000];
+        for (InventoryChange change : collector.received()) {
+            assertFalse(seen[change.getQuantity()], "stock " + change.getQuantity() + " reported twice");
+            seen[change.getQuantity()] = true;
+        }
+    }
+
+    /**
+     * Test that coalescing combines every waiting change to the same product,
+     * whatever its kind, into one change with their total.
+     */
+    @Test
+    public void testCoalescing() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Book A", 20.0, 100);
+        inventory.addProduct("Book", "Book B", 10.0, 100);
+        Collector collector = subscribe(inventory, 4, true);
+
+        for (int i = 0; i < 50; i++) {
+            inventory.sellProduct("Book A", 1, "None");
+            inventory.sellProduct("Book B", 2, "None");
+        }
+        inventory.findProduct("Book A").setPrice(15.0);
+        inventory.addStock("Book B", 30);
+        inventory.addProduct("Book", "Book C", 5.0, 10);
+        inventory.sellProduct("Book C", 4, "None");
+        collector.requestAndWait(3);
+
+        List<InventoryChange> received = collector.received();
+        assertEquals(3, received.size());
+        assertEquals("Book A", received.get(0).getProductName());
+        assertEquals(InventoryChange.Kind.STOCK_SOLD, received.get(0).getKind());
+        assertEquals(-50, received.get(0).getQuantityChange());
+        assertEquals(50, received.get(0).getQuantity());
+        assertEquals(1500, received.get(0).getPriceCents());
+        assertEquals(51, received.get(0).getCoalescedCount());
+        assertEquals(InventoryChange.Kind.STOCK_SOLD, received.get(1).getKind());
+        assertEquals(-70, received.get(1).getQuantityChange());
+        assertEquals(30, received.get(1).getQuantity());
+        assertEquals(InventoryChange.Kind.PRODUCT_ADDED, received.get(2).getKind());
+        assertEquals(6, received.get(2).getQuantityChange());
+        assertEquals(6, received.get(2).getQuantity());
+        assertEquals(0, inventory.getChanges().getDroppedCount());
+    }
+}
@@ -0,0 +1,129 @@
+package inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for InventoryHttpServer.
+ * These tests send real requests to a server on a free port.
+ */
+public class InventoryHttpServerTest {
+
+    private InventoryManager inventory;
+    private InventoryHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Java Programming", 29.99, 10);
+        inventory.addProduct("Electronics", "Laptop", 599.99, 2);
+        server = new InventoryHttpServer(inventory, 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Test finding products.
+     */
+    @Test
+    public void testFindProduct() throws Exception {
+        HttpResponse<String> found = send("GET", "/products/java%20programming");
+        assertEquals(200, found.statusCode());
+        assertTrue(found.body().contains("\"name\":\"Java Programming\""));
+        assertTrue(found.body().contains("\"quantity\":10"));
+
+        assertEquals(404, send("GET", "/products/Tablet").statusCode());
+        assertEquals(405, send("POST", "/products/Laptop").statusCode());
+    }
+
+    /**
+     * Test selling and restocking.
+     */
+    @Test
+    public void testSellAndRestock() throws Exception {
+        HttpResponse<String> sold = send("POST", "/products/Java%20Programming/sell?quantity=3&discount=Student");
+        assertEquals(200, sold.statusCode());
+        assertTrue(sold.body().contains("\"status\":\"SOLD\""));
+        assertEquals(7, inventory.findProduct("Java Programming").getQuantity());
+
+        HttpResponse<String> tooMany = send("POST", "/products/Laptop/sell?quantity=5");
+        assertEquals(409, tooMany.statusCode());
+        assertTrue(tooMany.body().contains("INSUFFICIENT_STOCK"));
+
+        assertEquals(400, send("POST", "/products/Laptop/sell?quantity=abc").statusCode());
+        assertEquals(400, send("POST", "/products/Laptop/sell?quantity=1&discount=Friends").statusCode());
+
+        assertEquals(200, send("POST", "/products/Laptop/restock?quantity=8").statusCode());
+        assertEquals(10, inventory.findProduct("Laptop").getQuantity());
+    }
+
+    /**
+     * Test that sales and restocks over HTTP are reported to the event sink,
+     * like the same commands typed at the console.
+     */
+    @Test
+    public void testSalesAreReported() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        InventoryManager reported = new InventoryManager(new InventoryEventSink() {
+            public void productAdded(Product product) { }
+            public void productAddFailed(String name, String reason) { }
+            public void saleCompleted(SaleResult result) { events.add("sold " + result.getProductName()); }
+            public void saleFailed(SaleResult result) { events.add("failed " + result.getProductName()); }
+            public void stockAdded(String productName, int quantity, int newStock) { events.add("restocked " + productName); }
+            public void stockAddFailed(String productName, int quantity) { }
+        });
+        reported.addProduct("Electronics", "Phone", 300.0, 1);
+        server.stop(0);
+        server = new InventoryHttpServer(reported, 0);
+        server.start();
+
+        assertEquals(200, send("POST", "/products/Phone/sell?quantity=1").statusCode());
+        assertEquals(409, send("POST", "/products/Phone/sell?quantity=1").statusCode());
+        assertEquals(200, send("POST", "/products/Phone/restock?quantity=4").statusCode());
+        assertEquals(List.of("sold Phone", "failed Phone", "restocked Phone"), events);
+    }
+
+    /**
+     * Test the list and statistics endpoints.
+     */
+    @Test
+    public void testListsAndStatistics() throws Exception {
+        HttpResponse<String> books = send("GET", "/types/Book/products");
+        assertEquals(200, books.statusCode());
+        assertTrue(books.body().startsWith("[{\"name\":\"Java Programming\""));
+        assertEquals(404, send("GET", "/types/Toy/products").statusCode());
+
+        HttpResponse<String> lowStock = send("GET", "/low-stock");
+        assertTrue(lowStock.body().contains("Laptop"));
+        assertFalse(lowStock.body().contains("Java Programming"));
+
+        HttpResponse<String> statistics = send("GET", "/statistics");
+        assertEquals(200, statistics.statusCode());
+        assertTrue(statistics.body().contains("\"productCount\":2"));
+        assertTrue(statistics.body().contains("\"lowStockCount\":1"));
+    }
+}
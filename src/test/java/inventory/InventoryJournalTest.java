@@ -0,0 +1,226 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for InventoryJournal.
+ * These tests check that replaying a journal rebuilds the inventory.
+ */
+public class InventoryJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Make some changes with a journal attached, then return the journal file.
+     */
+    private Path recordChanges(InventoryJournal.Mode mode) throws IOException {
+        Path file = tempDir.resolve("inventory.journal");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (InventoryJournal journal = new InventoryJournal(file, mode)) {
+            inventory.setJournal(journal);
+            inventory.addProduct("Book", "Java Programming", 29.99, 10);
+            inventory.addProduct("Electronics", "Laptop", 599.99, 5);
+            inventory.sellProduct("Java Programming", 3, "Student");
+            inventory.addStock("Laptop", 2);
+            inventory.findProduct("Laptop").setPrice(549.99);
+            inventory.sellProduct("Laptop", 100, "None");  // Fails - nothing recorded
+        }
+        return file;
+    }
+
+    /**
+     * Check that a replayed inventory matches the changes made in recordChanges.
+     */
+    private void checkReplay(Path file) throws IOException {
+        InventoryManager replayed = new InventoryManager(NoOpEventSink.INSTANCE);
+        assertEquals(5, InventoryJournal.replay(file, replayed));
+
+        assertEquals(2, replayed.getProductCount());
+        assertEquals(7, replayed.findProduct("Java Programming").getQuantity());
+        assertEquals(7, replayed.findProduct("Laptop").getQuantity());
+        assertEquals(549.99, replayed.findProduct("Laptop").getPrice());
+        assertEquals(7 * 29.99 + 7 * 549.99, replayed.getTotalInventoryValue(), 0.001);
+    }
+
+    /**
+     * Test replaying a journal written in SYNC mode.
+     */
+    @Test
+    public void testReplaySync() throws IOException {
+        checkReplay(recordChanges(InventoryJournal.Mode.SYNC));
+    }
+
+    /**
+     * Test replaying a journal written in ASYNC mode (closing it writes everything).
+     */
+    @Test
+    public void testReplayAsync() throws IOException {
+        checkReplay(recordChanges(InventoryJournal.Mode.ASYNC));
+    }
+
+    /**
+     * Test that a record cut short by a crash is ignored.
+     */
+    @Test
+    public void testReplayStopsAtTornRecord() throws IOException {
+        Path file = recordChanges(InventoryJournal.Mode.SYNC);
+
+        // Add half a record to the end, as if the process died mid-write
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        checkReplay(file);
+
+        // The torn record is cut off, so changes recorded after a restart are replayed too
+        InventoryManager restarted = new InventoryManager(NoOpEventSink.INSTANCE);
+        InventoryJournal.replay(file, restarted);
+        try (InventoryJournal journal = new InventoryJournal(file, InventoryJournal.Mode.SYNC)) {
+            restarted.setJournal(journal);
+            restarted.addStock("Laptop", 3);
+        }
+        InventoryManager replayed = new InventoryManager(NoOpEventSink.INSTANCE);
+        assertEquals(6, InventoryJournal.replay(file, replayed));
+        assertEquals(10, replayed.findProduct("Laptop").getQuantity());
+    }
+
+    /**
+     * Test that products sold by other threads the moment they are added
+     * replay to the same stock: each product's record must come before its
+     * sales and hold its starting stock.
+     */
+    @Test
+    public void testReplayProductsSoldWhileAdding() throws Exception {
+        Path file = tempDir.resolve("racing.journal");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        int count = 300;
+        try (InventoryJournal journal = new InventoryJournal(file, InventoryJournal.Mode.SYNC)) {
+            inventory.setJournal(journal);
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < count; i++) {
+                        inventory.addProduct("Book", "Book " + i, 10.0, 50);
+                    }
+                }));
+                for (int t = 0; t < 3; t++) {
+                    results.add(pool.submit(() -> {
+                        // Sell each product as soon as it can be found
+                        for (int i = 0; i < count; i++) {
+                            while (inventory.findProduct("Book " + i) == null) {
+                                Thread.onSpinWait();
+                            }
+                            inventory.sellProduct("Book " + i, 1, "None");
+                        }
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        InventoryManager replayed = new InventoryManager(NoOpEventSink.INSTANCE);
+        assertEquals(count * 4, InventoryJournal.replay(file, replayed));
+        for (int i = 0; i < count; i++) {
+            assertEquals(47, replayed.findProduct("Book " + i).getQuantity());
+        }
+        assertEquals(inventory.getTotalInventoryValueCents(), replayed.getTotalInventoryValueCents());
+    }
+
+    /**
+     * Test that reset empties the journal and starts a new generation.
+     */
+    @Test
+    public void testReset() throws IOException {
+        Path file = tempDir.resolve("reset.journal");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        long emptySize;
+        try (InventoryJournal journal = new InventoryJournal(file, InventoryJournal.Mode.ASYNC)) {
+            emptySize = Files.size(file);
+            assertEquals(1, journal.getGeneration());
+            inventory.setJournal(journal);
+            inventory.addProduct("Book", "Test Book", 20.0, 10);
+            journal.reset();
+            assertEquals(2, journal.getGeneration());
+            assertThrows(IllegalArgumentException.class, () -> journal.reset(2));
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(emptySize, channel.size());
+        }
+        assertEquals(2, InventoryJournal.readGeneration(file));
+    }
+
+    /**
+     * Test that a crash between saving a snapshot and resetting the journal
+     * doesn't apply the journal's changes twice, and that changes recorded
+     * after the reset are replayed on top of the snapshot.
+     */
+    @Test
+    public void testSnapshotSavedBeforeReset() throws IOException {
+        Path file = recordChanges(InventoryJournal.Mode.SYNC);
+        Path snapshot = tempDir.resolve("inventory.snapshot");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        InventoryJournal.replay(file, inventory);
+        long generation = InventoryJournal.readGeneration(file) + 1;
+        InventorySnapshot.save(inventory, snapshot, generation);
+        // ... and the program dies before resetting the journal
+
+        InventoryManager restarted = InventorySnapshot.load(snapshot, NoOpEventSink.INSTANCE);
+        assertEquals(generation, InventorySnapshot.readJournalGeneration(snapshot));
+        assertEquals(0, InventoryJournal.replay(file, restarted, generation));
+        assertEquals(7, restarted.findProduct("Laptop").getQuantity());
+
+        // This time the journal is moved on, and new changes come after the snapshot
+        try (InventoryJournal journal = new InventoryJournal(file, InventoryJournal.Mode.SYNC)) {
+            journal.reset(generation);
+            restarted.setJournal(journal);
+            restarted.addStock("Laptop", 3);
+        }
+        InventoryManager recovered = InventorySnapshot.load(snapshot, NoOpEventSink.INSTANCE);
+        assertEquals(1, InventoryJournal.replay(file, recovered, generation));
+        assertEquals(10, recovered.findProduct("Laptop").getQuantity());
+    }
+
+    /**
+     * Test that changes carry on in memory once the journal has stopped,
+     * and that the journal keeps the error instead of failing them.
+     */
+    @Test
+    public void testStoppedJournal() throws IOException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        InventoryJournal journal = new InventoryJournal(tempDir.resolve("stopped.journal"), InventoryJournal.Mode.SYNC);
+        inventory.setJournal(journal);
+        inventory.addProduct("Book", "Test Book", 20.0, 10);
+        assertNull(journal.getFailure());
+        journal.close();
+
+        assertTrue(inventory.sellProductForResult("Test Book", 3, "None").isSuccessful());
+        assertTrue(inventory.addProduct("Electronics", "Laptop", 500.0, 2));
+        assertNotNull(inventory.findProduct("Laptop"));
+        assertEquals(7, inventory.findProduct("Test Book").getQuantity());
+        assertEquals(7 * 20.0 + 2 * 500.0, inventory.getTotalInventoryValue(), 0.001);
+
+        assertNotNull(journal.getFailure());
+        assertThrows(UncheckedIOException.class, journal::sync);
+        assertThrows(IOException.class, () -> journal.reset(5));
+    }
+}
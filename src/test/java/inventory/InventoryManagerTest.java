@@ -2,6 +2,18 @@ package inventory;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -56,6 +68,36 @@ public class InventoryManagerTest {
         assertNull(notFound);
     }
 
+    /**
+     * Test that finding a product ignores upper/lower case.
+     */
+    @Test
+    public void testFindProductIgnoresCase() {
+        // Add a product
+        inventory.addProduct("Book", "Java Programming", 29.99, 10);
+
+        // Different spellings of the same name should find it
+        assertNotNull(inventory.findProduct("java programming"));
+        assertNotNull(inventory.findProduct("JAVA PROGRAMMING"));
+        assertNull(inventory.findProduct("Java"));
+    }
+
+    /**
+     * Test that a second product with the same name is rejected.
+     */
+    @Test
+    public void testAddDuplicateProduct() {
+        // Add a product
+        assertTrue(inventory.addProduct("Book", "Test Book", 20.0, 5));
+
+        // Same name with different case should be rejected
+        assertFalse(inventory.addProduct("Electronics", "TEST BOOK", 50.0, 1));
+
+        // The original product should be unchanged
+        assertEquals(1, inventory.getProductCount());
+        assertEquals("Book", inventory.findProduct("test book").getType());
+    }
+
     /**
      * Test selling a product.
      */
@@ -94,6 +136,88 @@ public class InventoryManagerTest {
         assertEquals(2, product.getQuantity());
     }
 
+    /**
+     * Test selling a whole order in one call.
+     */
+    @Test
+    public void testSellProducts() {
+        // Add some products
+        inventory.addProduct("Book", "Test Book", 20.0, 10);
+        inventory.addProduct("Electronics", "Test Phone", 200.0, 1);
+
+        // One good line, one unknown product, one with too few items
+        List<SaleResult> results = inventory.sellProducts(Arrays.asList(
+                new OrderLine("Test Book", 2, "Student"),
+                new OrderLine("Missing Product", 1, "None"),
+                new OrderLine("Test Phone", 3, "None")));
+
+        // One result per line, in order
+        assertEquals(3, results.size());
+
+        SaleResult sold = results.get(0);
+        assertTrue(sold.isSuccessful());
+        assertEquals(40.0, sold.getOriginalTotal(), 0.01);
+        assertEquals(4.0, sold.getDiscount(), 0.01);   // 10% student discount
+        assertEquals(36.0, sold.getFinalPrice(), 0.01);
+        assertEquals(8, sold.getRemainingStock());
+
+        assertEquals(SaleResult.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(SaleResult.Status.INSUFFICIENT_STOCK, results.get(2).getStatus());
+
+        // Failed lines don't change stock
+        assertEquals(1, inventory.findProduct("Test Phone").getQuantity());
+    }
+
+    /**
+     * Test many threads selling the same product at once.
+     * Exactly the available stock should be sold - never more.
+     */
+    @Test
+    public void testConcurrentSalesNeverOversell() throws Exception {
+        int threads = 8;
+        int attemptsPerThread = 500;
+        int stock = 2000; // Half of the total attempts can succeed
+
+        inventory.addProduct("Book", "Popular Book", 20.0, stock);
+
+        // Sales print receipts, so hide the console while the threads run
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            // Start all threads together to get as much contention as possible
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int sold = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (inventory.sellProduct("Popular Book", 1, "None")) {
+                            sold++;
+                        }
+                        // Stock must never go below zero, even for a moment
+                        assertTrue(inventory.findProduct("Popular Book").getQuantity() >= 0);
+                    }
+                    return sold;
+                }));
+            }
+            start.countDown();
+
+            int totalSold = 0;
+            for (Future<Integer> result : results) {
+                totalSold += result.get(30, TimeUnit.SECONDS);
+            }
+
+            // Every item was sold exactly once
+            assertEquals(stock, totalSold);
+            assertEquals(0, inventory.findProduct("Popular Book").getQuantity());
+        } finally {
+            pool.shutdownNow();
+            System.setOut(console);
+        }
+    }
+
     /**
      * Test adding stock to existing product.
      */
@@ -113,6 +237,61 @@ public class InventoryManagerTest {
         assertEquals(8, product.getQuantity()); // 3 + 5 = 8
     }
 
+    /**
+     * Test getting products by type, with counts and values.
+     */
+    @Test
+    public void testGetProductsByType() {
+        inventory.addProduct("Book", "Book 1", 20.0, 5);         // Value: $100
+        inventory.addProduct("Book", "Book 2", 10.0, 3);         // Value: $30
+        inventory.addProduct("Electronics", "Phone", 300.0, 2);  // Value: $600
+
+        var books = inventory.getProductsByType("Book");
+        assertEquals(2, books.size());
+        assertEquals("Book 1", books.get(0).getName());
+        assertEquals(2, inventory.getProductCountByType("Book"));
+        assertEquals(130.0, inventory.getInventoryValueByType("Book"), 0.001);
+
+        // Value follows sales
+        inventory.sellProduct("Phone", 1, "None");
+        assertEquals(300.0, inventory.getInventoryValueByType("Electronics"), 0.001);
+
+        // Unknown types are empty, and the lists can't be changed from outside
+        assertTrue(inventory.getProductsByType("Toy").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> books.add(null));
+
+        // A list already handed out keeps the products it had
+        inventory.addProduct("Book", "Book 3", 15.0, 1);
+        assertEquals(2, books.size());
+        assertEquals(3, inventory.getProductsByType("Book").size());
+    }
+
+    /**
+     * Test that the product lists can be read while another thread adds products.
+     */
+    @Test
+    public void testReadProductsByTypeWhileAdding() throws Exception {
+        InventoryManager quiet = new InventoryManager(NoOpEventSink.INSTANCE);
+        Thread adder = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                quiet.addProduct(i % 2 == 0 ? "Book" : "Electronics", "Product " + i, 1.0, 1);
+            }
+        });
+        adder.start();
+        int seen = 0;
+        while (adder.isAlive() || seen < 10_000) {
+            List<Product> books = quiet.getProductsByType(ProductType.BOOK);
+            assertTrue(books.size() >= seen);
+            for (Product book : books) {
+                assertEquals(ProductType.BOOK, book.getProductType());
+            }
+            seen = books.size();
+            assertTrue(quiet.getProductCount() >= seen);
+        }
+        adder.join();
+        assertEquals(10_000, quiet.getProductCountByType("Book"));
+    }
+
     /**
      * Test getting low stock products.
      */
@@ -130,6 +309,173 @@ public class InventoryManagerTest {
         assertEquals(2, lowStockProducts.size());
     }
 
+    /**
+     * Test that the low stock list follows sales, restocks and the threshold.
+     */
+    @Test
+    public void testLowStockFollowsChanges() {
+        inventory.addProduct("Book", "Test Book", 20.0, 7);
+        assertTrue(inventory.getLowStockProducts().isEmpty());
+
+        // Selling down to 5 makes it low stock
+        inventory.sellProduct("Test Book", 2, "None");
+        assertEquals(1, inventory.getLowStockProducts().size());
+
+        // Restocking takes it off the list again
+        inventory.addStock("Test Book", 10);
+        assertTrue(inventory.getLowStockProducts().isEmpty());
+
+        // Raising the threshold puts it back
+        inventory.setLowStockThreshold(20);
+        assertEquals(1, inventory.getLowStockProducts().size());
+    }
+
+    /**
+     * Test that low stock listeners hear once when a product drops to its
+     * own reorder threshold, and once when it is restocked above it.
+     */
+    @Test
+    public void testLowStockAlerts() {
+        List<String> alerts = new ArrayList<>();
+        inventory.addLowStockListener(new LowStockListener() {
+            @Override
+            public void lowStock(Product product, int quantity, int threshold) {
+                alerts.add("low " + product.getName() + " " + quantity + "/" + threshold);
+            }
+
+            @Override
+            public void restocked(Product product, int quantity, int threshold) {
+                alerts.add("restocked " + product.getName() + " " + quantity);
+            }
+        });
+        inventory.addProduct("Book", "Test Book", 20.0, 30);
+        inventory.addProduct("Book", "Other Book", 20.0, 30);
+        assertTrue(inventory.setReorderThreshold("Test Book", 10));
+        assertFalse(inventory.setReorderThreshold("Missing Book", 10));
+
+        // Only the sale that crosses the threshold causes an alert
+        for (int i = 0; i < 25; i++) {
+            inventory.sellProduct("Test Book", 1, "None");
+        }
+        assertEquals(List.of("low Test Book 10/10"), alerts);
+        assertEquals(1, inventory.getLowStockProducts().size());   // Other Book uses the default 5
+
+        // A restock that stays low is quiet; one above the threshold re-arms the alert
+        inventory.addStock("Test Book", 3);
+        inventory.addStock("Test Book", 10);
+        inventory.sellProduct("Test Book", 10, "None");
+        assertEquals(List.of("low Test Book 10/10", "restocked Test Book 18", "low Test Book 8/10"), alerts);
+
+        // Going back to the inventory's threshold counts as a crossing too
+        inventory.setReorderThreshold("Test Book", Product.INVENTORY_THRESHOLD);
+        assertEquals("restocked Test Book 8", alerts.get(3));
+    }
+
+    /**
+     * Test that the total value follows sales, restocks and price changes.
+     */
+    @Test
+    public void testInventoryValueFollowsChanges() {
+        inventory.addProduct("Book", "Test Book", 20.0, 10);   // Value: $200
+
+        inventory.sellProduct("Test Book", 4, "None");          // 6 left: $120
+        assertEquals(120.0, inventory.getTotalInventoryValue(), 0.001);
+
+        inventory.addStock("Test Book", 4);                     // 10 again: $200
+        assertEquals(200.0, inventory.getTotalInventoryValue(), 0.001);
+
+        inventory.findProduct("Test Book").setPrice(25.0);      // 10 at $25: $250
+        assertEquals(250.0, inventory.getTotalInventoryValue(), 0.001);
+    }
+
+    /**
+     * Test that the running totals are still right after many threads
+     * have sold and restocked at the same time.
+     */
+    @Test
+    public void testAggregatesUnderConcurrentChanges() throws Exception {
+        InventoryManager quiet = new InventoryManager(NoOpEventSink.INSTANCE);
+        for (int i = 0; i < 10; i++) {
+            quiet.addProduct("Book", "Book " + i, 10.0 + i, 10);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String name = "Book " + ((seed + i) % 10);
+                        if ((i + seed) % 2 == 0) {
+                            quiet.sellProduct(name, 3, "None");
+                        } else {
+                            quiet.addStock(name, 3);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Work out the expected figures the slow way and compare
+        double expectedValue = 0.0;
+        int expectedLowStock = 0;
+        for (int i = 0; i < 10; i++) {
+            Product product = quiet.findProduct("Book " + i);
+            expectedValue += product.getPrice() * product.getQuantity();
+            if (product.getQuantity() <= 5) {
+                expectedLowStock++;
+            }
+        }
+        assertEquals(expectedValue, quiet.getTotalInventoryValue(), 0.001);
+        assertEquals(expectedLowStock, quiet.getLowStockProducts().size());
+    }
+
+    /**
+     * Test that the total value is exact when many threads keep moving one
+     * product's stock and price back and forth, so its value keeps
+     * returning to the same figures.
+     */
+    @Test
+    public void testValueUnderRacingChangesToOneProduct() throws Exception {
+        InventoryManager quiet = new InventoryManager(NoOpEventSink.INSTANCE);
+        quiet.addProduct("Book", "Test Book", 10.0, 100);
+        Product book = quiet.findProduct("Test Book");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        if ((i + seed) % 3 == 0) {
+                            book.setPriceCents((i % 2 == 0) ? 1000 : 2000);
+                        } else if ((i + seed) % 3 == 1) {
+                            book.sell(1);
+                        } else {
+                            book.addStock(1);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long expected = book.getPriceCents() * book.getQuantity();
+        assertEquals(expected, quiet.getTotalInventoryValueCents());
+        assertEquals(Money.toDollars(expected), quiet.getInventoryValueByType("Book"), 0.001);
+    }
+
     /**
      * Test inventory statistics.
      */
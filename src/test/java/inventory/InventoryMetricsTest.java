@@ -0,0 +1,100 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for InventoryMetrics and LatencyHistogram.
+ * These tests check that operations and failures are counted and that
+ * percentiles read back from the histogram are close to the real values.
+ */
+public class InventoryMetricsTest {
+
+    /**
+     * Test percentiles on known values.
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+
+        // 1 to 10000 microseconds
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(10_000, histogram.getCount());
+
+        // Each reading may be up to one bucket (1/16) above the real value
+        assertEquals(5_000_000, histogram.getPercentile(50), 5_000_000 / 16.0);
+        assertEquals(9_900_000, histogram.getPercentile(99), 9_900_000 / 16.0);
+        assertTrue(histogram.getMax() >= 10_000_000);
+        assertTrue(histogram.getPercentile(50) >= 5_000_000);
+
+        // Every value lands in a bucket that contains it
+        for (long value : new long[]{0, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.highestValueIn(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.highestValueIn(bucket - 1));
+        }
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    /**
+     * Test that the inventory counts operations and why sales failed.
+     */
+    @Test
+    public void testInventoryCounts() {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Java Programming", 29.99, 3);
+        InventoryMetrics metrics = inventory.getMetrics();
+        metrics.reset();
+
+        inventory.sellProduct("Java Programming", 2, "None");
+        inventory.sellProduct("Java Programming", 2, "None");   // Only 1 left
+        inventory.sellProduct("Tablet", 1, "None");
+        inventory.addStock("Java Programming", 5);
+        inventory.addStock("Tablet", 5);
+
+        assertEquals(3, metrics.getSellCount());
+        assertEquals(1, metrics.getSalesInsufficientStock());
+        assertEquals(1, metrics.getSalesNotFound());
+        assertEquals(2, metrics.getAddStockCount());
+        assertEquals(1, metrics.getAddStockNotFound());
+        assertEquals(0, metrics.getFindCount());   // Lookups inside a sale or restock aren't finds
+        inventory.findProduct("Java Programming");
+        assertEquals(1, metrics.getFindCount());
+        assertTrue(metrics.getSellP99Micros() > 0);
+
+        // Nothing is recorded while metrics are off
+        metrics.setEnabled(false);
+        inventory.sellProduct("Tablet", 1, "None");
+        assertEquals(3, metrics.getSellCount());
+        assertEquals(1, metrics.getSalesNotFound());
+    }
+
+    /**
+     * Test that the metrics can be read over JMX.
+     */
+    @Test
+    public void testMBean() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.getMetrics().registerMBean();
+        inventory.findProduct("Anything");
+
+        // Registering again (like after a reload) replaces the old one
+        inventory.getMetrics().registerMBean();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(InventoryMetrics.MBEAN_NAME);
+        assertEquals(1L, server.getAttribute(name, "FindCount"));
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        server.unregisterMBean(name);
+    }
+}
@@ -0,0 +1,69 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for InventorySnapshot.
+ * These tests check that an inventory comes back exactly as it was saved.
+ */
+public class InventorySnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test saving and loading an inventory.
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Java Programming", 29.99, 10);
+        inventory.addProduct("Electronics", "Laptop", 599.99, 5);
+        inventory.addProduct("Book", "Café Guide", 12.50, 3);  // Non-ASCII name
+        inventory.sellProduct("Java Programming", 4, "None");
+        inventory.setLowStockThreshold(6);
+        inventory.setReorderThreshold("Laptop", 8);
+
+        Path file = tempDir.resolve("inventory.snapshot");
+        InventorySnapshot.save(inventory, file);
+        InventoryManager loaded = InventorySnapshot.load(file, NoOpEventSink.INSTANCE);
+
+        // Same products, stock, prices and types
+        assertEquals(3, loaded.getProductCount());
+        Product book = loaded.findProduct("java programming");
+        assertEquals(6, book.getQuantity());                      // 10 - 4 sold
+        assertEquals(29.99, book.getPrice());
+        assertEquals("Book", book.getType());
+        assertEquals("Café Guide", loaded.findProduct("Café Guide").getName());
+
+        // Totals and groups are rebuilt too
+        assertEquals(inventory.getTotalInventoryValue(), loaded.getTotalInventoryValue(), 0.001);
+        assertEquals(6, loaded.getLowStockThreshold());
+        assertEquals(3, loaded.getLowStockProducts().size());
+        assertEquals(2, loaded.getProductsByType("Book").size());
+        assertEquals(8, loaded.findProduct("Laptop").getReorderThreshold());
+        assertEquals(Product.INVENTORY_THRESHOLD, book.getReorderThreshold());
+
+        // The loaded inventory works normally
+        assertTrue(loaded.sellProduct("Laptop", 1, "None"));
+        assertEquals(4, loaded.findProduct("Laptop").getQuantity());
+    }
+
+    /**
+     * Test that a file that isn't a snapshot is rejected.
+     */
+    @Test
+    public void testLoadInvalidFile() throws IOException {
+        Path file = tempDir.resolve("not-a-snapshot");
+        Files.writeString(file, "hello");
+
+        assertThrows(IOException.class, () -> InventorySnapshot.load(file, NoOpEventSink.INSTANCE));
+    }
+}
@@ -0,0 +1,68 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for Money.
+ * These tests check the rounding policy and that amounts held in cents
+ * add up exactly.
+ */
+public class MoneyTest {
+
+    /**
+     * Test turning dollars into cents and back.
+     */
+    @Test
+    public void testToCents() {
+        assertEquals(2999, Money.toCents(29.99));
+        assertEquals(101, Money.toCents(1.005));      // Half up, even though 1.005 is stored a bit low
+        assertEquals(100, Money.toCents(1.004));
+        assertEquals(-250, Money.toCents(-2.5));
+        assertEquals(29.99, Money.toDollars(2999));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.NaN));
+    }
+
+    /**
+     * Test percentages, parsing and formatting.
+     */
+    @Test
+    public void testPercentParseAndFormat() {
+        assertEquals(300, Money.percentOf(2999, 10));   // 299.9 cents rounds up
+        assertEquals(450, Money.percentOf(2999, 15));   // 449.85 cents rounds up
+        assertEquals(1, Money.percentOf(5, 10));         // Exactly half a cent rounds up
+
+        assertEquals(2999, Money.parseCents("29.99"));
+        assertEquals(500, Money.parseCents("5"));
+        assertEquals(510, Money.parseCents("5.1"));
+        assertEquals(101, Money.parseCents("1.005"));
+        assertEquals(-1234, Money.parseCents("-12.34"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("12a"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("."));
+
+        assertEquals("29.99", Money.format(2999));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-1.50", Money.format(-150));
+    }
+
+    /**
+     * Test that many small prices add up without drifting, and that
+     * discounts are worked out on whole cents.
+     */
+    @Test
+    public void testNoPennyDrift() {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        for (int i = 0; i < 1000; i++) {
+            inventory.addProduct("Book", "Pamphlet " + i, 10.10, 1);
+        }
+        // 1000 doubles of 10.10 add up to 10099.999999999...; cents don't
+        assertEquals(1_010_000, inventory.getTotalInventoryValueCents());
+
+        Product book = new Product("Java Programming", "Book", 29.99, 10);
+        DiscountStrategy student = DiscountCalculator.resolve("Student");
+        assertEquals(900, student.calculateDiscountCents(book, 3));   // 10% of 89.97, rounded up
+        assertEquals(8097, DiscountCalculator.finalPriceCents(book, 3, student));
+        assertEquals(80.97, DiscountCalculator.calculateFinalPrice(book, 3, "Student"));
+    }
+}
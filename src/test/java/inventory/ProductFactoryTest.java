@@ -87,4 +87,21 @@ public class ProductFactoryTest {
         // The factory should enforce minimum price of $10 for electronics
         assertEquals(10.0, electronics.getPrice());
     }
+
+    /**
+     * Test that type names are resolved to shared ProductType constants.
+     */
+    @Test
+    public void testProductTypes() {
+        // A type name read from a file is a different String object
+        String bookFromFile = new String("Book");
+        Product book = ProductFactory.createProduct(bookFromFile, "File Book", 20.0, 1);
+
+        assertSame(ProductType.BOOK, book.getProductType());
+        assertSame("Book", book.getType());   // The shared name, not the file's copy
+        assertSame(ProductType.ELECTRONICS, ProductType.of("Electronics"));
+        assertNull(ProductType.of("book"));
+        assertSame(ProductType.BOOK, ProductType.fromCode(ProductType.BOOK.ordinal()));
+        assertThrows(IllegalArgumentException.class, () -> new Product("Odd", "Toy", 1.0, 1));
+    }
 }
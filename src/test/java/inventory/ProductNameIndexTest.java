@@ -0,0 +1,89 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for ProductNameIndex.
+ * These tests check prefix and typo searches through InventoryManager.
+ */
+public class ProductNameIndexTest {
+
+    private static List<String> names(List<Product> products) {
+        List<String> names = new ArrayList<>();
+        for (Product product : products) {
+            names.add(product.getName());
+        }
+        return names;
+    }
+
+    private static InventoryManager sampleInventory() {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Java Programming", 29.99, 10);
+        inventory.addProduct("Book", "JavaScript Basics", 24.99, 10);
+        inventory.addProduct("Book", "Data Structures", 34.99, 8);
+        inventory.addProduct("Electronics", "Laptop", 599.99, 5);
+        inventory.addProduct("Electronics", "Laptop Stand", 39.99, 5);
+        inventory.addProduct("Electronics", "Mouse", 19.99, 20);
+        return inventory;
+    }
+
+    /**
+     * Test finding products by the start of their name.
+     */
+    @Test
+    public void testPrefixSearch() {
+        InventoryManager inventory = sampleInventory();
+
+        assertEquals(List.of("Java Programming", "JavaScript Basics"),
+                names(inventory.searchByPrefix("JAVA", 10)));
+        assertEquals(List.of("Laptop"), names(inventory.searchByPrefix("lap", 1)));
+        assertTrue(inventory.searchByPrefix("Tablet", 10).isEmpty());
+        assertEquals(6, inventory.searchByPrefix("", 10).size());
+
+        // Products added later are found straight away
+        inventory.addProduct("Electronics", "Lamp", 15.0, 3);
+        assertEquals(List.of("Lamp", "Laptop", "Laptop Stand"), names(inventory.searchByPrefix("la", 10)));
+    }
+
+    /**
+     * Test finding products from names with typos.
+     */
+    @Test
+    public void testSimilarSearch() {
+        InventoryManager inventory = sampleInventory();
+
+        assertEquals(List.of("Laptop"), names(inventory.searchSimilar("Lapotp", 1, 10)));    // Swapped letters
+        assertEquals(List.of("Mouse"), names(inventory.searchSimilar("mose", 1, 10)));       // Missing letter
+        assertEquals(List.of("Laptop"), names(inventory.searchSimilar("laptops", 1, 10)));   // Extra letter
+        assertTrue(inventory.searchSimilar("Keyboard", 2, 10).isEmpty());
+
+        // Closest first
+        inventory.addProduct("Electronics", "Laptip", 100.0, 1);
+        assertEquals(List.of("Laptop", "Laptip"), names(inventory.searchSimilar("Laptop", 2, 10)));
+        assertEquals(List.of("Laptop"), names(inventory.searchSimilar("Laptop", 2, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> inventory.searchSimilar("Laptop", -1, 10));
+    }
+
+    /**
+     * Test that products loaded in bulk are searchable too.
+     */
+    @Test
+    public void testLoadedProductsAreIndexed() {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        List<Product> loaded = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            loaded.add(new Product("Product " + i, ProductType.BOOK, 10.0, 1));
+        }
+        inventory.addLoadedProducts(loaded);
+
+        assertEquals(List.of("Product 99", "Product 990", "Product 991"),
+                names(inventory.searchByPrefix("product 99", 3)));
+        assertEquals("Product 123", inventory.searchSimilar("Prodcut 123", 1, 1).get(0).getName());
+    }
+}
@@ -0,0 +1,171 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for ReplicationLeader and ReplicationFollower.
+ * These tests run a leader and followers on localhost and check that the
+ * followers end up with the same products, stock and prices.
+ */
+public class ReplicationTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Check that a follower's copy matches the leader's inventory.
+     */
+    private static void assertSameInventory(InventoryManager leader, InventoryManager follower) {
+        assertEquals(leader.getProductCount(), follower.getProductCount());
+        for (Product product : leader.getAllProducts()) {
+            Product copy = follower.findProduct(product.getName());
+            assertNotNull(copy, product.getName());
+            assertEquals(product.getProductType(), copy.getProductType());
+            assertEquals(product.getQuantity(), copy.getQuantity());
+            assertEquals(product.getPriceCents(), copy.getPriceCents());
+        }
+        assertEquals(leader.getTotalInventoryValueCents(), follower.getTotalInventoryValueCents());
+    }
+
+    /**
+     * Test that products already there and every later change reach two followers.
+     */
+    @Test
+    public void testFollowersApplyChanges() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Java Programming", 29.99, 10);
+
+        InventoryManager first = new InventoryManager(NoOpEventSink.INSTANCE);
+        InventoryManager second = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (ReplicationLeader leader = new ReplicationLeader(inventory, 0);
+             ReplicationFollower firstFollower = new ReplicationFollower(first, "localhost", leader.getPort());
+             ReplicationFollower secondFollower = new ReplicationFollower(second, "localhost", leader.getPort())) {
+
+            inventory.addProduct("Electronics", "Laptop", 599.99, 5);
+            inventory.sellProduct("Java Programming", 3, "Student");
+            inventory.addStock("Laptop", 2);
+            inventory.findProduct("Laptop").setPrice(549.99);
+            inventory.sellProduct("Laptop", 100, "None");   // Fails - nothing sent
+
+            long sequence = leader.getSequence();
+            assertEquals(5, sequence);   // 2 products, a sale, a restock and a new price
+            assertTrue(firstFollower.awaitCaughtUp(sequence, TIMEOUT_MILLIS));
+            assertTrue(secondFollower.awaitCaughtUp(sequence, TIMEOUT_MILLIS));
+
+            assertSameInventory(inventory, first);
+            assertSameInventory(inventory, second);
+            assertEquals(7, first.findProduct("Java Programming").getQuantity());
+            assertEquals(54999, first.findProduct("Laptop").getPriceCents());
+            assertNull(firstFollower.getFailure());
+        }
+    }
+
+    /**
+     * Test that a follower joining late catches up on everything, and that
+     * a follower that reconnects carries on without applying anything twice.
+     */
+    @Test
+    public void testLateFollowerCatchesUp() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        InventoryManager copy = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (ReplicationLeader leader = new ReplicationLeader(inventory, 0)) {
+            for (int i = 0; i < 500; i++) {
+                inventory.addProduct(i % 2 == 0 ? "Book" : "Electronics", "Product " + i, 10 + i, 100);
+            }
+            for (int i = 0; i < 2000; i++) {
+                inventory.sellProduct("Product " + (i % 500), 1, "None");
+            }
+
+            long applied;
+            long logId;
+            try (ReplicationFollower follower = new ReplicationFollower(copy, "localhost", leader.getPort())) {
+                assertTrue(follower.awaitCaughtUp(leader.getSequence(), TIMEOUT_MILLIS));
+                applied = follower.getAppliedCount();
+                logId = follower.getLogId();
+            }
+            assertEquals(2500, applied);
+            assertEquals(leader.getLogId(), logId);
+            assertSameInventory(inventory, copy);
+
+            // More changes while the follower is away, then a new follower on the same copy
+            inventory.addStock("Product 7", 50);
+            inventory.findProduct("Product 8").setPrice(1.25);
+            try (ReplicationFollower follower =
+                         new ReplicationFollower(copy, "localhost", leader.getPort(), logId, applied)) {
+                assertTrue(follower.awaitCaughtUp(applied + 2, TIMEOUT_MILLIS));
+                assertEquals(0, follower.getLagRecords());
+                assertEquals(0, follower.getResyncCount());
+            }
+            assertSameInventory(inventory, copy);
+        }
+    }
+
+    /**
+     * Test that the log stays bounded, and a follower that needs records
+     * the leader has dropped resyncs from the leader's snapshot.
+     */
+    @Test
+    public void testBoundedLogResync() throws Exception {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        InventoryManager copy = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (ReplicationLeader leader = new ReplicationLeader(inventory, 0, 100)) {
+            for (int i = 0; i < 50; i++) {
+                inventory.addProduct("Book", "Product " + i, 10 + i, 100);
+            }
+            for (int i = 0; i < 1000; i++) {
+                inventory.sellProduct("Product " + (i % 50), 1, "None");
+            }
+            inventory.findProduct("Product 3").setPrice(1.25);
+            assertEquals(1051, leader.getSequence());
+            assertTrue(leader.getSequence() - leader.getFirstSequence() <= 100);
+
+            try (ReplicationFollower follower = new ReplicationFollower(copy, "localhost", leader.getPort())) {
+                assertTrue(follower.awaitCaughtUp(leader.getSequence(), TIMEOUT_MILLIS));
+                assertEquals(1, follower.getResyncCount());
+
+                inventory.addStock("Product 7", 5);
+                assertTrue(follower.awaitCaughtUp(leader.getSequence(), TIMEOUT_MILLIS));
+            }
+            assertSameInventory(inventory, copy);
+        }
+    }
+
+    /**
+     * Test that a follower of one leader resyncs when it connects to another,
+     * rather than taking its record count as a place in the new leader's log.
+     */
+    @Test
+    public void testNewLeaderForcesResync() throws Exception {
+        InventoryManager first = new InventoryManager(NoOpEventSink.INSTANCE);
+        first.addProduct("Book", "Java Programming", 29.99, 10);
+        first.addProduct("Electronics", "Laptop", 599.99, 5);
+        InventoryManager copy = new InventoryManager(NoOpEventSink.INSTANCE);
+        long applied;
+        long logId;
+        try (ReplicationLeader leader = new ReplicationLeader(first, 0);
+             ReplicationFollower follower = new ReplicationFollower(copy, "localhost", leader.getPort())) {
+            first.sellProduct("Laptop", 2, "None");
+            assertTrue(follower.awaitCaughtUp(leader.getSequence(), TIMEOUT_MILLIS));
+            applied = follower.getAppliedCount();
+            logId = follower.getLogId();
+        }
+
+        // Same products, different stock and prices, and a log of the same length
+        InventoryManager second = new InventoryManager(NoOpEventSink.INSTANCE);
+        second.addProduct("Book", "Java Programming", 24.99, 4);
+        second.addProduct("Electronics", "Laptop", 499.99, 9);
+        second.addProduct("Electronics", "Phone", 299.99, 1);
+        try (ReplicationLeader leader = new ReplicationLeader(second, 0)) {
+            assertEquals(applied, leader.getSequence());
+            try (ReplicationFollower follower =
+                         new ReplicationFollower(copy, "localhost", leader.getPort(), logId, applied)) {
+                second.addStock("Phone", 1);
+                assertTrue(follower.awaitCaughtUp(leader.getSequence(), TIMEOUT_MILLIS));
+                assertEquals(1, follower.getResyncCount());
+                assertEquals(leader.getLogId(), follower.getLogId());
+            }
+            assertSameInventory(second, copy);
+        }
+    }
+}
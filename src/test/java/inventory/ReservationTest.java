@@ -0,0 +1,148 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for Reservation and ReservationWheel.
+ * These tests check that held stock is counted separately and comes back
+ * when a reservation is released or runs out.
+ */
+public class ReservationTest {
+
+    private static final long ONE_HOUR = 60 * 60 * 1000;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Wait until a reservation is no longer held, or give up after a few seconds.
+     */
+    private static void awaitFinished(Reservation reservation) throws InterruptedException {
+        long giveUp = System.currentTimeMillis() + 5000;
+        while (reservation.isHeld() && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Test reserving, committing and releasing.
+     */
+    @Test
+    public void testReserveCommitRelease() {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Book", "Java Programming", 29.99, 10);
+        Product book = inventory.findProduct("Java Programming");
+
+        Reservation first = inventory.reserve("java programming", 3, ONE_HOUR);
+        Reservation second = inventory.reserve("Java Programming", 4, ONE_HOUR);
+        assertEquals(3, book.getQuantity());          // Held items can't be sold
+        assertEquals(7, book.getReservedQuantity());
+        assertFalse(inventory.sellProduct("Java Programming", 4, "None"));
+
+        // Paying keeps the items gone; giving up puts them back
+        assertTrue(inventory.commitReservation(first));
+        assertTrue(inventory.releaseReservation(second));
+        assertEquals(7, book.getQuantity());
+        assertEquals(0, book.getReservedQuantity());
+        assertEquals(Reservation.State.COMMITTED, first.getState());
+        assertEquals(Reservation.State.RELEASED, second.getState());
+
+        // A reservation can only finish once
+        assertFalse(inventory.releaseReservation(first));
+        assertFalse(inventory.commitReservation(second));
+        assertEquals(7, book.getQuantity());
+
+        // Unknown products and too little stock
+        assertNull(inventory.reserve("Tablet", 1, ONE_HOUR));
+        assertNull(inventory.reserve("Java Programming", 8, ONE_HOUR));
+    }
+
+    /**
+     * Test that a reservation nobody finishes goes back into stock.
+     */
+    @Test
+    public void testExpiry() throws InterruptedException {
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        inventory.addProduct("Electronics", "Laptop", 599.99, 5);
+        Product laptop = inventory.findProduct("Laptop");
+
+        Reservation reservation = inventory.reserve("Laptop", 2, 50);
+        assertEquals(3, laptop.getQuantity());
+
+        awaitFinished(reservation);
+        assertEquals(Reservation.State.EXPIRED, reservation.getState());
+        assertEquals(5, laptop.getQuantity());
+        assertEquals(0, laptop.getReservedQuantity());
+        assertEquals(5 * 599.99, inventory.getTotalInventoryValue(), 0.001);
+    }
+
+    /**
+     * Test a hold longer than one turn of a small wheel: it must wait for
+     * its last turn instead of expiring the first time the hand passes.
+     */
+    @Test
+    public void testHoldLongerThanOneTurn() throws InterruptedException {
+        ReservationWheel wheel = new ReservationWheel(10, 8);   // 80 ms per turn
+        try {
+            Product product = new Product("Mouse", "Electronics", 19.99, 10);
+            assertTrue(product.reserve(1));
+            long start = System.nanoTime();
+            Reservation reservation = new Reservation(1, product, 1, start + 300_000_000L);
+            wheel.schedule(reservation);
+
+            Thread.sleep(100);
+            assertTrue(reservation.isHeld());
+
+            awaitFinished(reservation);
+            assertEquals(Reservation.State.EXPIRED, reservation.getState());
+            assertTrue(System.nanoTime() - start >= 300_000_000L);
+            assertEquals(10, product.getQuantity());
+            assertEquals(0, wheel.getPendingCount());
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    /**
+     * Test that holds aren't saved: the journal only records the items that
+     * were bought, and a snapshot counts held items as still in stock.
+     */
+    @Test
+    public void testHoldsAreNotSaved() throws IOException {
+        Path journalFile = tempDir.resolve("inventory.journal");
+        Path snapshotFile = tempDir.resolve("inventory.snapshot");
+        InventoryManager inventory = new InventoryManager(NoOpEventSink.INSTANCE);
+        try (InventoryJournal journal = new InventoryJournal(journalFile, InventoryJournal.Mode.SYNC)) {
+            inventory.setJournal(journal);
+            inventory.addProduct("Electronics", "Laptop", 599.99, 10);
+            inventory.reserve("Laptop", 3, ONE_HOUR);                                 // Still held
+            inventory.commitReservation(inventory.reserve("Laptop", 2, ONE_HOUR));   // Bought
+            inventory.releaseReservation(inventory.reserve("Laptop", 1, ONE_HOUR));  // Given up
+        }
+        Product laptop = inventory.findProduct("Laptop");
+        assertEquals(5, laptop.getQuantity());
+        assertEquals(3, laptop.getReservedQuantity());
+
+        // The product and the sale - nothing for the holds
+        InventoryManager replayed = new InventoryManager(NoOpEventSink.INSTANCE);
+        assertEquals(2, InventoryJournal.replay(journalFile, replayed));
+        assertEquals(8, replayed.findProduct("Laptop").getQuantity());
+
+        inventory.close();
+        InventorySnapshot.save(inventory, snapshotFile);
+        InventoryManager loaded = InventorySnapshot.load(snapshotFile, NoOpEventSink.INSTANCE);
+        assertEquals(8, loaded.findProduct("Laptop").getQuantity());
+        assertEquals(0, loaded.findProduct("Laptop").getReservedQuantity());
+
+        // A closed inventory takes no new holds, and leaves the stock alone
+        assertThrows(IllegalStateException.class, () -> inventory.reserve("Laptop", 1, ONE_HOUR));
+        assertEquals(5, laptop.getQuantity());
+        assertEquals(3, laptop.getReservedQuantity());
+    }
+}
@@ -0,0 +1,90 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simple test class for ShardedInventoryManager.
+ * These tests check that a sharded inventory gives the same answers as a
+ * single InventoryManager holding the same products.
+ */
+public class ShardedInventoryManagerTest {
+
+    private static final int PRODUCTS = 500;
+
+    /**
+     * Fill an inventory the same way through either API.
+     */
+    private static void fill(ShardedInventoryManager sharded, InventoryManager single) {
+        for (int i = 0; i < PRODUCTS; i++) {
+            String type = (i % 3 == 0) ? "Book" : "Electronics";
+            double price = 10.0 + (i % 50) + 0.99;
+            int quantity = i % 12;
+            assertTrue(sharded.addProduct(type, "Item " + i, price, quantity));
+            single.addProduct(type, "Item " + i, price, quantity);
+        }
+    }
+
+    /**
+     * Test that whole-inventory answers match a single inventory.
+     */
+    @Test
+    public void testAggregatesMatchSingleInventory() {
+        ShardedInventoryManager sharded =
+                new ShardedInventoryManager(NoOpEventSink.INSTANCE, 8, ForkJoinPool.commonPool());
+        InventoryManager single = new InventoryManager(NoOpEventSink.INSTANCE);
+        fill(sharded, single);
+
+        assertEquals(PRODUCTS, sharded.getProductCount());
+        assertEquals(single.getTotalInventoryValueCents(), sharded.getTotalInventoryValueCents());
+        assertEquals(single.getInventoryValueCentsByType("Book"), sharded.getInventoryValueCentsByType("Book"));
+        assertEquals(single.getInventoryValueByType("Book"), sharded.getInventoryValueByType("Book"));
+        assertEquals(single.getLowStockProducts().size(), sharded.getLowStockProducts().size());
+        assertEquals(single.getProductCountByType("Electronics"), sharded.getProductsByType("Electronics").size());
+        assertTrue(sharded.getProductsByType("Toy").isEmpty());
+
+        sharded.setLowStockThreshold(0);
+        single.setLowStockThreshold(0);
+        assertEquals(single.getLowStockProducts().size(), sharded.getLowStockProducts().size());
+        assertEquals(0, sharded.getLowStockThreshold());
+
+        List<Product> found = sharded.searchByPrefix("item 1", 3);
+        assertEquals("Item 1", found.get(0).getName());
+        assertEquals("Item 10", found.get(1).getName());
+        assertEquals("Item 100", found.get(2).getName());
+    }
+
+    /**
+     * Test that operations on one product go to the right shard, whatever
+     * the upper/lower case of the name.
+     */
+    @Test
+    public void testPointOperations() {
+        ShardedInventoryManager sharded =
+                new ShardedInventoryManager(NoOpEventSink.INSTANCE, 5, ForkJoinPool.commonPool());
+        assertEquals(8, sharded.getShardCount());   // Rounded up to a power of two
+
+        assertTrue(sharded.addProduct("Book", "Java Programming", 29.99, 10));
+        assertFalse(sharded.addProduct("Book", "JAVA PROGRAMMING", 19.99, 1));
+        assertNotNull(sharded.findProduct("java programming"));
+
+        assertTrue(sharded.sellProduct("JAVA programming", 3, "None"));
+        assertTrue(sharded.addStock("Java Programming", 1));
+        assertFalse(sharded.addStock("Tablet", 1));
+        assertEquals(8, sharded.findProduct("Java Programming").getQuantity());
+
+        Reservation reservation = sharded.reserve("Java Programming", 2, 60_000);
+        assertTrue(sharded.commitReservation(reservation));
+        assertEquals(6, sharded.findProduct("Java Programming").getQuantity());
+
+        List<SaleResult> results = sharded.sellProducts(List.of(
+                new OrderLine("Java Programming", 1, "Student"),
+                new OrderLine("Tablet", 1, "None")));
+        assertEquals(SaleResult.Status.SOLD, results.get(0).getStatus());
+        assertEquals(SaleResult.Status.NOT_FOUND, results.get(1).getStatus());
+    }
+}